@@ -0,0 +1,289 @@
+/**
+ *
+ * @author Blake Mills
+ * COSC 3325 - Benchmark runner
+ *
+ * The purpose of this class is to run any of the sorts from SortBenchmark over a grid of sizes and
+ * input distributions and write the results as CSV or JSON, so runs can be charted and compared
+ * across machines and JVM versions. Each combination is run for a number of warmup repetitions
+ * followed by the measured repetitions. Every repetition sorts a fresh copy of the same seeded input
+ * (small sizes sort a batch of copies per repetition so they can be timed accurately), and the
+ * result row holds the median and 95th percentile time per sort, the sort's comparisons, swaps and
+ * moves from its SortMetrics, and the bytes the sort allocated on the calling thread.
+ *
+ * Compile and run from the algorithm-analysis folder:
+ *   javac -d bin common/*.java program-1/src/*.java program-2/*.java benchmarks/*.java
+ *   java -Xmx4g -cp bin BenchmarkRunner algorithms=intro,radix sizes=1e3,1e5,1e7 format=csv output=results.csv
+ *
+ * Every parameter is optional:
+ *   algorithms=    comma separated names from SortBenchmark (default: intro,merge-buffered,quick-dual,radix)
+ *   sizes=         comma separated array sizes, up to 1e8 (default: 1000,10000,100000,1000000)
+ *   distributions= comma separated DataGenerator distributions (default: uniform)
+ *   repetitions=   measured repetitions per combination (default: 10)
+ *   warmup=        warmup repetitions per combination (default: 5)
+ *   seed=          seed for the input data (default: 42)
+ *   format=        csv or json (default: csv)
+ *   output=        file to write the rows to (default: standard output)
+ */
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public class BenchmarkRunner {
+    private static final int ELEMENTS_PER_BATCH = 1 << 16; // roughly how many elements one repetition sorts
+
+    public static void main(String[] args) throws IOException {
+        List<String> algorithmNames = List.of("intro", "merge-buffered", "quick-dual", "radix"); // the sorts to run
+        int[] sizes = {1000, 10000, 100000, 1000000}; // the array sizes to run
+        String[] distributions = {"uniform"}; // the input distributions to run
+        int repetitions = 10; // number of measured repetitions per combination
+        int warmup = 5; // number of warmup repetitions per combination
+        long seed = 42; // the seed for the input data
+        String format = "csv"; // the output format
+        String output = null; // the output file, or null for standard output
+
+        // read the key=value parameters
+        for (Map.Entry<String, String> parameter : SortBenchmark.parseArgs(args).entrySet()) {
+            String key = parameter.getKey();
+            String value = parameter.getValue();
+            switch (key) {
+                case "algorithms":
+                    algorithmNames = List.of(value.split(","));
+                    break;
+                case "sizes":
+                    sizes = SortBenchmark.parseInts(value);
+                    break;
+                case "distributions":
+                    distributions = value.split(",");
+                    break;
+                case "repetitions":
+                    repetitions = Integer.parseInt(value);
+                    break;
+                case "warmup":
+                    warmup = Integer.parseInt(value);
+                    break;
+                case "seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "format":
+                    format = value;
+                    break;
+                case "output":
+                    output = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown parameter: " + key);
+            }// end switch
+        }// end for
+        if (!format.equals("csv") && !format.equals("json")) {
+            throw new IllegalArgumentException("Format must be csv or json: " + format);
+        }// end if
+        if (repetitions < 1) {
+            throw new IllegalArgumentException("Need at least one repetition: " + repetitions);
+        }// end if
+
+        Map<String, SortBenchmark.SortTask> all = SortBenchmark.algorithms();
+        PrintWriter out = output == null ? new PrintWriter(System.out) : new PrintWriter(new FileWriter(output));
+        try {
+            boolean json = format.equals("json");
+            boolean firstRow = true; // JSON rows after the first need a leading comma
+            out.println(json ? "[" : Row.CSV_HEADER);
+            for (String name : algorithmNames) {
+                SortBenchmark.SortTask task = all.get(name);
+                if (task == null) {
+                    throw new IllegalArgumentException("Unknown algorithm: " + name + " (known: " + all.keySet() + ")");
+                }// end if
+                for (String distribution : distributions) {
+                    for (int size : sizes) {
+                        int[] input = SortBenchmark.createInput(distribution, size, seed);
+                        Row row = run(name, distribution, task, input, warmup, repetitions);
+                        if (json) {
+                            out.println((firstRow ? "  " : ", ") + row.toJson());
+                        }
+                        else {
+                            out.println(row.toCsv());
+                        }// end else
+                        out.flush();
+                        firstRow = false;
+                    }// end for
+                }// end for
+            }// end for
+            if (json) {
+                out.println("]");
+            }// end if
+        } finally {
+            // closing the writer on System.out would close stdout for the rest of the JVM
+            if (output == null) {
+                out.flush();
+            } else {
+                out.close();
+            }// end else
+        }// end finally
+    }// end main
+
+    /**
+     * One line of results
+     */
+    public static class Row {
+        static final String CSV_HEADER = "algorithm,distribution,size,repetitions,median_ns,p95_ns,"
+                + "comparisons,swaps,moves,bytes_per_op,status,java_version";
+
+        final String algorithm; // the sort that was run
+        final String distribution; // the input distribution
+        final int size; // the array size
+        final int repetitions; // the number of measured repetitions
+        final double medianNanos; // median time for one sort
+        final double p95Nanos; // 95th percentile time for one sort
+        final SortMetrics metrics; // the metrics from one sort of the input
+        final double bytesPerOp; // average bytes allocated by one sort
+        final String status; // ok, or why the combination could not be run
+
+        Row(String algorithm, String distribution, int size, int repetitions, double medianNanos,
+                double p95Nanos, SortMetrics metrics, double bytesPerOp, String status) {
+            this.algorithm = algorithm;
+            this.distribution = distribution;
+            this.size = size;
+            this.repetitions = repetitions;
+            this.medianNanos = medianNanos;
+            this.p95Nanos = p95Nanos;
+            this.metrics = metrics;
+            this.bytesPerOp = bytesPerOp;
+            this.status = status;
+        }
+
+        /**
+         * @return this row as a line of CSV matching CSV_HEADER
+         */
+        String toCsv() {
+            return String.join(",", csvField(algorithm), csvField(distribution), Integer.toString(size),
+                    Integer.toString(repetitions), format(medianNanos), format(p95Nanos),
+                    Long.toString(metrics.getComparisons()), Long.toString(metrics.getSwaps()),
+                    Long.toString(metrics.getMoves()), format(bytesPerOp), csvField(status),
+                    csvField(System.getProperty("java.version")));
+        }// end toCsv
+
+        /**
+         * @return this row as a JSON object with the same fields as the CSV
+         */
+        String toJson() {
+            return "{\"algorithm\": " + jsonString(algorithm)
+                    + ", \"distribution\": " + jsonString(distribution)
+                    + ", \"size\": " + size
+                    + ", \"repetitions\": " + repetitions
+                    + ", \"median_ns\": " + jsonNumber(medianNanos)
+                    + ", \"p95_ns\": " + jsonNumber(p95Nanos)
+                    + ", \"comparisons\": " + metrics.getComparisons()
+                    + ", \"swaps\": " + metrics.getSwaps()
+                    + ", \"moves\": " + metrics.getMoves()
+                    + ", \"bytes_per_op\": " + jsonNumber(bytesPerOp)
+                    + ", \"status\": " + jsonString(status)
+                    + ", \"java_version\": " + jsonString(System.getProperty("java.version")) + "}";
+        }// end toJson
+    }// end Row
+
+    /**
+     * Runs one algorithm on one input for the warmup and measured repetitions
+     * @param name the algorithm's name
+     * @param distribution the input's distribution
+     * @param task the sort to run
+     * @param input the unsorted input, which is never modified
+     * @param warmup the number of warmup repetitions
+     * @param repetitions the number of measured repetitions
+     * @return the results
+     */
+    public static Row run(String name, String distribution, SortBenchmark.SortTask task, int[] input,
+            int warmup, int repetitions) {
+        int batch = Math.max(1, ELEMENTS_PER_BATCH / Math.max(1, input.length)); // sorts per repetition
+        int[][] copies = new int[batch][input.length];
+        double[] samples = new double[repetitions]; // time per sort for each measured repetition
+        long totalBytes = 0; // bytes allocated during the measured repetitions
+        SortMetrics metrics = new SortMetrics(); // metrics from the first sort of the last repetition
+
+        try {
+            for (int repetition = 0; repetition < warmup + repetitions; repetition++) {
+                for (int i = 0; i < batch; i++) {
+                    System.arraycopy(input, 0, copies[i], 0, input.length);
+                }// end for
+
+                long bytesBefore = SortBenchmark.allocatedBytes();
+                long start = System.nanoTime();
+                metrics = task.sort(copies[0]);
+                for (int i = 1; i < batch; i++) {
+                    task.sort(copies[i]);
+                }// end for
+                long elapsed = System.nanoTime() - start;
+                long bytes = SortBenchmark.allocatedBytes() - bytesBefore;
+
+                // only keep the repetitions after the warmup
+                if (repetition >= warmup) {
+                    samples[repetition - warmup] = (double) elapsed / batch;
+                    totalBytes += bytes;
+                }// end if
+            }// end for
+        } catch (StackOverflowError e) {
+            return new Row(name, distribution, input.length, 0, Double.NaN, Double.NaN, new SortMetrics(), Double.NaN,
+                    "StackOverflowError");
+        } catch (IllegalArgumentException e) {
+            return new Row(name, distribution, input.length, 0, Double.NaN, Double.NaN, new SortMetrics(), Double.NaN,
+                    "skipped: " + e.getMessage());
+        }// end catch
+
+        Arrays.sort(samples);
+        return new Row(name, distribution, input.length, repetitions, percentile(samples, 50),
+                percentile(samples, 95), metrics, (double) totalBytes / ((long) batch * repetitions), "ok");
+    }// end run
+
+    /**
+     * Finds a percentile of sorted samples using the nearest-rank method
+     * @param sorted the samples in ascending order
+     * @param percent the percentile, from 0 to 100
+     * @return the sample at that percentile
+     */
+    public static double percentile(double[] sorted, double percent) {
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length); // 1-based rank of the sample
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }// end percentile
+
+    /**
+     * Formats a number with one decimal place, or as an empty CSV field when it is not a number
+     * @param value the number
+     * @return the formatted number
+     */
+    private static String format(double value) {
+        return Double.isNaN(value) ? "" : String.format(Locale.ROOT, "%.1f", value);
+    }// end format
+
+    /**
+     * Formats a number with one decimal place, or as JSON null when it is not a number
+     * @param value the number
+     * @return the formatted number
+     */
+    private static String jsonNumber(double value) {
+        return Double.isNaN(value) ? "null" : String.format(Locale.ROOT, "%.1f", value);
+    }// end jsonNumber
+
+    /**
+     * Quotes a CSV field if it contains a comma or quote
+     * @param value the field
+     * @return the field, quoted if needed
+     */
+    private static String csvField(String value) {
+        if (value.contains(",") || value.contains("\"")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }// end if
+        return value;
+    }// end csvField
+
+    /**
+     * Turns a string into a JSON string literal
+     * @param value the string
+     * @return the quoted and escaped string
+     */
+    private static String jsonString(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }// end jsonString
+}// end class BenchmarkRunner
@@ -0,0 +1,301 @@
+/**
+ *
+ * @author Blake Mills
+ * COSC 3325 - Complexity report
+ *
+ * The purpose of this class is to check how each sort's cost grows with n, instead of eyeballing the
+ * comparison counts SortingAlgorithms and SortingAlgorithms2 print for four sizes. It runs every
+ * algorithm over a geometric ladder of sizes (from, from * factor, from * factor^2, ... up to to),
+ * measuring the time per sort with SortBenchmark.measure and the comparisons from its SortMetrics.
+ * Then it fits both series against three growth models, n, n log n and n^2, by least squares.
+ *
+ * Each model is y = c * f(n), with c chosen to minimise the squared relative error, so the small sizes
+ * count as much as the large ones. The model with the smallest RMS relative error is the measured growth.
+ * The exponent column is the slope of log y against log n (about 1.0 for n, a little above 1 for n log n,
+ * 2.0 for n^2). An algorithm is flagged when the time or the comparisons grow faster than the class it is
+ * expected to be in on random input (EXPECTED below), which catches regressions such as an accidental O(n^2)
+ * path in quickSort. Growing slower than expected is not flagged. Running it on another distribution shows
+ * where an algorithm leaves its expected class, such as quick on sorted input. The program exits with
+ * status 1 if anything was flagged.
+ *
+ * A size is only run if the previous one suggests the sort will still take less than maxSeconds, so the
+ * O(n^2) sorts stop early on the ladder. A fit needs at least three sizes. Sorts that make no comparisons
+ * (radix and counting) are only fitted on time. A sort that refuses the input with an IllegalArgumentException,
+ * such as counting on keys spread over the whole int range, is reported as skipped.
+ *
+ * Compile and run from the algorithm-analysis folder:
+ *   javac -d bin common/*.java program-1/src/*.java program-2/*.java benchmarks/*.java
+ *   java -cp bin ComplexityReport from=1000 to=1e6 factor=2
+ *   java -cp bin ComplexityReport algorithms=quick,intro distribution=sorted
+ *
+ * Every parameter is optional:
+ *   algorithms=    comma separated names from SortBenchmark (default: all of them)
+ *   from=          the smallest size (default: 1000)
+ *   to=            the largest size (default: 1000000)
+ *   factor=        the ratio between sizes on the ladder (default: 2)
+ *   distribution=  DataGenerator distribution for the input (default: uniform)
+ *   maxSeconds=    longest a single sort may be expected to take before the ladder stops (default: 1)
+ *   seed=          seed for the input data (default: 42)
+ *   warmup=        warmup iterations per size (default: 2)
+ *   iterations=    measured iterations per size (default: 3)
+ */
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class ComplexityReport {
+
+    /**
+     * The growth models, from slowest growing to fastest
+     */
+    enum Growth {
+        LINEAR("n"),
+        N_LOG_N("n log n"),
+        QUADRATIC("n^2");
+
+        private final String label; // how the model is printed
+
+        Growth(String label) {
+            this.label = label;
+        }
+
+        /**
+         * @param n the size
+         * @return the model's value at n, without a constant factor
+         */
+        double apply(double n) {
+            switch (this) {
+                case LINEAR:
+                    return n;
+                case N_LOG_N:
+                    return n * Math.log(n) / Math.log(2);
+                default:
+                    return n * n;
+            }// end switch
+        }// end apply
+
+        @Override
+        public String toString() {
+            return label;
+        }// end toString
+    }// end Growth
+
+    /**
+     * The class each algorithm should be in on random input; anything not listed is expected to be n log n
+     * @param algorithm the algorithm's name
+     * @return the expected growth of its time and comparisons
+     */
+    static Growth expected(String algorithm) {
+        switch (algorithm) {
+            case "bubble":
+            case "selection":
+            case "insertion":
+                return Growth.QUADRATIC;
+            case "radix":
+            case "counting":
+                return Growth.LINEAR;
+            default:
+                return Growth.N_LOG_N;
+        }// end switch
+    }// end expected
+
+    /**
+     * The best of the growth models for one series of measurements
+     */
+    static class Fit {
+        final Growth growth; // the model with the smallest error
+        final double constant; // c in y = c * f(n)
+        final double error; // RMS relative error of the model
+        final double exponent; // slope of log y against log n
+
+        Fit(Growth growth, double constant, double error, double exponent) {
+            this.growth = growth;
+            this.constant = constant;
+            this.error = error;
+            this.exponent = exponent;
+        }
+    }// end Fit
+
+    public static void main(String[] args) {
+        Map<String, SortBenchmark.SortTask> all = SortBenchmark.algorithms(); // every sort we know how to run
+        List<String> algorithmNames = new ArrayList<>(all.keySet()); // the sorts to run
+        int from = 1000; // the smallest size
+        int to = 1000000; // the largest size
+        double factor = 2; // the ratio between sizes
+        String distribution = "uniform"; // the input distribution
+        double maxSeconds = 1; // longest expected single sort before the ladder stops
+        long seed = 42; // the seed for the input data
+        int warmup = 2; // number of warmup iterations per size
+        int iterations = 3; // number of measured iterations per size
+
+        // read the key=value parameters
+        for (Map.Entry<String, String> parameter : SortBenchmark.parseArgs(args).entrySet()) {
+            String key = parameter.getKey();
+            String value = parameter.getValue();
+            switch (key) {
+                case "algorithms":
+                    algorithmNames = List.of(value.split(","));
+                    break;
+                case "from":
+                    from = SortBenchmark.parseInts(value)[0];
+                    break;
+                case "to":
+                    to = SortBenchmark.parseInts(value)[0];
+                    break;
+                case "factor":
+                    factor = Double.parseDouble(value);
+                    break;
+                case "distribution":
+                    distribution = value;
+                    break;
+                case "maxSeconds":
+                    maxSeconds = Double.parseDouble(value);
+                    break;
+                case "seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "warmup":
+                    warmup = Integer.parseInt(value);
+                    break;
+                case "iterations":
+                    iterations = Integer.parseInt(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown parameter: " + key);
+            }// end switch
+        }// end for
+        if (factor <= 1) {
+            throw new IllegalArgumentException("factor must be greater than 1: " + factor);
+        }// end if
+
+        // build the ladder once, so every algorithm gets the same sizes
+        List<Integer> ladder = new ArrayList<>();
+        for (double size = from; size <= to; size *= factor) {
+            int n = (int) Math.round(size);
+            if (ladder.isEmpty() || n > ladder.get(ladder.size() - 1)) {
+                ladder.add(n);
+            }// end if
+        }// end for
+
+        System.out.printf("%-18s %10s %16s %16s%n", "Algorithm", "Size", "ns/op", "Comparisons");
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("%-18s %-9s %-9s %7s %8s %-9s %7s %8s %4s  %s%n", "Algorithm", "Expected",
+                "Time", "Error", "Exponent", "Compares", "Error", "Exponent", "Runs", "Flag"));
+        boolean flagged = false;
+        for (String name : algorithmNames) {
+            SortBenchmark.SortTask task = all.get(name);
+            if (task == null) {
+                throw new IllegalArgumentException("Unknown algorithm: " + name);
+            }// end if
+            List<double[]> points = new ArrayList<>(); // {n, ns/op, comparisons} for every size run
+            String note = ""; // why the ladder stopped early, if it did
+            String skipped = null; // why the sort refused the input, if it did
+            for (int n : ladder) {
+                // stop when the last size, scaled up to this one as n^2, would take too long
+                if (!points.isEmpty()) {
+                    double[] last = points.get(points.size() - 1);
+                    double ratio = n / last[0];
+                    if (last[1] * ratio * ratio > maxSeconds * 1e9) {
+                        break;
+                    }// end if
+                }// end if
+                int[] input = SortBenchmark.createInput(distribution, n, seed);
+                try {
+                    long comparisons = task.sort(input.clone()).getComparisons();
+                    double nanos = SortBenchmark.measure(task, input, warmup, iterations).nanosPerOp;
+                    points.add(new double[] {n, nanos, comparisons});
+                    System.out.printf("%-18s %10d %16.1f %16d%n", name, n, nanos, comparisons);
+                } catch (StackOverflowError e) {
+                    // a recursion n deep is itself a sign of an O(n^2) path
+                    note = "stack overflow at n=" + n;
+                    break;
+                } catch (IllegalArgumentException e) {
+                    // the sort does not take this input, such as counting on a wide range
+                    skipped = e.getMessage();
+                    break;
+                }// end catch
+            }// end for
+
+            Growth expected = expected(name);
+            Fit time = points.size() >= 3 ? fit(points, 1) : null;
+            Fit comparisons = points.size() >= 3 && points.get(0)[2] > 0 ? fit(points, 2) : null;
+            boolean bad = !note.isEmpty()
+                    || time != null && time.growth.compareTo(expected) > 0
+                    || comparisons != null && comparisons.growth.compareTo(expected) > 0;
+            flagged |= bad;
+            summary.append(String.format("%-18s %-9s %s %s %4d  %s%n", name, expected, describe(time),
+                    describe(comparisons), points.size(),
+                    bad ? "SLOWER THAN EXPECTED " + note : skipped != null ? "skipped: " + skipped
+                    : points.size() < 3 ? "too few sizes" : "ok"));
+        }// end for
+
+        System.out.printf("%nGrowth fitted over %s input, sizes %d to %d%n", distribution, from, to);
+        System.out.print(summary);
+        if (flagged) {
+            System.exit(1);
+        }// end if
+    }// end main
+
+    /**
+     * Fits one series of measurements against every growth model and keeps the best
+     * @param points {n, ns/op, comparisons} for every size
+     * @param column which series to fit: 1 for time, 2 for comparisons
+     * @return the best fitting model
+     */
+    static Fit fit(List<double[]> points, int column) {
+        Fit best = null;
+        for (Growth growth : Growth.values()) {
+            // minimising sum(((y - c f) / y)^2) gives c = sum(f / y) / sum((f / y)^2)
+            double sumRatio = 0;
+            double sumRatioSquared = 0;
+            for (double[] point : points) {
+                double ratio = growth.apply(point[0]) / point[column];
+                sumRatio += ratio;
+                sumRatioSquared += ratio * ratio;
+            }// end for
+            double constant = sumRatio / sumRatioSquared;
+            double squaredError = 0;
+            for (double[] point : points) {
+                double relative = (point[column] - constant * growth.apply(point[0])) / point[column];
+                squaredError += relative * relative;
+            }// end for
+            double error = Math.sqrt(squaredError / points.size());
+            if (best == null || error < best.error) {
+                best = new Fit(growth, constant, error, exponent(points, column));
+            }// end if
+        }// end for
+        return best;
+    }// end fit
+
+    /**
+     * Fits log y = a + b log n by least squares
+     * @param points {n, ns/op, comparisons} for every size
+     * @param column which series to fit: 1 for time, 2 for comparisons
+     * @return the slope b, the power of n the series grows like
+     */
+    static double exponent(List<double[]> points, int column) {
+        double sumX = 0, sumY = 0, sumXX = 0, sumXY = 0;
+        for (double[] point : points) {
+            double x = Math.log(point[0]);
+            double y = Math.log(point[column]);
+            sumX += x;
+            sumY += y;
+            sumXX += x * x;
+            sumXY += x * y;
+        }// end for
+        int count = points.size();
+        return (count * sumXY - sumX * sumY) / (count * sumXX - sumX * sumX);
+    }// end exponent
+
+    /**
+     * Formats a fit as its model, error and exponent, or dashes when there is no fit
+     * @param fit the fit, or null
+     * @return the three columns
+     */
+    private static String describe(Fit fit) {
+        if (fit == null) {
+            return String.format("%-9s %7s %8s", "-", "-", "-");
+        }// end if
+        return String.format("%-9s %6.1f%% %8.2f", fit.growth, fit.error * 100, fit.exponent);
+    }// end describe
+}// end class ComplexityReport
@@ -0,0 +1,222 @@
+/**
+ *
+ * @author Blake Mills
+ * COSC 3325 - External sort benchmark
+ *
+ * The purpose of this class is to measure ExternalSort on a file much larger than the heap. It writes
+ * a seeded file of random ints, sorts it with the given memory budget and fan-in, then reads the
+ * output back to check that it is in order and holds the same ints (by count and checksum). It
+ * reports the number of runs and merge passes, the time taken, the throughput and the most heap
+ * the JVM used.
+ *
+ * Compile and run from the algorithm-analysis folder (the file needs 3x its size in free disk):
+ *   javac -d bin common/*.java program-1/src/*.java program-2/*.java benchmarks/*.java
+ *   java -Xmx512m -cp bin ExternalSortBenchmark size=4g memory=256m fanIn=64
+ *
+ * Every parameter is optional:
+ *   size=          size of the input file in bytes, with an optional k, m or g suffix (default: 4g)
+ *   memory=        ExternalSort memory budget in bytes, with an optional suffix (default: 64m)
+ *   fanIn=         number of runs merged at once (default: 64)
+ *   distribution=  DataGenerator distribution for the input (default: uniform)
+ *   dir=           directory for the input, output and runs (default: the system temp directory)
+ *   seed=          seed for the input data (default: 42)
+ */
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+public class ExternalSortBenchmark {
+    private static final int BLOCK_INTS = 1 << 20; // ints generated and checked at a time
+
+    public static void main(String[] args) throws IOException {
+        long size = 4L << 30; // input file size in bytes
+        long memory = ExternalSort.DEFAULT_MEMORY_BYTES; // memory budget for the sort
+        int fanIn = ExternalSort.DEFAULT_FAN_IN; // runs merged at once
+        String distribution = "uniform"; // the input distribution
+        Path directory = Path.of(System.getProperty("java.io.tmpdir")); // where the files go
+        long seed = 42; // the seed for the input data
+
+        // read the key=value parameters
+        for (Map.Entry<String, String> parameter : SortBenchmark.parseArgs(args).entrySet()) {
+            String key = parameter.getKey();
+            String value = parameter.getValue();
+            switch (key) {
+                case "size":
+                    size = parseBytes(value);
+                    break;
+                case "memory":
+                    memory = parseBytes(value);
+                    break;
+                case "fanIn":
+                    fanIn = Integer.parseInt(value);
+                    break;
+                case "distribution":
+                    distribution = value;
+                    break;
+                case "dir":
+                    directory = Path.of(value);
+                    break;
+                case "seed":
+                    seed = Long.parseLong(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown parameter: " + key);
+            }// end switch
+        }// end for
+
+        Path input = Files.createTempFile(directory, "sort-input-", ".bin");
+        Path output = Files.createTempFile(directory, "sort-output-", ".bin");
+        try {
+            long ints = size / Integer.BYTES; // number of ints in the file
+            System.out.printf("Writing %,d ints (%,d MB) of %s data to %s%n", ints, size >> 20, distribution, input);
+            long inputChecksum = writeInput(input, ints, distribution, seed);
+
+            ExternalSort sorter = new ExternalSort(memory, fanIn, directory);
+            System.out.printf("Sorting with memory=%,d MB fanIn=%d max heap=%,d MB%n",
+                    memory >> 20, fanIn, Runtime.getRuntime().maxMemory() >> 20);
+            SortMetrics metrics = sorter.sort(input, output);
+
+            long outputChecksum = checkOutput(output, ints);
+            if (outputChecksum != inputChecksum) {
+                throw new IllegalStateException("Output does not hold the same ints as the input");
+            }// end if
+
+            double seconds = metrics.getElapsedNanos() / 1e9;
+            System.out.printf("%-14s %d%n", "Runs", sorter.getRunsCreated());
+            System.out.printf("%-14s %d%n", "Merge passes", sorter.getMergePasses());
+            System.out.printf("%-14s %,d%n", "Comparisons", metrics.getComparisons());
+            System.out.printf("%-14s %,d%n", "Moves", metrics.getMoves());
+            System.out.printf("%-14s %.2f s%n", "Time", seconds);
+            System.out.printf("%-14s %.1f MB/s%n", "Throughput", (size >> 20) / seconds);
+            System.out.printf("%-14s %,d MB%n", "Peak heap", peakHeapBytes() >> 20);
+        } finally {
+            Files.deleteIfExists(input);
+            Files.deleteIfExists(output);
+        }// end finally
+    }// end main
+
+    /**
+     * Writes the input file one block at a time so it never has to be in memory all at once
+     * @param file the file to write
+     * @param ints the number of ints to write
+     * @param distribution the DataGenerator distribution; patterned distributions repeat every block
+     * @param seed the seed for the data
+     * @return the checksum of the ints written
+     * @throws IOException if the file cannot be written
+     */
+    static long writeInput(Path file, long ints, String distribution, long seed) throws IOException {
+        DataGenerator generator = new DataGenerator(seed);
+        int[] block = new int[BLOCK_INTS];
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BLOCK_INTS * Integer.BYTES);
+        long checksum = 0;
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (long written = 0; written < ints; written += BLOCK_INTS) {
+                int count = (int) Math.min(BLOCK_INTS, ints - written);
+                generator.fill(block, distribution);
+                buffer.clear();
+                buffer.asIntBuffer().put(block, 0, count);
+                buffer.limit(count * Integer.BYTES);
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }// end while
+                checksum += checksum(block, count);
+            }// end for
+        }// end try
+        return checksum;
+    }// end writeInput
+
+    /**
+     * Reads the output back, checking that it has the right number of ints and that they are in order
+     * @param file the sorted file
+     * @param ints the number of ints it should hold
+     * @return the checksum of the ints read
+     * @throws IOException if the file cannot be read
+     */
+    static long checkOutput(Path file, long ints) throws IOException {
+        if (Files.size(file) != ints * Integer.BYTES) {
+            throw new IllegalStateException("Output is " + Files.size(file) + " bytes but should be " + ints * Integer.BYTES);
+        }// end if
+        int[] block = new int[BLOCK_INTS];
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BLOCK_INTS * Integer.BYTES);
+        long checksum = 0;
+        int previous = Integer.MIN_VALUE; // the last int of the previous block
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            for (long read = 0; read < ints; read += BLOCK_INTS) {
+                int count = (int) Math.min(BLOCK_INTS, ints - read);
+                buffer.clear();
+                buffer.limit(count * Integer.BYTES);
+                while (buffer.hasRemaining() && in.read(buffer) >= 0) {
+                }// end while
+                buffer.flip();
+                buffer.asIntBuffer().get(block, 0, count);
+                for (int i = 0; i < count; i++) {
+                    if (block[i] < previous) {
+                        throw new IllegalStateException("Output is out of order at int " + (read + i));
+                    }// end if
+                    previous = block[i];
+                }// end for
+                checksum += checksum(block, count);
+            }// end for
+        }// end try
+        return checksum;
+    }// end checkOutput
+
+    /**
+     * Adds up a scrambled copy of each int, so the checksum does not depend on the order of the ints
+     * but still notices an int being replaced by a different one
+     * @param block the ints
+     * @param count how many of them to add
+     * @return the checksum
+     */
+    private static long checksum(int[] block, int count) {
+        long sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += block[i] * 0x9E3779B97F4A7C15L;
+        }// end for
+        return sum;
+    }// end checksum
+
+    /**
+     * @return the most heap the JVM has used so far, summed over the heap's memory pools
+     */
+    static long peakHeapBytes() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }// end if
+        }// end for
+        return peak;
+    }// end peakHeapBytes
+
+    /**
+     * Parses a number of bytes, which may end in k, m or g for kilobytes, megabytes or gigabytes
+     * @param value the number, such as 512m
+     * @return the number of bytes
+     */
+    static long parseBytes(String value) {
+        String number = value.trim().toLowerCase();
+        int shift = 0;
+        switch (number.charAt(number.length() - 1)) {
+            case 'k':
+                shift = 10;
+                break;
+            case 'm':
+                shift = 20;
+                break;
+            case 'g':
+                shift = 30;
+                break;
+            default:
+                return Long.parseLong(number);
+        }// end switch
+        return Long.parseLong(number.substring(0, number.length() - 1)) << shift;
+    }// end parseBytes
+}// end class ExternalSortBenchmark
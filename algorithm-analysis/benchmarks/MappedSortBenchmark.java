@@ -0,0 +1,228 @@
+/**
+ *
+ * @author Blake Mills
+ * COSC 3325 - Mapped versus heap sorting benchmark
+ *
+ * The purpose of this class is to compare sorting a file through MappedSorts, in place and off the
+ * heap, with the usual way of reading the whole file into an int[], sorting it, and writing it back.
+ * For every file size it writes a seeded file of random ints, then for every algorithm sorts it both
+ * ways, checks the result, and reports the time, the throughput, the most heap used and the time the
+ * garbage collector spent. The heap sorts use the in-memory version of the same algorithm:
+ *
+ *   quick   MappedSorts.quickSort   vs SortingAlgorithms2.performIntroSort
+ *   merge   MappedSorts.mergeSort   vs SortingAlgorithms2.performBufferedMergeSort
+ *   radix   MappedSorts.radixSort   vs RadixSorts.performRadixSort
+ *
+ * The heap version is skipped when the array (and for merge and radix, its buffer) would not fit in
+ * the heap, or the file has more ints than a Java array can hold, which is where the mapped version
+ * is the only one that works. Every run starts from a freshly written file, and the times include
+ * reading and writing the file for the heap version, since the mapped version's page faults do that
+ * work as it goes.
+ *
+ * Compile and run from the algorithm-analysis folder (the files need 3x their size in free disk):
+ *   javac -d bin common/*.java program-1/src/*.java program-2/*.java benchmarks/*.java
+ *   java -Xmx12g -cp bin MappedSortBenchmark sizes=1g,2g,4g,8g algorithms=quick,merge,radix
+ *
+ * Every parameter is optional:
+ *   sizes=         comma separated file sizes in bytes, with an optional k, m or g suffix (default: 1g,2g,4g,8g)
+ *   algorithms=    comma separated algorithms from the list above (default: quick,merge,radix)
+ *   distribution=  DataGenerator distribution for the input (default: uniform)
+ *   dir=           directory for the files (default: the system temp directory)
+ *   seed=          seed for the input data (default: 42)
+ */
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+public class MappedSortBenchmark {
+    private static final int IO_BUFFER_BYTES = 8 << 20; // bytes read or written at a time by the heap sorts
+
+    public static void main(String[] args) throws IOException {
+        long[] sizes = {1L << 30, 2L << 30, 4L << 30, 8L << 30}; // the file sizes to run
+        String[] algorithms = {"quick", "merge", "radix"}; // the algorithms to run
+        String distribution = "uniform"; // the input distribution
+        Path directory = Path.of(System.getProperty("java.io.tmpdir")); // where the files go
+        long seed = 42; // the seed for the input data
+
+        // read the key=value parameters
+        for (Map.Entry<String, String> parameter : SortBenchmark.parseArgs(args).entrySet()) {
+            String key = parameter.getKey();
+            String value = parameter.getValue();
+            switch (key) {
+                case "sizes":
+                    String[] parts = value.split(",");
+                    sizes = new long[parts.length];
+                    for (int i = 0; i < parts.length; i++) {
+                        sizes[i] = ExternalSortBenchmark.parseBytes(parts[i]);
+                    }// end for
+                    break;
+                case "algorithms":
+                    algorithms = value.split(",");
+                    break;
+                case "distribution":
+                    distribution = value;
+                    break;
+                case "dir":
+                    directory = Path.of(value);
+                    break;
+                case "seed":
+                    seed = Long.parseLong(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown parameter: " + key);
+            }// end switch
+        }// end for
+
+        System.out.printf("max heap=%,d MB%n", Runtime.getRuntime().maxMemory() >> 20);
+        System.out.printf("%-8s %-7s %10s %12s %12s %14s %12s%n",
+                "Sort", "Memory", "Size (MB)", "Time (s)", "MB/s", "Peak heap (MB)", "GC (ms)");
+        for (long size : sizes) {
+            long ints = size / Integer.BYTES; // number of ints in the file
+            for (String algorithm : algorithms) {
+                for (boolean mapped : new boolean[] {true, false}) {
+                    if (!mapped && !fitsOnHeap(algorithm, ints)) {
+                        System.out.printf("%-8s %-7s %10d %12s%n", algorithm, "heap", size >> 20, "skipped");
+                        continue;
+                    }// end if
+                    Path file = Files.createTempFile(directory, "sort-mapped-", ".bin");
+                    try {
+                        long checksum = ExternalSortBenchmark.writeInput(file, ints, distribution, seed);
+                        System.gc();
+                        resetPeakHeap();
+                        long gcBefore = gcMillis();
+                        long start = System.nanoTime();
+                        if (mapped) {
+                            sortMapped(algorithm, file);
+                        } else {
+                            sortOnHeap(algorithm, file, (int) ints);
+                        }// end else
+                        double seconds = (System.nanoTime() - start) / 1e9;
+                        long gc = gcMillis() - gcBefore;
+                        long peak = ExternalSortBenchmark.peakHeapBytes();
+                        if (ExternalSortBenchmark.checkOutput(file, ints) != checksum) {
+                            throw new IllegalStateException("Output does not hold the same ints as the input");
+                        }// end if
+                        System.out.printf("%-8s %-7s %10d %12.2f %12.1f %14d %12d%n", algorithm,
+                                mapped ? "mapped" : "heap", size >> 20, seconds, (size >> 20) / seconds, peak >> 20, gc);
+                    } finally {
+                        MappedIntArray.delete(file);
+                    }// end finally
+                }// end for
+            }// end for
+        }// end for
+    }// end main
+
+    /**
+     * Sorts a file in place through MappedSorts
+     * @param algorithm quick, merge or radix
+     * @param file the file to sort
+     * @throws IOException if the file cannot be mapped
+     */
+    private static void sortMapped(String algorithm, Path file) throws IOException {
+        switch (algorithm) {
+            case "quick":
+                MappedSorts.quickSort(file);
+                break;
+            case "merge":
+                MappedSorts.mergeSort(file);
+                break;
+            case "radix":
+                MappedSorts.radixSort(file);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+        }// end switch
+    }// end sortMapped
+
+    /**
+     * Reads a file into an int[], sorts it with the in-memory version of the algorithm, and writes it back
+     * @param algorithm quick, merge or radix
+     * @param file the file to sort
+     * @param ints the number of ints in the file
+     * @throws IOException if the file cannot be read or written
+     */
+    private static void sortOnHeap(String algorithm, Path file, int ints) throws IOException {
+        int[] array = new int[ints];
+        ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_BYTES);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            for (int done = 0; done < ints; ) {
+                buffer.clear();
+                buffer.limit(Math.min(IO_BUFFER_BYTES, (ints - done) * Integer.BYTES));
+                while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                }// end while
+                buffer.flip();
+                int count = buffer.remaining() / Integer.BYTES;
+                buffer.asIntBuffer().get(array, done, count);
+                done += count;
+            }// end for
+
+            switch (algorithm) {
+                case "quick":
+                    SortingAlgorithms2.performIntroSort(array);
+                    break;
+                case "merge":
+                    SortingAlgorithms2.performBufferedMergeSort(array);
+                    break;
+                case "radix":
+                    RadixSorts.performRadixSort(array);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+            }// end switch
+
+            channel.position(0);
+            for (int done = 0; done < ints; ) {
+                int count = Math.min(IO_BUFFER_BYTES / Integer.BYTES, ints - done);
+                buffer.clear();
+                buffer.asIntBuffer().put(array, done, count);
+                buffer.limit(count * Integer.BYTES);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }// end while
+                done += count;
+            }// end for
+        }// end try
+    }// end sortOnHeap
+
+    /**
+     * Works out whether the heap version can run: the int[] must be a legal Java array, and it (plus a
+     * buffer of the same size for merge and radix) has to fit in the heap with some room to spare
+     * @param algorithm quick, merge or radix
+     * @param ints the number of ints in the file
+     * @return true if the heap version can run
+     */
+    private static boolean fitsOnHeap(String algorithm, long ints) {
+        if (ints > Integer.MAX_VALUE - 8) {
+            return false;
+        }// end if
+        long arrays = algorithm.equals("quick") ? 1 : 2; // int arrays of the full size the sort needs
+        return arrays * ints * Integer.BYTES < Runtime.getRuntime().maxMemory() * 9 / 10;
+    }// end fitsOnHeap
+
+    /**
+     * Clears the peak usage of every memory pool, so the next peakHeapBytes only covers one sort
+     */
+    private static void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            pool.resetPeakUsage();
+        }// end for
+    }// end resetPeakHeap
+
+    /**
+     * @return the total time every garbage collector has spent collecting so far, in milliseconds
+     */
+    private static long gcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, collector.getCollectionTime());
+        }// end for
+        return total;
+    }// end gcMillis
+}// end class MappedSortBenchmark
@@ -0,0 +1,134 @@
+/**
+ *
+ * @author Blake Mills
+ * COSC 3325 - Parallel sorting benchmarks
+ *
+ * The purpose of this class is to show how the parallel sorts in ParallelSorts and ParallelSampleSort
+ * scale with the number of threads, and how they compare to Arrays.parallelSort. For every thread
+ * count it creates a ForkJoinPool with that many threads and times each sort inside it, using the
+ * same measuring code as SortBenchmark. Arrays.parallelSort forks its work into whichever pool it is
+ * called from, so running it inside the pool limits it to the same number of threads (it still
+ * picks its split sizes from the common pool's parallelism).
+ *
+ * The B/op column only counts what the calling thread allocates, not the worker threads. After each
+ * parallel-sample row, the time each of its phases took in the last measured sort is printed.
+ *
+ * Compile and run from the algorithm-analysis folder:
+ *   javac -d bin common/*.java program-1/src/*.java program-2/*.java benchmarks/*.java
+ *   java -cp bin ParallelSortBenchmark threads=1,2,4,8 sizes=1000000 cutoff=8192
+ *   java -Xmx2g -cp bin ParallelSortBenchmark threads=1,4,16,32 sizes=1e8 iterations=3
+ *
+ * Every parameter is optional:
+ *   threads=       comma separated thread counts (default: 1,2,4,8)
+ *   sizes=         comma separated array sizes (default: 100000,1000000,10000000)
+ *   distributions= see SortBenchmark.createInput (default: uniform)
+ *   cutoff=        the parallel cutoff for ParallelSorts (default: ParallelSorts.DEFAULT_PARALLEL_CUTOFF)
+ *   seed=          seed for the input data (default: 42)
+ *   warmup=        warmup iterations per combination (default: 3)
+ *   iterations=    measured iterations per combination (default: 5)
+ */
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+public class ParallelSortBenchmark {
+    public static void main(String[] args) throws Exception {
+        int[] threads = {1, 2, 4, 8}; // the thread counts to run
+        int[] sizes = {100000, 1000000, 10000000}; // the array sizes to run
+        String[] distributions = {"uniform"}; // the input distributions to run
+        int cutoff = ParallelSorts.DEFAULT_PARALLEL_CUTOFF; // the parallel cutoff
+        long seed = 42; // the seed for the input data
+        int warmup = 3; // number of warmup iterations per combination
+        int iterations = 5; // number of measured iterations per combination
+
+        // read the key=value parameters
+        for (Map.Entry<String, String> parameter : SortBenchmark.parseArgs(args).entrySet()) {
+            String key = parameter.getKey();
+            String value = parameter.getValue();
+            switch (key) {
+                case "threads":
+                    threads = SortBenchmark.parseInts(value);
+                    break;
+                case "sizes":
+                    sizes = SortBenchmark.parseInts(value);
+                    break;
+                case "distributions":
+                    distributions = value.split(",");
+                    break;
+                case "cutoff":
+                    cutoff = Integer.parseInt(value);
+                    break;
+                case "seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "warmup":
+                    warmup = Integer.parseInt(value);
+                    break;
+                case "iterations":
+                    iterations = Integer.parseInt(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown parameter: " + key);
+            }// end switch
+        }// end for
+
+        System.out.printf("%-20s %8s %-10s %10s %16s %12s %14s%n",
+                "Algorithm", "Threads", "Input", "Size", "ns/op", "Speedup", "B/op");
+        for (String distribution : distributions) {
+            for (int size : sizes) {
+                int[] input = SortBenchmark.createInput(distribution, size, seed);
+                Map<String, Double> singleThreaded = new LinkedHashMap<>(); // ns/op at the first thread count
+                for (int threadCount : threads) {
+                    ForkJoinPool pool = new ForkJoinPool(threadCount);
+                    ParallelSampleSort.PhaseTimes phases = new ParallelSampleSort.PhaseTimes();
+                    for (Map.Entry<String, SortBenchmark.SortTask> entry : algorithms(pool, cutoff, phases).entrySet()) {
+                        SortBenchmark.Result result;
+                        try {
+                            result = SortBenchmark.measure(entry.getValue(), input, warmup, iterations);
+                        } catch (StackOverflowError e) {
+                            System.out.printf("%-20s %8d %-10s %10d %s%n", entry.getKey(), threadCount, distribution,
+                                    size, "StackOverflowError");
+                            continue;
+                        } catch (IllegalArgumentException e) {
+                            // the input does not suit this sort
+                            System.out.printf("%-20s %8d %-10s %10d skipped: %s%n", entry.getKey(), threadCount,
+                                    distribution, size, e.getMessage());
+                            continue;
+                        }// end catch
+                        singleThreaded.putIfAbsent(entry.getKey(), result.nanosPerOp);
+                        System.out.printf("%-20s %8d %-10s %10d %16.1f %12.2f %14.1f%n",
+                                entry.getKey(), threadCount, distribution, size, result.nanosPerOp,
+                                singleThreaded.get(entry.getKey()) / result.nanosPerOp, result.bytesPerOp);
+                        if (entry.getKey().equals("parallel-sample")) {
+                            System.out.printf("%-20s %s%n", "", phases);
+                        }// end if
+                    }// end for
+                    pool.shutdown();
+                }// end for
+            }// end for
+        }// end for
+    }// end main
+
+    /**
+     * Builds the sorts to compare, all running on the given pool
+     * @param pool the pool to run the sorts in
+     * @param cutoff the parallel cutoff for ParallelSorts
+     * @param phases receives the phase times of each parallel sample sort
+     * @return the sorts keyed by name
+     */
+    private static Map<String, SortBenchmark.SortTask> algorithms(ForkJoinPool pool, int cutoff,
+            ParallelSampleSort.PhaseTimes phases) {
+        Map<String, SortBenchmark.SortTask> tasks = new LinkedHashMap<>();
+        tasks.put("parallel-merge", array -> ParallelSorts.parallelMergeSort(array, pool, cutoff));
+        tasks.put("parallel-quick", array -> ParallelSorts.parallelQuickSort(array, pool, cutoff));
+        int buckets = ParallelSampleSort.defaultBuckets(pool.getParallelism());
+        tasks.put("parallel-sample", array -> ParallelSampleSort.parallelSampleSort(array, pool, buckets, phases));
+        // Arrays.parallelSort does not report any metrics
+        tasks.put("Arrays.parallelSort", array -> {
+            pool.submit(() -> Arrays.parallelSort(array)).join();
+            return new SortMetrics();
+        });
+        return tasks;
+    }// end algorithms
+}// end class ParallelSortBenchmark
@@ -0,0 +1,81 @@
+/**
+ *
+ * @author Blake Mills
+ * COSC 3325 - Presortedness benchmark
+ *
+ * The purpose of this class is to show how the sorts behave as their input gets closer to sorted. For
+ * each presortedness level p it builds an array whose first p percent is sorted and whose remaining
+ * elements are random (DataGenerator's presorted:p distribution, like a sorted table with a batch of new
+ * rows appended), then reports each sort's time per sort and comparisons per element. A sort that adapts
+ * to presorted input, like natural-merge, should approach one comparison per element as p approaches 100.
+ *
+ * Compile and run from the algorithm-analysis folder:
+ *   javac -d bin common/*.java program-1/src/*.java program-2/*.java benchmarks/*.java
+ *   java -cp bin PresortednessBenchmark size=1000000 levels=0,50,90,99
+ *
+ * Every parameter is optional:
+ *   algorithms=    comma separated names from SortBenchmark (default: natural-merge,merge-buffered,intro,quick-dual)
+ *   size=          the array size (default: 100000)
+ *   levels=        comma separated presortedness percentages (default: 0,25,50,75,90,95,99,100)
+ *   seed=          seed for the input data (default: 42)
+ *   warmup=        warmup iterations per combination (default: 5)
+ *   iterations=    measured iterations per combination (default: 10)
+ */
+import java.util.List;
+import java.util.Map;
+
+public class PresortednessBenchmark {
+
+    public static void main(String[] args) {
+        List<String> algorithmNames = List.of("natural-merge", "merge-buffered", "intro", "quick-dual"); // the sorts to run
+        int size = 100000; // the array size
+        int[] levels = {0, 25, 50, 75, 90, 95, 99, 100}; // the presortedness percentages to run
+        long seed = 42; // the seed for the input data
+        int warmup = 5; // number of warmup iterations per combination
+        int iterations = 10; // number of measured iterations per combination
+
+        // read the key=value parameters
+        for (Map.Entry<String, String> parameter : SortBenchmark.parseArgs(args).entrySet()) {
+            String key = parameter.getKey();
+            String value = parameter.getValue();
+            switch (key) {
+                case "algorithms":
+                    algorithmNames = List.of(value.split(","));
+                    break;
+                case "size":
+                    size = SortBenchmark.parseInts(value)[0];
+                    break;
+                case "levels":
+                    levels = SortBenchmark.parseInts(value);
+                    break;
+                case "seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "warmup":
+                    warmup = Integer.parseInt(value);
+                    break;
+                case "iterations":
+                    iterations = Integer.parseInt(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown parameter: " + key);
+            }// end switch
+        }// end for
+
+        Map<String, SortBenchmark.SortTask> all = SortBenchmark.algorithms();
+        System.out.printf("%-16s %10s %10s %16s %14s%n", "Algorithm", "Sorted %", "Size", "ns/op", "cmp/elem");
+        for (String name : algorithmNames) {
+            SortBenchmark.SortTask task = all.get(name);
+            if (task == null) {
+                throw new IllegalArgumentException("Unknown algorithm: " + name + " (known: " + all.keySet() + ")");
+            }// end if
+            for (int level : levels) {
+                int[] input = SortBenchmark.createInput("presorted:" + level, size, seed);
+                SortBenchmark.Result result = SortBenchmark.measure(task, input, warmup, iterations);
+                SortMetrics metrics = task.sort(input.clone()); // one more sort just for its counts
+                System.out.printf("%-16s %10d %10d %16.1f %14.2f%n", name, level, size, result.nanosPerOp,
+                        (double) metrics.getComparisons() / Math.max(1, size));
+            }// end for
+        }// end for
+    }// end main
+}// end class PresortednessBenchmark
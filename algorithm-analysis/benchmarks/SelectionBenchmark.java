@@ -0,0 +1,107 @@
+/**
+ *
+ * @author Blake Mills
+ * COSC 3325 - Selection benchmark
+ *
+ * The purpose of this class is to show how much faster it is to find the k smallest elements than to
+ * sort the whole array. For every k it times four ways of getting the k smallest of the same input:
+ *
+ *   intro-sort      sort the whole array with introsort and take the first k (the baseline)
+ *   partial-sort    Selection.partialSort, which leaves the first k sorted
+ *   nth-element     Selection.nthElement(k - 1), which leaves the first k in no order
+ *   top-k-heap      Selection.smallest, which streams the array through a k element heap
+ *
+ * The speedup column is the intro-sort time divided by that row's time. The heap does not change the
+ * array, but it still copies it like every other task does so the times stay comparable.
+ *
+ * Compile and run from the algorithm-analysis folder:
+ *   javac -d bin common/*.java program-1/src/*.java program-2/*.java benchmarks/*.java
+ *   java -cp bin SelectionBenchmark size=1e6 ks=10,1000,100000
+ *
+ * Every parameter is optional:
+ *   size=          the array size (default: 1000000)
+ *   ks=            comma separated values of k (default: 10,1000 and size/10)
+ *   distribution=  see SortBenchmark.createInput (default: uniform)
+ *   seed=          seed for the input data (default: 42)
+ *   warmup=        warmup iterations per combination (default: 3)
+ *   iterations=    measured iterations per combination (default: 5)
+ */
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class SelectionBenchmark {
+    public static void main(String[] args) {
+        int size = 1000000; // the array size
+        int[] ks = null; // the values of k to run, or null for 10, 1000 and size/10
+        String distribution = "uniform"; // the input distribution
+        long seed = 42; // the seed for the input data
+        int warmup = 3; // number of warmup iterations per combination
+        int iterations = 5; // number of measured iterations per combination
+
+        // read the key=value parameters
+        for (Map.Entry<String, String> parameter : SortBenchmark.parseArgs(args).entrySet()) {
+            String key = parameter.getKey();
+            String value = parameter.getValue();
+            switch (key) {
+                case "size":
+                    size = SortBenchmark.parseInts(value)[0];
+                    break;
+                case "ks":
+                    ks = SortBenchmark.parseInts(value);
+                    break;
+                case "distribution":
+                    distribution = value;
+                    break;
+                case "seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "warmup":
+                    warmup = Integer.parseInt(value);
+                    break;
+                case "iterations":
+                    iterations = Integer.parseInt(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown parameter: " + key);
+            }// end switch
+        }// end for
+        if (ks == null) {
+            ks = new int[] {10, 1000, size / 10};
+        }// end if
+
+        int[] input = SortBenchmark.createInput(distribution, size, seed);
+        System.out.printf("%-16s %-10s %10s %10s %16s %12s %16s%n",
+                "Algorithm", "Input", "Size", "k", "ns/op", "Speedup", "Comparisons");
+        for (int k : ks) {
+            double fullSortNanos = 0; // the intro-sort time for this k
+            for (Map.Entry<String, SortBenchmark.SortTask> entry : algorithms(k).entrySet()) {
+                SortBenchmark.Result result = SortBenchmark.measure(entry.getValue(), input, warmup, iterations);
+                long comparisons = entry.getValue().sort(input.clone()).getComparisons();
+                if (fullSortNanos == 0) {
+                    fullSortNanos = result.nanosPerOp;
+                }// end if
+                System.out.printf("%-16s %-10s %10d %10d %16.1f %12.2f %16d%n", entry.getKey(), distribution,
+                        size, k, result.nanosPerOp, fullSortNanos / result.nanosPerOp, comparisons);
+            }// end for
+        }// end for
+    }// end main
+
+    /**
+     * Builds the ways of finding the k smallest elements, the full sort first
+     * @param k the number of elements to find
+     * @return the tasks keyed by name
+     */
+    private static Map<String, SortBenchmark.SortTask> algorithms(int k) {
+        Map<String, SortBenchmark.SortTask> tasks = new LinkedHashMap<>();
+        tasks.put("intro-sort", SortingAlgorithms2::performIntroSort);
+        tasks.put("partial-sort", array -> Selection.partialSort(array, k));
+        tasks.put("nth-element", array -> Selection.nthElement(array, k - 1));
+        tasks.put("top-k-heap", array -> {
+            IntTopK top = IntTopK.smallest(k);
+            top.offerAll(array);
+            top.toSortedArray();
+            return top.getMetrics();
+        });
+        return tasks;
+    }// end algorithms
+}// end class SelectionBenchmark
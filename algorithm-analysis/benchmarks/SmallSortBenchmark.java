@@ -0,0 +1,115 @@
+/**
+ *
+ * @author Blake Mills
+ * COSC 3325 - Small sort and partition benchmark
+ *
+ * The purpose of this class is to compare the branch-free pieces of the hybrid sorts with the
+ * branching ones they replace. The first table sorts an array cut into blocks of n random ints, block
+ * by block, with insertion sort and with a sorting network, for n up to 16. The second partitions a
+ * large random array once with Hoare's partition and once with the branchless Lomuto partition. Both
+ * report nanoseconds per element.
+ *
+ * The time saved comes from branch mispredictions. To see the branch-miss counts themselves, run it
+ * under a profiler with hardware counters, e.g. on Linux:
+ *   perf stat -e branches,branch-misses java -cp bin SmallSortBenchmark sizes=16
+ *
+ * Compile and run from the algorithm-analysis folder:
+ *   javac -d bin common/*.java program-1/src/*.java program-2/*.java benchmarks/*.java
+ *   java -cp bin SmallSortBenchmark sizes=4,8,16 partitionSize=1000000
+ *
+ * Every parameter is optional:
+ *   sizes=         comma separated block sizes, up to 16 (default: 2,4,8,12,16)
+ *   partitionSize= size of the array to partition (default: 1000000)
+ *   seed=          seed for the input data (default: 42)
+ *   warmup=        warmup iterations per combination (default: 5)
+ *   iterations=    measured iterations per combination (default: 10)
+ */
+import java.util.Map;
+
+public class SmallSortBenchmark {
+    private static final int BLOCK_ELEMENTS = 1 << 16; // elements sorted per small-sort operation
+
+    public static void main(String[] args) {
+        int[] sizes = {2, 4, 8, 12, 16}; // the block sizes to run
+        int partitionSize = 1000000; // the size of the array to partition
+        long seed = 42; // the seed for the input data
+        int warmup = 5; // number of warmup iterations per combination
+        int iterations = 10; // number of measured iterations per combination
+
+        // read the key=value parameters
+        for (Map.Entry<String, String> parameter : SortBenchmark.parseArgs(args).entrySet()) {
+            String key = parameter.getKey();
+            String value = parameter.getValue();
+            switch (key) {
+                case "sizes":
+                    sizes = SortBenchmark.parseInts(value);
+                    break;
+                case "partitionSize":
+                    partitionSize = SortBenchmark.parseInts(value)[0];
+                    break;
+                case "seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "warmup":
+                    warmup = Integer.parseInt(value);
+                    break;
+                case "iterations":
+                    iterations = Integer.parseInt(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown parameter: " + key);
+            }// end switch
+        }// end for
+
+        int[] blocks = SortBenchmark.createInput("uniform", BLOCK_ELEMENTS, seed);
+        System.out.printf("%-12s %6s %14s %14s%n", "Small sort", "n", "insertion", "network");
+        for (int n : sizes) {
+            int blockSize = n; // so the lambdas can use it
+            SortBenchmark.SortTask insertion = array -> {
+                SortMetrics metrics = new SortMetrics();
+                for (int l = 0; l + blockSize <= array.length; l += blockSize) {
+                    SortingAlgorithms2.insertionSort(array, l, l + blockSize - 1, metrics);
+                }// end for
+                return metrics;
+            };
+            SortBenchmark.SortTask network = array -> {
+                SortMetrics metrics = new SortMetrics();
+                for (int l = 0; l + blockSize <= array.length; l += blockSize) {
+                    SortingNetworks.sort(array, l, l + blockSize - 1, metrics);
+                }// end for
+                return metrics;
+            };
+            double insertionNanos = SortBenchmark.measure(insertion, blocks, warmup, iterations).nanosPerOp;
+            double networkNanos = SortBenchmark.measure(network, blocks, warmup, iterations).nanosPerOp;
+            System.out.printf("%-12s %6d %14.2f %14.2f%n", "ns/elem", n,
+                    insertionNanos / BLOCK_ELEMENTS, networkNanos / BLOCK_ELEMENTS);
+        }// end for
+
+        // partition once around the median-of-three pivot, which both partitions expect in a[0]
+        int[] input = SortBenchmark.createInput("uniform", partitionSize, seed);
+        int middle = input.length / 2;
+        int pivot = Math.max(Math.min(input[0], input[middle]),
+                Math.min(Math.max(input[0], input[middle]), input[input.length - 1]));
+        for (int i = 0; i < input.length; i++) {
+            if (input[i] == pivot) {
+                input[i] = input[0];
+                input[0] = pivot;
+                break;
+            }// end if
+        }// end for
+        SortBenchmark.SortTask hoare = array -> {
+            SortMetrics metrics = new SortMetrics();
+            SortingAlgorithms2.partition(array, 0, array.length - 1, metrics);
+            return metrics;
+        };
+        SortBenchmark.SortTask lomuto = array -> {
+            SortMetrics metrics = new SortMetrics();
+            SortingAlgorithms2.branchlessPartition(array, 0, array.length - 1, false, metrics);
+            return metrics;
+        };
+        System.out.printf("%n%-12s %10s %14s %20s%n", "Partition", "Size", "hoare", "branchless-lomuto");
+        System.out.printf("%-12s %10d %14.2f %20.2f%n", "ns/elem", partitionSize,
+                SortBenchmark.measure(hoare, input, warmup, iterations).nanosPerOp / partitionSize,
+                SortBenchmark.measure(lomuto, input, warmup, iterations).nanosPerOp / partitionSize);
+    }// end main
+}// end class SmallSortBenchmark
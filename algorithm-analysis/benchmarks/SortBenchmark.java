@@ -0,0 +1,248 @@
+/**
+ *
+ * @author Blake Mills
+ * COSC 3325 - Sorting benchmarks
+ *
+ * The purpose of this class is to measure what the sorts from SortingAlgorithms and
+ * SortingAlgorithms2 actually cost, instead of only counting their comparisons. For every
+ * combination of algorithm, array size and input distribution it builds one seeded input
+ * array, warms the sort up so the JIT has compiled it, and then times many sorts of fresh
+ * copies of that input. It reports the average time per sort (ns/op), the number of sorts
+ * per second (ops/s) and the number of bytes the sort allocated per call (B/op), which is
+ * read from the JVM's per-thread allocation counter the same way JMH's GC profiler does.
+ *
+ * Compile and run from the algorithm-analysis folder:
+ *   javac -d bin common/*.java program-1/src/*.java program-2/*.java benchmarks/*.java
+ *   java -cp bin SortBenchmark sizes=1000,10000 distributions=uniform,sorted seed=42
+ *
+ * Every parameter is optional:
+ *   algorithms=    comma separated names from the list below (default: all of them)
+ *   sizes=         comma separated array sizes (default: 10,100,1000,10000)
+ *   distributions= comma separated DataGenerator distributions, such as sorted or zipf:1.2 (default: uniform)
+ *   seed=          seed for the input data so runs can be repeated (default: 42)
+ *   warmup=        warmup iterations per combination (default: 5)
+ *   iterations=    measured iterations per combination (default: 10)
+ */
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class SortBenchmark {
+
+    /**
+     * A sort that can be benchmarked. It sorts the array it is given in place and returns its metrics.
+     */
+    public interface SortTask {
+        SortMetrics sort(int[] array);
+    }// end SortTask
+
+    private static final int ELEMENTS_PER_BATCH = 1 << 16; // roughly how many elements one measured batch sorts
+    private static volatile int sink; // written after each batch so the JIT cannot throw the sorts away
+
+    public static void main(String[] args) throws Exception {
+        Map<String, SortTask> all = algorithms(); // every sort we know how to benchmark
+        List<String> algorithmNames = new ArrayList<>(all.keySet()); // the sorts to run
+        int[] sizes = {10, 100, 1000, 10000}; // the array sizes to run
+        String[] distributions = {"uniform"}; // the input distributions to run
+        long seed = 42; // the seed for the input data
+        int warmup = 5; // number of warmup iterations per combination
+        int iterations = 10; // number of measured iterations per combination
+
+        // read the key=value parameters
+        for (Map.Entry<String, String> parameter : parseArgs(args).entrySet()) {
+            String key = parameter.getKey();
+            String value = parameter.getValue();
+            switch (key) {
+                case "algorithms":
+                    algorithmNames = List.of(value.split(","));
+                    break;
+                case "sizes":
+                    sizes = parseInts(value);
+                    break;
+                case "distributions":
+                    distributions = value.split(",");
+                    break;
+                case "seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "warmup":
+                    warmup = Integer.parseInt(value);
+                    break;
+                case "iterations":
+                    iterations = Integer.parseInt(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown parameter: " + key);
+            }// end switch
+        }// end for
+
+        System.out.printf("%-16s %-10s %10s %16s %16s %14s%n",
+                "Algorithm", "Input", "Size", "ns/op", "ops/s", "B/op");
+        for (String name : algorithmNames) {
+            SortTask task = all.get(name);
+            if (task == null) {
+                throw new IllegalArgumentException("Unknown algorithm: " + name + " (known: " + all.keySet() + ")");
+            }// end if
+            for (String distribution : distributions) {
+                for (int size : sizes) {
+                    int[] input = createInput(distribution, size, seed);
+                    Result result;
+                    try {
+                        result = measure(task, input, warmup, iterations);
+                    } catch (StackOverflowError e) {
+                        // plain quick sort recurses once per element on sorted input
+                        System.out.printf("%-16s %-10s %10d %s%n", name, distribution, size, "StackOverflowError");
+                        continue;
+                    } catch (IllegalArgumentException e) {
+                        // the input does not suit this sort, such as too wide a range for counting sort
+                        System.out.printf("%-16s %-10s %10d skipped: %s%n", name, distribution, size, e.getMessage());
+                        continue;
+                    }// end catch
+                    System.out.printf("%-16s %-10s %10d %16.1f %16.1f %14.1f%n",
+                            name, distribution, size, result.nanosPerOp, 1e9 / result.nanosPerOp, result.bytesPerOp);
+                }// end for
+            }// end for
+        }// end for
+    }// end main
+
+    /**
+     * Builds the list of every sort that can be benchmarked, keyed by the name used on the command line
+     * @return the sorts in the order they are run by default
+     */
+    public static Map<String, SortTask> algorithms() {
+        Map<String, SortTask> tasks = new LinkedHashMap<>();
+        tasks.put("bubble", array -> comparisonsOnly(SortingAlgorithms.bubbleSort(array)));
+        tasks.put("comb", array -> comparisonsOnly(SortingAlgorithms.combSort(array)));
+        tasks.put("selection", array -> comparisonsOnly(SortingAlgorithms.selectionSort(array)));
+        // everything in program-2 comes from the Sorter registry
+        for (Sorter sorter : Sorters.all()) {
+            tasks.put(sorter.name(), sorter::sort);
+        }// end for
+        return tasks;
+    }// end algorithms
+
+    /**
+     * Wraps the comparison count returned by the SortingAlgorithms sorts, which only count comparisons
+     * @param comparisons the number of comparisons
+     * @return metrics holding just the comparisons
+     */
+    private static SortMetrics comparisonsOnly(long comparisons) {
+        SortMetrics metrics = new SortMetrics();
+        metrics.addComparisons(comparisons);
+        return metrics;
+    }// end comparisonsOnly
+
+    /**
+     * Holds the outcome of measuring one algorithm on one input
+     */
+    public static class Result {
+        public final double nanosPerOp; // average time for one sort
+        public final double bytesPerOp; // average bytes allocated by one sort
+
+        public Result(double nanosPerOp, double bytesPerOp) {
+            this.nanosPerOp = nanosPerOp;
+            this.bytesPerOp = bytesPerOp;
+        }
+    }// end Result
+
+    /**
+     * Times the sort on copies of the input. Each iteration sorts a batch of fresh copies so that even
+     * tiny arrays take long enough to time accurately. Copying happens before the timer starts, so only
+     * the sort itself is measured.
+     * @param task the sort to measure
+     * @param input the unsorted input, which is never modified
+     * @param warmup the number of iterations to run before measuring
+     * @param iterations the number of measured iterations
+     * @return the average time and allocation per sort
+     */
+    public static Result measure(SortTask task, int[] input, int warmup, int iterations) {
+        int batch = Math.max(1, ELEMENTS_PER_BATCH / Math.max(1, input.length)); // sorts per iteration
+        int[][] copies = new int[batch][];
+        for (int i = 0; i < batch; i++) {
+            copies[i] = new int[input.length];
+        }// end for
+
+        long totalNanos = 0; // time spent sorting during the measured iterations
+        long totalBytes = 0; // bytes allocated while sorting during the measured iterations
+        for (int iteration = 0; iteration < warmup + iterations; iteration++) {
+            for (int i = 0; i < batch; i++) {
+                System.arraycopy(input, 0, copies[i], 0, input.length);
+            }// end for
+
+            long bytesBefore = allocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < batch; i++) {
+                task.sort(copies[i]);
+            }// end for
+            long elapsed = System.nanoTime() - start;
+            long bytes = allocatedBytes() - bytesBefore;
+            sink = copies[batch - 1].length == 0 ? 0 : copies[batch - 1][0];
+
+            // only count the iterations after the warmup
+            if (iteration >= warmup) {
+                totalNanos += elapsed;
+                totalBytes += bytes;
+            }// end if
+        }// end for
+        long ops = (long) batch * iterations;
+        return new Result((double) totalNanos / ops, (double) totalBytes / ops);
+    }// end measure
+
+    /**
+     * Returns how many bytes the current thread has allocated so far, or 0 when the JVM does not support it
+     * @return the bytes allocated by the current thread
+     */
+    public static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }// end if
+        return 0;
+    }// end allocatedBytes
+
+    /**
+     * Creates a seeded input array with the given distribution
+     * @param distribution the distribution name, see DataGenerator
+     * @param size the number of elements
+     * @param seed the seed for the random values
+     * @return the new array
+     */
+    public static int[] createInput(String distribution, int size, long seed) {
+        return new DataGenerator(seed).create(distribution, size);
+    }// end createInput
+
+    /**
+     * Reads key=value parameters into a map, the way every benchmark's main takes its arguments
+     * @param args the command-line arguments
+     * @return the value of each key, in the order given; a key given twice keeps its last value
+     * @throws IllegalArgumentException if an argument has no '='
+     */
+    static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Expected key=value but got: " + arg);
+            }// end if
+            parameters.put(arg.substring(0, equals), arg.substring(equals + 1));
+        }// end for
+        return parameters;
+    }// end parseArgs
+
+    /**
+     * Parses a comma separated list of integers, which may be written as powers of ten such as 1e6
+     * @param value the list, such as 10,100,1e6
+     * @return the integers
+     */
+    static int[] parseInts(String value) {
+        String[] parts = value.split(",");
+        int[] numbers = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            String part = parts[i].trim();
+            numbers[i] = part.contains("e") ? Math.toIntExact((long) Double.parseDouble(part)) : Integer.parseInt(part);
+        }// end for
+        return numbers;
+    }// end parseInts
+}// end class SortBenchmark
@@ -0,0 +1,296 @@
+/**
+ *
+ * @author Blake Mills
+ * COSC 3325 - Sort property checks
+ *
+ * The purpose of this class is to check every Sorter, and the PairSorts pair sorts, against random
+ * input. Each case makes a random array of up to maxSize elements with few enough distinct keys that
+ * there are many duplicates, then checks these properties for every sorter and every type it
+ * supports:
+ *
+ *   sorted        every element is less than or equal to the next (Double.compare order for double[])
+ *   permutation   the result holds the same elements as the input (it equals Arrays.sort's result)
+ *   stable        for record indexes and pairs: records with equal keys stay in index order. Sorters
+ *                 whose isStable is false are not required to be stable; the report shows whether an
+ *                 unstable order was ever seen for them. Equal ints cannot be told apart, so this is
+ *                 only checked for sorters that support record indexes.
+ *
+ * A case the sort refuses with an IllegalArgumentException, such as the counting sort given a range
+ * of keys too wide for it, is counted as skipped. Every case has its own seed (seed + case number),
+ * so a failure can be run again on its own with seed=<case seed> cases=1. For each sorter, the
+ * smallest failing input found is printed. The program exits with status 1 if any check failed.
+ *
+ * Compile and run from the algorithm-analysis folder:
+ *   javac -d bin common/*.java program-1/src/*.java program-2/*.java benchmarks/*.java
+ *   java -cp bin SortPropertyCheck cases=1000000 maxSize=64
+ *
+ * Every parameter is optional:
+ *   cases=         number of random cases (default: 1000000)
+ *   maxSize=       largest array in a case (default: 64)
+ *   algorithms=    comma separated Sorter names (default: every sorter)
+ *   seed=          seed of the first case (default: 42)
+ */
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+public class SortPropertyCheck {
+    private static final String PAIRS = "pairs"; // report name of the intro pair sort
+    private static final String PAIRS_RADIX = "pairs-radix"; // report name of the radix pair sort
+
+    public static void main(String[] args) {
+        int cases = 1000000; // number of random cases
+        int maxSize = 64; // largest array in a case
+        String[] algorithms = null; // the sorters to check, or null for all of them
+        long seed = 42; // seed of the first case
+
+        // read the key=value parameters
+        for (Map.Entry<String, String> parameter : SortBenchmark.parseArgs(args).entrySet()) {
+            String key = parameter.getKey();
+            String value = parameter.getValue();
+            switch (key) {
+                case "cases":
+                    cases = SortBenchmark.parseInts(value)[0];
+                    break;
+                case "maxSize":
+                    maxSize = SortBenchmark.parseInts(value)[0];
+                    break;
+                case "algorithms":
+                    algorithms = value.split(",");
+                    break;
+                case "seed":
+                    seed = Long.parseLong(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown parameter: " + key);
+            }// end switch
+        }// end for
+
+        Map<String, Report> reports = new LinkedHashMap<>();
+        if (algorithms == null) {
+            for (Sorter sorter : Sorters.all()) {
+                reports.put(sorter.name(), new Report(sorter.isStable(), sorter.supports(Sorter.Type.INDEX)));
+            }// end for
+        } else {
+            for (String name : algorithms) {
+                Sorter sorter = Sorters.forName(name);
+                reports.put(name, new Report(sorter.isStable(), sorter.supports(Sorter.Type.INDEX)));
+            }// end for
+        }// end else
+        reports.put(PAIRS, new Report(true, true));
+        reports.put(PAIRS_RADIX, new Report(true, true));
+
+        long start = System.nanoTime();
+        for (int c = 0; c < cases; c++) {
+            long caseSeed = seed + c;
+            SplittableRandom random = new SplittableRandom(caseSeed);
+            int size = random.nextInt(maxSize + 1);
+            int[] keys = randomKeys(random, size);
+            for (Map.Entry<String, Report> entry : reports.entrySet()) {
+                String problem; // what went wrong, or null
+                boolean[] unstable = new boolean[1]; // set when an unstable but sorted order is seen
+                if (entry.getKey().equals(PAIRS) || entry.getKey().equals(PAIRS_RADIX)) {
+                    problem = checkPairs(keys, entry.getKey().equals(PAIRS_RADIX));
+                } else {
+                    try {
+                        problem = checkSorter(Sorters.forName(entry.getKey()), keys, unstable);
+                    } catch (IllegalArgumentException e) {
+                        // the sort does not take this input (such as counting on a wide range), which is not a failure
+                        entry.getValue().skipped++;
+                        continue;
+                    }// end catch
+                }// end else
+                entry.getValue().record(caseSeed, keys, problem, unstable[0]);
+            }// end for
+        }// end for
+
+        System.out.printf("%d cases of up to %d elements in %.1f s%n%n", cases, maxSize, (System.nanoTime() - start) / 1e9);
+        System.out.printf("%-18s %-8s %-16s %10s %10s%n", "Algorithm", "Stable", "Seen unstable", "Skipped", "Failures");
+        boolean failed = false;
+        for (Map.Entry<String, Report> entry : reports.entrySet()) {
+            Report report = entry.getValue();
+            System.out.printf("%-18s %-8s %-16s %10d %10d%n", entry.getKey(), report.stable ? "yes" : "no",
+                    report.stable ? "-" : !report.observable ? "n/a" : report.seenUnstable ? "yes" : "not yet",
+                    report.skipped, report.failures);
+            if (report.failures > 0) {
+                failed = true;
+                System.out.printf("    smallest failure (seed=%d): %s%n    input: %s%n", report.failureSeed,
+                        report.failure, Arrays.toString(report.failureInput));
+            }// end if
+        }// end for
+        if (failed) {
+            System.exit(1);
+        }// end if
+    }// end main
+
+    /**
+     * Makes random keys with between 1 and size distinct values, sometimes including the extreme ints
+     * @param random the case's random numbers
+     * @param size the number of keys
+     * @return the keys
+     */
+    private static int[] randomKeys(SplittableRandom random, int size) {
+        int distinct = 1 + random.nextInt(Math.max(1, size)); // how many different keys there can be
+        int base = random.nextBoolean() ? 0 : random.nextInt(); // keys are base plus a small offset
+        int[] keys = new int[size];
+        for (int i = 0; i < size; i++) {
+            int roll = random.nextInt(32);
+            keys[i] = roll == 0 ? Integer.MIN_VALUE : roll == 1 ? Integer.MAX_VALUE : base + random.nextInt(distinct);
+        }// end for
+        return keys;
+    }// end randomKeys
+
+    /**
+     * Checks one sorter on every type it supports
+     * @param sorter the sorter
+     * @param keys the case's keys
+     * @param unstable set to true if the index sort gave a sorted but unstable order
+     * @return a description of the first failed check, or null if every check passed
+     */
+    private static String checkSorter(Sorter sorter, int[] keys, boolean[] unstable) {
+        if (sorter.supports(Sorter.Type.INT)) {
+            int[] expected = keys.clone();
+            Arrays.sort(expected);
+            int[] actual = keys.clone();
+            sorter.sort(actual);
+            if (!Arrays.equals(expected, actual)) {
+                return "int[] result " + Arrays.toString(actual);
+            }// end if
+        }// end if
+        if (sorter.supports(Sorter.Type.LONG)) {
+            // spread the keys over the whole long range so the high bits are used too
+            long[] values = new long[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                values[i] = (long) keys[i] * 0x100000001L;
+            }// end for
+            long[] expected = values.clone();
+            Arrays.sort(expected);
+            sorter.sort(values);
+            if (!Arrays.equals(expected, values)) {
+                return "long[] result " + Arrays.toString(values);
+            }// end if
+        }// end if
+        if (sorter.supports(Sorter.Type.DOUBLE)) {
+            // turn some keys into the values that are easy to get wrong: NaN, -0.0 and infinities
+            double[] values = new double[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                int k = keys[i];
+                values[i] = k % 17 == 0 ? Double.NaN : k % 13 == 0 ? -0.0 : k % 11 == 0 ? Double.NEGATIVE_INFINITY : k / 4.0;
+            }// end for
+            double[] expected = values.clone();
+            Arrays.sort(expected);
+            sorter.sort(values);
+            if (!Arrays.equals(expected, values)) {
+                return "double[] result " + Arrays.toString(values);
+            }// end if
+        }// end if
+        if (sorter.supports(Sorter.Type.INDEX)) {
+            int[] order = sorter.sortedOrder(keys.length, (i, j) -> Integer.compare(keys[i], keys[j]));
+            String problem = checkOrder(keys, order, sorter.isStable());
+            if (problem != null) {
+                return "index sort " + problem + " " + Arrays.toString(order);
+            }// end if
+            unstable[0] = checkOrder(keys, order, true) != null;
+        }// end if
+        return null;
+    }// end checkSorter
+
+    /**
+     * Checks one of the PairSorts sorts, by packing the keys with their indexes and sorting the pairs
+     * @param keys the case's keys
+     * @param radix true for the radix sort, false for the intro sort
+     * @return a description of the first failed check, or null if every check passed
+     */
+    private static String checkPairs(int[] keys, boolean radix) {
+        long[] pairs = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            pairs[i] = PairSorts.pack(keys[i], i);
+        }// end for
+        if (radix) {
+            PairSorts.sort(pairs, new long[keys.length]);
+        } else {
+            PairSorts.sort(pairs);
+        }// end else
+        int[] order = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            if (PairSorts.key(pairs[i]) != keys[PairSorts.index(pairs[i])]) {
+                return "pair " + i + " has the wrong key for its index";
+            }// end if
+            order[i] = PairSorts.index(pairs[i]);
+        }// end for
+        String problem = checkOrder(keys, order, true);
+        if (problem == null && radix && !Arrays.equals(order, PairSorts.stableOrder(keys))) {
+            problem = "stableOrder differs from the radix sort";
+        }// end if
+        return problem == null ? null : problem + " " + Arrays.toString(order);
+    }// end checkPairs
+
+    /**
+     * Checks that an order of record indexes is a permutation that sorts the keys, and optionally that
+     * records with equal keys are in index order
+     * @param keys the keys of the records
+     * @param order the record indexes in the order a sort put them
+     * @param stable true to also check stability
+     * @return a description of the first failed check, or null if every check passed
+     */
+    private static String checkOrder(int[] keys, int[] order, boolean stable) {
+        boolean[] seen = new boolean[keys.length];
+        for (int i = 0; i < order.length; i++) {
+            int index = order[i];
+            if (index < 0 || index >= keys.length || seen[index]) {
+                return "is not a permutation at position " + i;
+            }// end if
+            seen[index] = true;
+            if (i > 0) {
+                int previous = order[i - 1];
+                if (keys[previous] > keys[index]) {
+                    return "is not sorted at position " + i;
+                }// end if
+                if (stable && keys[previous] == keys[index] && previous > index) {
+                    return "is not stable at position " + i;
+                }// end if
+            }// end if
+        }// end for
+        return null;
+    }// end checkOrder
+
+    /**
+     * The results of every case for one algorithm
+     */
+    private static class Report {
+        final boolean stable; // whether the algorithm claims to be stable
+        final boolean observable; // whether it sorts records, without which stability cannot be seen
+        boolean seenUnstable; // true once an unstable but sorted order has been seen
+        int skipped; // number of cases the sort refused with an IllegalArgumentException
+        int failures; // number of cases that failed a check
+        String failure; // the smallest failure so far
+        int[] failureInput; // the input of the smallest failure
+        long failureSeed; // the seed of the smallest failure
+
+        Report(boolean stable, boolean observable) {
+            this.stable = stable;
+            this.observable = observable;
+        }
+
+        /**
+         * Records the outcome of one case, keeping the failure with the smallest input
+         * @param seed the case's seed
+         * @param keys the case's keys
+         * @param problem what went wrong, or null
+         * @param unstable true if the case showed an unstable order
+         */
+        void record(long seed, int[] keys, String problem, boolean unstable) {
+            seenUnstable |= unstable;
+            if (problem == null) {
+                return;
+            }// end if
+            failures++;
+            if (failureInput == null || keys.length < failureInput.length) {
+                failure = problem;
+                failureInput = keys.clone();
+                failureSeed = seed;
+            }// end if
+        }// end record
+    }// end Report
+}// end class SortPropertyCheck
@@ -0,0 +1,193 @@
+/**
+ *
+ * @author Blake Mills
+ * COSC 3325 - Sort service load test
+ *
+ * The purpose of this class is to put SortService under load from many request threads at once and
+ * watch its queue depth, latency and throughput. Each producer thread keeps up to inFlight arrays
+ * submitted at a time, picking each array's size at random from a mix of small, medium and large
+ * sizes. It copies a pre-generated input of that size, so generating data does not slow the
+ * producers down. When the queue is full and a submit is rejected, the producer waits for its oldest
+ * array to finish and then tries the same array again. Once a second it prints the service's stats, and at the end
+ * it checks that every array came back sorted.
+ *
+ * Compile and run from the algorithm-analysis folder:
+ *   javac -d bin common/*.java program-1/src/*.java program-2/*.java benchmarks/*.java
+ *   java -cp bin SortServiceLoadTest producers=16 seconds=30 queue=256
+ *
+ * Every parameter is optional:
+ *   producers=     number of request threads (default: 8)
+ *   inFlight=      arrays each producer keeps submitted at once (default: 4)
+ *   seconds=       how long to run (default: 10)
+ *   mix=           percent of small,medium,large arrays (default: 70,28,2)
+ *   small=         largest small array (default: SortService.DEFAULT_INLINE_MAX)
+ *   medium=        largest medium array (default: 100000)
+ *   large=         size of a large array (default: 1000000)
+ *   queue=         the service's queue capacity (default: SortService.DEFAULT_QUEUE_CAPACITY)
+ *   workers=       the service's worker threads (default: one per core)
+ *   seed=          seed for the input data and the sizes (default: 42)
+ */
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class SortServiceLoadTest {
+    private static final int TEMPLATES = 16; // different inputs per size class
+
+    public static void main(String[] args) throws Exception {
+        int producers = 8; // number of request threads
+        int inFlight = 4; // arrays each producer keeps submitted
+        int seconds = 10; // how long to run
+        int[] mix = {70, 28, 2}; // percent of small, medium and large arrays
+        int small = SortService.DEFAULT_INLINE_MAX; // largest small array
+        int medium = 100000; // largest medium array
+        int large = 1000000; // size of a large array
+        int queue = SortService.DEFAULT_QUEUE_CAPACITY; // the service's queue capacity
+        int workers = Runtime.getRuntime().availableProcessors(); // the service's worker threads
+        long seed = 42; // the seed for the input data and the sizes
+
+        // read the key=value parameters
+        for (Map.Entry<String, String> parameter : SortBenchmark.parseArgs(args).entrySet()) {
+            String key = parameter.getKey();
+            String value = parameter.getValue();
+            switch (key) {
+                case "producers":
+                    producers = Integer.parseInt(value);
+                    break;
+                case "inFlight":
+                    inFlight = Integer.parseInt(value);
+                    break;
+                case "seconds":
+                    seconds = Integer.parseInt(value);
+                    break;
+                case "mix":
+                    mix = SortBenchmark.parseInts(value);
+                    break;
+                case "small":
+                    small = SortBenchmark.parseInts(value)[0];
+                    break;
+                case "medium":
+                    medium = SortBenchmark.parseInts(value)[0];
+                    break;
+                case "large":
+                    large = SortBenchmark.parseInts(value)[0];
+                    break;
+                case "queue":
+                    queue = Integer.parseInt(value);
+                    break;
+                case "workers":
+                    workers = Integer.parseInt(value);
+                    break;
+                case "seed":
+                    seed = Long.parseLong(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown parameter: " + key);
+            }// end switch
+        }// end for
+
+        // the inputs the producers copy: random sizes within each class
+        SplittableRandom random = new SplittableRandom(seed);
+        int[][][] templates = new int[3][TEMPLATES][];
+        int[] largest = {small, medium, large};
+        int[] smallest = {1, small + 1, large};
+        for (int c = 0; c < 3; c++) {
+            for (int t = 0; t < TEMPLATES; t++) {
+                int size = smallest[c] + random.nextInt(largest[c] - smallest[c] + 1);
+                templates[c][t] = SortBenchmark.createInput("uniform", size, seed + c * TEMPLATES + t);
+            }// end for
+        }// end for
+
+        SortService service = new SortService(small, large, queue, workers, ForkJoinPool.commonPool());
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        AtomicLong unsorted = new AtomicLong(); // arrays that came back out of order
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            long producerSeed = seed + 1000 + p;
+            int[] percent = mix;
+            int depth = inFlight;
+            threads[p] = new Thread(() -> produce(service, templates, percent, depth, end, producerSeed, unsorted),
+                    "producer-" + p);
+            threads[p].start();
+        }// end for
+
+        System.out.printf("producers=%d inFlight=%d workers=%d queue=%d mix=%d/%d/%d sizes<=%d/<=%d/%d%n",
+                producers, inFlight, workers, queue, mix[0], mix[1], mix[2], small, medium, large);
+        while (System.nanoTime() < end) {
+            Thread.sleep(1000);
+            System.out.println(service.stats());
+        }// end while
+        for (Thread thread : threads) {
+            thread.join();
+        }// end for
+        service.close();
+        System.out.println("final: " + service.stats());
+        if (unsorted.get() > 0) {
+            throw new IllegalStateException(unsorted.get() + " arrays came back unsorted");
+        }// end if
+    }// end main
+
+    /**
+     * One producer's loop: keep up to inFlight arrays submitted until the end time, checking each one
+     * once it is sorted
+     * @param service the service
+     * @param templates the inputs for each size class
+     * @param mix percent of small, medium and large arrays
+     * @param inFlight arrays to keep submitted at once
+     * @param end when to stop, from System.nanoTime
+     * @param seed seed for this producer's choices
+     * @param unsorted counts arrays that came back out of order
+     */
+    private static void produce(SortService service, int[][][] templates, int[] mix, int inFlight, long end,
+            long seed, AtomicLong unsorted) {
+        SplittableRandom random = new SplittableRandom(seed);
+        ArrayDeque<CompletableFuture<?>> pending = new ArrayDeque<>(); // oldest submission first
+        while (System.nanoTime() < end) {
+            // wait for the oldest array once this producer has enough submitted
+            if (pending.size() >= inFlight) {
+                pending.poll().join();
+            }// end if
+            int roll = random.nextInt(100);
+            int c = roll < mix[0] ? 0 : roll < mix[0] + mix[1] ? 1 : 2; // the size class
+            int[] array = templates[c][random.nextInt(TEMPLATES)].clone();
+            // keep trying the same array, so rejections do not change the mix of sizes
+            while (true) {
+                try {
+                    pending.add(service.submit(array).thenRun(() -> {
+                        if (!isSorted(array)) {
+                            unsorted.incrementAndGet();
+                        }// end if
+                    }));
+                    break;
+                } catch (RejectedExecutionException e) {
+                    // the queue is full, so back off until this producer's oldest array is done
+                    if (!pending.isEmpty()) {
+                        pending.poll().join();
+                    } else {
+                        Thread.yield();
+                    }// end else
+                }// end catch
+            }// end while
+        }// end while
+        for (CompletableFuture<?> future : pending) {
+            future.join();
+        }// end for
+    }// end produce
+
+    /**
+     * @param array an array
+     * @return true if it is in non-decreasing order
+     */
+    private static boolean isSorted(int[] array) {
+        for (int i = 1; i < array.length; i++) {
+            if (array[i - 1] > array[i]) {
+                return false;
+            }// end if
+        }// end for
+        return true;
+    }// end isSorted
+}// end class SortServiceLoadTest
@@ -0,0 +1,113 @@
+/**
+ *
+ * @author Blake Mills
+ * COSC 3325 - Sorter API benchmark
+ *
+ * The purpose of this class is to time every Sorter on int[], long[], double[] and index sorts of the
+ * same seeded data, and to show that none of them box elements. Alongside ns/op (which includes
+ * copying the input) it prints the bytes each sort allocated per element (B/elem). A sort that only
+ * allocates a scratch array shows a small
+ * constant (0 for the in-place sorts, 4 or 8 for the Merge and radix buffers, plus 4 for the index
+ * array an index sort returns), while boxing would add at least 16 bytes for every element it touched.
+ *
+ * The index sort orders records held in two parallel arrays, a double[] of temperatures and an int[]
+ * of city codes, by temperature and then city.
+ *
+ * Compile and run from the algorithm-analysis folder:
+ *   javac -d bin common/*.java program-1/src/*.java program-2/*.java benchmarks/*.java
+ *   java -cp bin SorterBenchmark algorithms=intro,merge-buffered,radix size=100000
+ *
+ * Every parameter is optional:
+ *   algorithms=    comma separated Sorter names (default: every Sorter)
+ *   size=          the array size (default: 100000)
+ *   seed=          seed for the input data (default: 42)
+ *   warmup=        warmup iterations per combination (default: 5)
+ *   iterations=    measured iterations per combination (default: 10)
+ */
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class SorterBenchmark {
+
+    public static void main(String[] args) {
+        List<Sorter> sorters = new ArrayList<>(Sorters.all()); // the sorters to run
+        int size = 100000; // the array size
+        long seed = 42; // the seed for the input data
+        int warmup = 5; // number of warmup iterations per combination
+        int iterations = 10; // number of measured iterations per combination
+
+        // read the key=value parameters
+        for (Map.Entry<String, String> parameter : SortBenchmark.parseArgs(args).entrySet()) {
+            String key = parameter.getKey();
+            String value = parameter.getValue();
+            switch (key) {
+                case "algorithms":
+                    sorters.clear();
+                    for (String name : value.split(",")) {
+                        sorters.add(Sorters.forName(name));
+                    }// end for
+                    break;
+                case "size":
+                    size = SortBenchmark.parseInts(value)[0];
+                    break;
+                case "seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "warmup":
+                    warmup = Integer.parseInt(value);
+                    break;
+                case "iterations":
+                    iterations = Integer.parseInt(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown parameter: " + key);
+            }// end switch
+        }// end for
+
+        // one set of seeded keys, widened to each type so every sort sees the same order
+        int[] ints = SortBenchmark.createInput("uniform", size, seed);
+        long[] longs = new long[size];
+        double[] doubles = new double[size];
+        int[] cities = SortBenchmark.createInput("few-unique:100", size, seed + 1);
+        for (int i = 0; i < size; i++) {
+            longs[i] = (long) ints[i] << 16;
+            doubles[i] = ints[i] / 1e6 - 1000;
+        }// end for
+        Sorter.IndexComparator byTempThenCity = (i, j) -> {
+            int byTemp = Double.compare(doubles[i], doubles[j]);
+            return byTemp != 0 ? byTemp : Integer.compare(cities[i], cities[j]);
+        };
+
+        System.out.printf("%-16s %-7s %10s %16s %12s%n", "Algorithm", "Type", "Size", "ns/op", "B/elem");
+        for (Sorter sorter : sorters) {
+            for (Sorter.Type type : Sorter.Type.values()) {
+                if (!sorter.supports(type)) {
+                    continue;
+                }// end if
+                SortBenchmark.SortTask task; // sorts a copy of the input for this type
+                switch (type) {
+                    case INT:
+                        task = array -> sorter.sort(ints.clone());
+                        break;
+                    case LONG:
+                        task = array -> sorter.sort(longs.clone());
+                        break;
+                    case DOUBLE:
+                        task = array -> sorter.sort(doubles.clone());
+                        break;
+                    default:
+                        task = array -> {
+                            sorter.sortedOrder(doubles.length, byTempThenCity);
+                            return null;
+                        };
+                }// end switch
+                // the task copies its own input, so measure a copy's allocation separately and subtract it
+                int copyBytes = type == Sorter.Type.INDEX ? 0 : size * (type == Sorter.Type.INT ? 4 : 8);
+                SortBenchmark.Result result = SortBenchmark.measure(task, new int[size], warmup, iterations);
+                System.out.printf("%-16s %-7s %10d %16.1f %12.2f%n", sorter.name(), type.name().toLowerCase(),
+                        size, result.nanosPerOp, (result.bytesPerOp - copyBytes) / Math.max(1, size));
+            }// end for
+        }// end for
+    }// end main
+}// end class SorterBenchmark
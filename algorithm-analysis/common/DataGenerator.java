@@ -0,0 +1,281 @@
+/**
+ *
+ * @author Blake Mills
+ * COSC 3325 - Test data generation
+ *
+ * The purpose of this class is to fill int arrays with test data for the sorts, in one of several
+ * input distributions, from a seed so the same data can be produced again. It writes straight into
+ * the primitive array, so nothing is boxed and no strings are built. Large arrays are split into
+ * chunks that are filled in parallel, each with its own SplittableRandom split off from the
+ * generator's in chunk order, so the data only depends on the seed and not on the number of threads.
+ *
+ * Distributions are named with an optional parameter after a colon:
+ *   uniform[:bound]        random values from 0 up to bound (default Integer.MAX_VALUE)
+ *   sorted                 random ascending values
+ *   reversed               random descending values
+ *   nearly-sorted[:k]      sorted, then k random pairs swapped (default 1% of the size)
+ *   presorted[:p]          the first p percent sorted and the rest random, like a sorted table with a
+ *                          batch of new rows appended (default 90)
+ *   few-unique[:u]         random values from only u distinct keys (default 16)
+ *   zipf[:s]               keys 0..999 where key k appears in proportion to 1/(k+1)^s (default 1.0)
+ *   sawtooth[:period]      ascending runs 0, 1, ..., period-1 repeated (default 1000)
+ *   organ-pipe             ascending to the middle, then descending
+ *   duplicates             the same as few-unique:16
+ *   range100               the same as uniform:101 (values from 0 to 100)
+ *
+ * A DataGenerator should only be used by one thread at a time. It lives in common/ because program-1,
+ * program-2 and the benchmarks all use it, so compile it along with whichever of them you build.
+ */
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+public class DataGenerator {
+    private static final int CHUNK_SIZE = 1 << 16; // elements filled by one random generator
+    private static final int PARALLEL_THRESHOLD = 1 << 20; // arrays at least this long are filled in parallel
+    private static final int ZIPF_KEYS = 1000; // number of distinct keys in the zipf distribution
+
+    private final SplittableRandom random; // source of the per-chunk generators
+
+    /**
+     * Creates a generator with a random seed, so every run produces different data
+     */
+    public DataGenerator(){
+        this.random = new SplittableRandom();
+    }
+
+    /**
+     * Creates a generator that always produces the same data for the same seed and calls
+     * @param seed the seed
+     */
+    public DataGenerator(long seed){
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Creates a new array of the given size filled with the named distribution
+     * @param distribution the distribution name, see the class comment
+     * @param size the number of elements
+     * @return the new array
+     */
+    public int[] create(String distribution, int size){
+        int[] array = new int[size];
+        fill(array, distribution);
+        return array;
+    }// end create
+
+    /**
+     * Fills the array with the named distribution
+     * @param array the array to fill
+     * @param distribution the distribution name, see the class comment
+     */
+    public void fill(int[] array, String distribution){
+        int colon = distribution.indexOf(':');
+        String name = colon < 0 ? distribution : distribution.substring(0, colon); // the distribution
+        String parameter = colon < 0 ? null : distribution.substring(colon + 1); // its parameter, if any
+        switch(name){
+            case "uniform":
+                fillUniform(array, parameter == null ? Integer.MAX_VALUE : Integer.parseInt(parameter));
+                break;
+            case "range100":
+                fillUniform(array, 101);
+                break;
+            case "sorted":
+                fillSorted(array);
+                break;
+            case "reversed":
+                fillReversed(array);
+                break;
+            case "nearly-sorted":
+                fillNearlySorted(array, parameter == null ? array.length / 100 : Integer.parseInt(parameter));
+                break;
+            case "presorted":
+                fillPresorted(array, parameter == null ? 90 : Integer.parseInt(parameter));
+                break;
+            case "few-unique":
+                fillUniform(array, parameter == null ? 16 : Integer.parseInt(parameter));
+                break;
+            case "duplicates":
+                fillUniform(array, 16);
+                break;
+            case "zipf":
+                fillZipf(array, parameter == null ? 1.0 : Double.parseDouble(parameter));
+                break;
+            case "sawtooth":
+                fillSawtooth(array, parameter == null ? 1000 : Integer.parseInt(parameter));
+                break;
+            case "organ-pipe":
+                fillOrganPipe(array);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown distribution: " + distribution);
+        }// end switch
+    }// end fill
+
+    /**
+     * Fills the array with random values from 0 up to (but not including) bound
+     * @param array the array to fill
+     * @param bound the upper bound, which must be positive
+     */
+    public void fillUniform(int[] array, int bound){
+        if(bound <= 0){
+            throw new IllegalArgumentException("Bound must be positive: " + bound);
+        }// end if
+        forEachChunk(array.length, (rand, from, to) -> {
+            for(int i = from; i < to; i++){
+                array[i] = rand.nextInt(bound);
+            }// end for
+        });
+    }// end fillUniform
+
+    /**
+     * Fills the array with random ascending values. Each element gets its own slice of the int range
+     * and a random value inside it, so this takes O(n) time instead of generating and then sorting.
+     * @param array the array to fill
+     */
+    public void fillSorted(int[] array){
+        int n = array.length;
+        long width = Math.max(1, (long) Integer.MAX_VALUE / Math.max(1, n)); // size of each element's slice
+        forEachChunk(n, (rand, from, to) -> {
+            for(int i = from; i < to; i++){
+                // when there are more elements than values, neighbouring elements share a value
+                long base = width > 1 ? i * width : (long) i * Integer.MAX_VALUE / n;
+                array[i] = (int) (base + (width > 1 ? rand.nextLong(width) : 0));
+            }// end for
+        });
+    }// end fillSorted
+
+    /**
+     * Fills the array with random descending values
+     * @param array the array to fill
+     */
+    public void fillReversed(int[] array){
+        fillSorted(array);
+        reverse(array, 0, array.length - 1);
+    }// end fillReversed
+
+    /**
+     * Fills the array with sorted values and then swaps k random pairs of elements
+     * @param array the array to fill
+     * @param swaps the number of random swaps
+     */
+    public void fillNearlySorted(int[] array, int swaps){
+        fillSorted(array);
+        if(array.length < 2){
+            return;
+        }// end if
+        for(int s = 0; s < swaps; s++){
+            int i = random.nextInt(array.length);
+            int j = random.nextInt(array.length);
+            int temp = array[i];
+            array[i] = array[j];
+            array[j] = temp;
+        }// end for
+    }// end fillNearlySorted
+
+    /**
+     * Fills the first percent of the array with sorted values and the rest with random values from the
+     * same range, like a sorted table with a batch of unsorted rows appended to the end
+     * @param array the array to fill
+     * @param percent how much of the array is sorted, from 0 to 100
+     */
+    public void fillPresorted(int[] array, int percent){
+        if(percent < 0 || percent > 100){
+            throw new IllegalArgumentException("Percent must be from 0 to 100: " + percent);
+        }// end if
+        int sorted = (int) ((long) array.length * percent / 100); // length of the sorted prefix
+        int[] prefix = new int[sorted];
+        fillSorted(prefix);
+        fillUniform(array, Integer.MAX_VALUE);
+        System.arraycopy(prefix, 0, array, 0, sorted);
+    }// end fillPresorted
+
+    /**
+     * Fills the array with keys from 0 to 999 where key k occurs in proportion to 1/(k+1)^exponent,
+     * so a few small keys make up most of the array
+     * @param array the array to fill
+     * @param exponent how skewed the distribution is; 0 is uniform and larger is more skewed
+     */
+    public void fillZipf(int[] array, double exponent){
+        // cumulative probability of each key, used to turn a uniform random number into a key
+        double[] cumulative = new double[ZIPF_KEYS];
+        double total = 0;
+        for(int k = 0; k < ZIPF_KEYS; k++){
+            total += 1.0 / Math.pow(k + 1, exponent);
+            cumulative[k] = total;
+        }// end for
+        double sum = total;
+        forEachChunk(array.length, (rand, from, to) -> {
+            for(int i = from; i < to; i++){
+                int key = Arrays.binarySearch(cumulative, rand.nextDouble() * sum);
+                // binarySearch returns (-(insertion point) - 1) when the value is not found exactly
+                array[i] = key >= 0 ? key : -key - 1;
+            }// end for
+        });
+    }// end fillZipf
+
+    /**
+     * Fills the array with the ascending run 0, 1, ..., period-1 repeated over and over
+     * @param array the array to fill
+     * @param period the length of each run
+     */
+    public void fillSawtooth(int[] array, int period){
+        if(period <= 0){
+            throw new IllegalArgumentException("Period must be positive: " + period);
+        }// end if
+        for(int i = 0; i < array.length; i++){
+            array[i] = i % period;
+        }// end for
+    }// end fillSawtooth
+
+    /**
+     * Fills the array with random values that ascend to the middle of the array and then descend
+     * @param array the array to fill
+     */
+    public void fillOrganPipe(int[] array){
+        fillSorted(array);
+        // flipping the second half makes it descend from the largest value
+        reverse(array, array.length / 2, array.length - 1);
+    }// end fillOrganPipe
+
+    /**
+     * The work done for one chunk of an array
+     */
+    private interface ChunkFiller {
+        void fill(SplittableRandom rand, int from, int to);
+    }// end ChunkFiller
+
+    /**
+     * Splits the range [0, length) into chunks and runs the filler on each one with its own random
+     * generator. The generators are split off in chunk order before any filling starts, so the result
+     * is the same whether the chunks run one at a time or in parallel.
+     * @param length the length of the array being filled
+     * @param filler the work to do for each chunk
+     */
+    private void forEachChunk(int length, ChunkFiller filler){
+        int chunks = (length + CHUNK_SIZE - 1) / CHUNK_SIZE; // number of chunks
+        SplittableRandom[] generators = new SplittableRandom[chunks];
+        for(int c = 0; c < chunks; c++){
+            generators[c] = random.split();
+        }// end for
+        IntStream indexes = IntStream.range(0, chunks);
+        if(length >= PARALLEL_THRESHOLD){
+            indexes = indexes.parallel();
+        }// end if
+        indexes.forEach(c -> filler.fill(generators[c], c * CHUNK_SIZE, Math.min(length, (c + 1) * CHUNK_SIZE)));
+    }// end forEachChunk
+
+    /**
+     * Reverses the elements from index i to index j (inclusive)
+     * @param array the array
+     * @param i the left index
+     * @param j the right index
+     */
+    private static void reverse(int[] array, int i, int j){
+        for(; i < j; i++, j--){
+            int temp = array[i];
+            array[i] = array[j];
+            array[j] = temp;
+        }// end for
+    }// end reverse
+}// end class DataGenerator
@@ -0,0 +1,456 @@
+/**
+ *
+ * @author Blake Mills
+ * COSC 3325 - External sorting
+ *
+ * The purpose of this class is to sort a binary file of ints that is too large to fit in memory.
+ * The file is just the ints one after another, 4 bytes each in big-endian order (the way
+ * DataOutputStream and ByteBuffer write them). The sort works in two phases:
+ *
+ *   1. Run creation: read the file through a FileChannel one chunk at a time, where a chunk is as
+ *      many ints as fit in the memory budget, sort each chunk in memory with the introsort from
+ *      SortingAlgorithms2, and spill it to a temporary file as a sorted run.
+ *   2. Merging: merge up to fanIn runs at a time into one longer run, reading each run through its
+ *      own buffer and picking the smallest head with a min-heap of primitive ints. If there are
+ *      more runs than fanIn this takes several passes; the last pass writes the output file.
+ *
+ * Run creation keeps one int[] of memoryBytes on the heap. Merging keeps fanIn + 1 direct
+ * (off-heap) buffers that together take about memoryBytes, so a 4 GB file sorts with a 512 MB heap.
+ * An ExternalSort should only be used by one thread at a time.
+ */
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ExternalSort {
+    public static final long DEFAULT_MEMORY_BYTES = 64L << 20; // default memory budget (64 MB)
+    public static final int DEFAULT_FAN_IN = 64; // default number of runs merged at once
+    private static final int IO_BUFFER_BYTES = 1 << 20; // buffer used while creating runs
+    private static final int MIN_MERGE_BUFFER_BYTES = 1 << 12; // smallest buffer for one run while merging
+    private static final int MAX_MERGE_BUFFER_BYTES = 8 << 20; // larger buffers than this do not read any faster
+
+    private final long memoryBytes; // memory budget for sorting chunks and for merge buffers
+    private final int fanIn; // most runs merged at once
+    private final Path tempDirectory; // where the runs are spilled
+    private int runsCreated; // number of runs spilled by the last sort
+    private int mergePasses; // number of merge passes made by the last sort
+
+    /**
+     * Creates an external sort with the default memory budget and fan-in that spills runs to the
+     * system's temporary directory
+     */
+    public ExternalSort(){
+        this(DEFAULT_MEMORY_BYTES, DEFAULT_FAN_IN, Path.of(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * Creates an external sort
+     * @param memoryBytes how many bytes to sort in memory at once; also shared by the merge buffers
+     * @param fanIn how many runs to merge at once, at least 2
+     * @param tempDirectory the directory to spill the runs to
+     */
+    public ExternalSort(long memoryBytes, int fanIn, Path tempDirectory){
+        if(memoryBytes < MIN_MERGE_BUFFER_BYTES){
+            throw new IllegalArgumentException("Memory budget must be at least " + MIN_MERGE_BUFFER_BYTES
+                    + " bytes: " + memoryBytes);
+        }// end if
+        if(fanIn < 2){
+            throw new IllegalArgumentException("Fan-in must be at least 2: " + fanIn);
+        }// end if
+        this.memoryBytes = memoryBytes;
+        this.fanIn = fanIn;
+        this.tempDirectory = tempDirectory;
+    }
+
+    /**
+     * Sorts the ints in the input file into the output file. The input file is not changed.
+     * @param input the file of ints to sort
+     * @param output the file to write the sorted ints to; it is replaced if it exists
+     * @return the metrics for this sort; moves count every int written, including to the runs
+     * @throws IOException if a file cannot be read or written, or the input length is not a multiple of 4
+     */
+    public SortMetrics sort(Path input, Path output) throws IOException {
+        SortMetrics metrics = new SortMetrics(); // the statistics for this sort
+        long start = System.nanoTime();
+        List<Path> runs = new ArrayList<>(); // the runs that have not been merged yet
+        List<Path> merged = new ArrayList<>(); // the runs written so far by the current merge pass
+        runsCreated = 0;
+        mergePasses = 0;
+        try {
+            createRuns(input, runs, metrics);
+            runsCreated = runs.size();
+
+            ByteBuffer[] buffers = allocateMergeBuffers(Math.min(fanIn, Math.max(1, runs.size())));
+            // merge groups of fanIn runs into longer runs until one pass can write the output
+            while(runs.size() > fanIn){
+                merged = new ArrayList<>();
+                for(int from = 0; from < runs.size(); from += fanIn){
+                    List<Path> group = runs.subList(from, Math.min(runs.size(), from + fanIn));
+                    Path run = Files.createTempFile(tempDirectory, "sort-run-", ".bin");
+                    merged.add(run);
+                    mergeRuns(group, run, buffers, metrics);
+                    for(Path done : group){
+                        Files.delete(done);
+                    }// end for
+                }// end for
+                runs = merged;
+                merged = new ArrayList<>();
+                mergePasses++;
+            }// end while
+            mergeRuns(runs, output, buffers, metrics);
+            mergePasses++;
+        } finally {
+            // a failed sort should not leave its runs behind, including the ones a failed pass already wrote
+            for(Path run : runs){
+                Files.deleteIfExists(run);
+            }// end for
+            for(Path run : merged){
+                Files.deleteIfExists(run);
+            }// end for
+        }// end finally
+        metrics.recordDepth(mergePasses);
+        metrics.setElapsedNanos(System.nanoTime() - start);
+        return metrics;
+    }// end sort
+
+    /**
+     * @return the number of sorted runs the last sort spilled to disk
+     */
+    public int getRunsCreated(){
+        return runsCreated;
+    }// end getRunsCreated
+
+    /**
+     * @return the number of merge passes the last sort made, including the one that wrote the output
+     */
+    public int getMergePasses(){
+        return mergePasses;
+    }// end getMergePasses
+
+    /**
+     * Reads the input one chunk at a time, sorts each chunk and writes it to a new temporary file
+     * @param input the file of ints to sort
+     * @param runs the list the new runs are added to
+     * @param metrics the statistics for this sort
+     * @throws IOException if a file cannot be read or written
+     */
+    private void createRuns(Path input, List<Path> runs, SortMetrics metrics) throws IOException {
+        try(FileChannel in = FileChannel.open(input, StandardOpenOption.READ)){
+            long size = in.size();
+            if(size % Integer.BYTES != 0){
+                throw new IOException(input + " is " + size + " bytes, which is not a whole number of ints");
+            }// end if
+            // never allocate more than the file needs, and no more than one Java array can hold
+            long chunkInts = Math.min(memoryBytes / Integer.BYTES, size / Integer.BYTES);
+            int[] chunk = new int[(int) Math.min(chunkInts, Integer.MAX_VALUE - 8)];
+            ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_BYTES);
+
+            int count; // number of ints read into the chunk
+            while((count = readInts(in, chunk, buffer)) > 0){
+                SortMetrics chunkMetrics = new SortMetrics();
+                SortingAlgorithms2.introSort(chunk, 0, count - 1, chunkMetrics, 1, 2 * SortingAlgorithms2.log2(count));
+                metrics.add(chunkMetrics);
+
+                Path run = Files.createTempFile(tempDirectory, "sort-run-", ".bin");
+                runs.add(run);
+                try(FileChannel out = FileChannel.open(run, StandardOpenOption.WRITE)){
+                    writeInts(out, chunk, count, buffer);
+                }// end try
+                metrics.addMoves(count);
+            }// end while
+        }// end try
+    }// end createRuns
+
+    /**
+     * Fills the chunk with ints from the channel until it is full or the channel has no more
+     * @param in the channel to read from
+     * @param chunk the array to fill
+     * @param buffer the buffer to read through
+     * @return the number of ints read, or 0 at the end of the channel
+     * @throws IOException if the channel cannot be read
+     */
+    private static int readInts(FileChannel in, int[] chunk, ByteBuffer buffer) throws IOException {
+        int count = 0; // number of ints read so far
+        while(count < chunk.length){
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), (long) (chunk.length - count) * Integer.BYTES));
+            // a read can stop part way through an int, so keep reading until the buffer is full
+            while(buffer.hasRemaining() && in.read(buffer) >= 0){
+            }// end while
+            buffer.flip();
+            int ints = buffer.remaining() / Integer.BYTES;
+            if(ints == 0){
+                break;
+            }// end if
+            buffer.asIntBuffer().get(chunk, count, ints);
+            count += ints;
+        }// end while
+        return count;
+    }// end readInts
+
+    /**
+     * Writes the first count ints of the chunk to the channel
+     * @param out the channel to write to
+     * @param chunk the ints to write
+     * @param count the number of ints to write
+     * @param buffer the buffer to write through
+     * @throws IOException if the channel cannot be written
+     */
+    private static void writeInts(FileChannel out, int[] chunk, int count, ByteBuffer buffer) throws IOException {
+        int perBuffer = buffer.capacity() / Integer.BYTES; // ints that fit in the buffer
+        for(int from = 0; from < count; from += perBuffer){
+            int ints = Math.min(perBuffer, count - from);
+            buffer.clear();
+            buffer.asIntBuffer().put(chunk, from, ints);
+            buffer.limit(ints * Integer.BYTES);
+            while(buffer.hasRemaining()){
+                out.write(buffer);
+            }// end while
+        }// end for
+    }// end writeInts
+
+    /**
+     * Allocates one read buffer per run being merged plus one write buffer, splitting the memory budget
+     * between them
+     * @param runs the most runs that will be merged at once
+     * @return the buffers, where the last one is for writing
+     */
+    private ByteBuffer[] allocateMergeBuffers(int runs){
+        long share = memoryBytes / (runs + 1); // each buffer's share of the budget
+        int bytes = (int) Math.max(MIN_MERGE_BUFFER_BYTES, Math.min(MAX_MERGE_BUFFER_BYTES, share));
+        bytes -= bytes % Integer.BYTES;
+        ByteBuffer[] buffers = new ByteBuffer[runs + 1];
+        for(int i = 0; i < buffers.length; i++){
+            buffers[i] = ByteBuffer.allocateDirect(bytes);
+        }// end for
+        return buffers;
+    }// end allocateMergeBuffers
+
+    /**
+     * Merges sorted runs into one sorted file. The smallest unwritten int of every run sits in a
+     * min-heap along with the number of its run; the top of the heap is written out and replaced
+     * with the next int from the same run until every run is used up.
+     * @param runs the sorted runs to merge
+     * @param output the file to write the merged ints to
+     * @param buffers the merge buffers; the last one is used for writing
+     * @param metrics the statistics for this sort
+     * @throws IOException if a file cannot be read or written
+     */
+    private static void mergeRuns(List<Path> runs, Path output, ByteBuffer[] buffers, SortMetrics metrics)
+            throws IOException {
+        RunReader[] readers = new RunReader[runs.size()];
+        try(FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)){
+            IntMinHeap heap = new IntMinHeap(runs.size(), metrics);
+            for(int r = 0; r < readers.length; r++){
+                readers[r] = new RunReader(runs.get(r), buffers[r]);
+                if(readers[r].hasNext()){
+                    heap.add(readers[r].next(), r);
+                }// end if
+            }// end for
+
+            ByteBuffer outBuffer = buffers[buffers.length - 1];
+            outBuffer.clear();
+            long written = 0; // number of ints written to the output
+            while(heap.size() > 0){
+                if(!outBuffer.hasRemaining()){
+                    flush(out, outBuffer);
+                }// end if
+                outBuffer.putInt(heap.topKey());
+                written++;
+
+                // replace the int just written with the next one from its run
+                int run = heap.topRun();
+                if(readers[run].hasNext()){
+                    heap.replaceTop(readers[run].next(), run);
+                }
+                else {
+                    heap.removeTop();
+                }// end else
+            }// end while
+            flush(out, outBuffer);
+            metrics.addMoves(written);
+        } finally {
+            for(RunReader reader : readers){
+                if(reader != null){
+                    reader.close();
+                }// end if
+            }// end for
+        }// end finally
+    }// end mergeRuns
+
+    /**
+     * Writes everything in the buffer to the channel and clears the buffer
+     * @param out the channel to write to
+     * @param buffer the buffer holding the ints to write
+     * @throws IOException if the channel cannot be written
+     */
+    private static void flush(FileChannel out, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while(buffer.hasRemaining()){
+            out.write(buffer);
+        }// end while
+        buffer.clear();
+    }// end flush
+
+    /**
+     * Reads the ints of one run through a buffer
+     */
+    private static class RunReader {
+        private final FileChannel channel; // the run's file
+        private final ByteBuffer buffer; // ints read from the file but not yet returned
+
+        /**
+         * Opens the run for reading
+         * @param run the run's file
+         * @param buffer the buffer to read through; its contents are overwritten
+         * @throws IOException if the file cannot be opened
+         */
+        RunReader(Path run, ByteBuffer buffer) throws IOException {
+            this.channel = FileChannel.open(run, StandardOpenOption.READ);
+            this.buffer = buffer;
+            buffer.clear();
+            buffer.flip(); // start empty so the first hasNext reads from the file
+        }
+
+        /**
+         * @return true if the run has another int
+         * @throws IOException if the file cannot be read
+         */
+        boolean hasNext() throws IOException {
+            if(buffer.remaining() >= Integer.BYTES){
+                return true;
+            }// end if
+            // keep any partial int and fill the rest of the buffer from the file
+            buffer.compact();
+            while(buffer.hasRemaining() && channel.read(buffer) >= 0){
+            }// end while
+            buffer.flip();
+            return buffer.remaining() >= Integer.BYTES;
+        }// end hasNext
+
+        /**
+         * @return the next int of the run; only call this after hasNext returns true
+         */
+        int next(){
+            return buffer.getInt();
+        }// end next
+
+        /**
+         * Closes the run's file
+         * @throws IOException if the file cannot be closed
+         */
+        void close() throws IOException {
+            channel.close();
+        }// end close
+    }// end RunReader
+
+    /**
+     * A binary min-heap of int keys, each tagged with the number of the run it came from. The keys and
+     * runs are kept in two int arrays, so nothing is boxed.
+     */
+    private static class IntMinHeap {
+        private final int[] keys; // the keys, in heap order
+        private final int[] runs; // runs[i] is the run keys[i] came from
+        private final SortMetrics metrics; // counts the comparisons
+        private int size; // number of keys in the heap
+
+        /**
+         * Creates an empty heap
+         * @param capacity the most keys the heap will hold
+         * @param metrics the statistics to count comparisons into
+         */
+        IntMinHeap(int capacity, SortMetrics metrics){
+            this.keys = new int[capacity];
+            this.runs = new int[capacity];
+            this.metrics = metrics;
+        }
+
+        /**
+         * @return the number of keys in the heap
+         */
+        int size(){
+            return size;
+        }// end size
+
+        /**
+         * @return the smallest key
+         */
+        int topKey(){
+            return keys[0];
+        }// end topKey
+
+        /**
+         * @return the run the smallest key came from
+         */
+        int topRun(){
+            return runs[0];
+        }// end topRun
+
+        /**
+         * Adds a key, moving it up past any larger parents
+         * @param key the key
+         * @param run the run it came from
+         */
+        void add(int key, int run){
+            int i = size++;
+            while(i > 0){
+                int parent = (i - 1) / 2;
+                metrics.addComparison();
+                if(keys[parent] <= key){
+                    break;
+                }// end if
+                keys[i] = keys[parent];
+                runs[i] = runs[parent];
+                i = parent;
+            }// end while
+            keys[i] = key;
+            runs[i] = run;
+        }// end add
+
+        /**
+         * Replaces the smallest key with a new one and moves it down to its place. This is cheaper than a
+         * removeTop followed by an add.
+         * @param key the key
+         * @param run the run it came from
+         */
+        void replaceTop(int key, int run){
+            int i = 0;
+            int half = size / 2; // nodes before this index have at least one child
+            while(i < half){
+                int child = 2 * i + 1;
+                if(child + 1 < size){
+                    metrics.addComparison();
+                    if(keys[child + 1] < keys[child]){
+                        child++;
+                    }// end if
+                }// end if
+                metrics.addComparison();
+                if(key <= keys[child]){
+                    break;
+                }// end if
+                keys[i] = keys[child];
+                runs[i] = runs[child];
+                i = child;
+            }// end while
+            keys[i] = key;
+            runs[i] = run;
+        }// end replaceTop
+
+        /**
+         * Removes the smallest key
+         */
+        void removeTop(){
+            size--;
+            if(size > 0){
+                replaceTop(keys[size], runs[size]);
+            }// end if
+        }// end removeTop
+    }// end IntMinHeap
+}// end class ExternalSort
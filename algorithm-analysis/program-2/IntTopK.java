@@ -0,0 +1,149 @@
+/**
+ *
+ * @author Blake Mills
+ * COSC 3325 - Streaming top-k
+ *
+ * The purpose of this class is to keep the k smallest (or k largest) of a stream of ints without
+ * storing the whole stream. It is a binary heap of at most k ints in one int array, with the largest
+ * kept value on top: a new value smaller than the top replaces it and is sifted down, and anything
+ * else is thrown away after one comparison. Offering n values costs O(n log k) time in the worst case
+ * and O(n) for typical data, and O(k) memory.
+ *
+ * For the k largest, every value is stored bitwise inverted (~x), which reverses the order of ints
+ * without overflowing, so the same heap code keeps the k largest.
+ */
+import java.util.Arrays;
+
+public class IntTopK {
+    private final int[] heap; // the kept values (inverted when keeping the largest), largest on top
+    private final boolean largest; // true if this keeps the k largest values
+    private final SortMetrics metrics = new SortMetrics(); // comparisons and moves so far
+    private int size; // number of values kept so far
+
+    /**
+     * Creates a top-k that keeps the k smallest values offered to it
+     * @param k the number of values to keep
+     * @return the new top-k
+     */
+    public static IntTopK smallest(int k){
+        return new IntTopK(k, false);
+    }// end smallest
+
+    /**
+     * Creates a top-k that keeps the k largest values offered to it
+     * @param k the number of values to keep
+     * @return the new top-k
+     */
+    public static IntTopK largest(int k){
+        return new IntTopK(k, true);
+    }// end largest
+
+    /**
+     * Creates an empty top-k
+     * @param k the number of values to keep
+     * @param largest true to keep the largest values, false to keep the smallest
+     */
+    private IntTopK(int k, boolean largest){
+        if(k < 0){
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }// end if
+        this.heap = new int[k];
+        this.largest = largest;
+    }
+
+    /**
+     * Offers a value, keeping it if it is among the k best seen so far
+     * @param value the value
+     */
+    public void offer(int value){
+        int key = largest ? ~value : value; // the value as the heap stores it
+        if(size < heap.length){
+            // not full yet, so keep it and sift it up
+            int i = size++;
+            while(i > 0){
+                int parent = (i - 1) / 2;
+                metrics.addComparison();
+                if(heap[parent] >= key){
+                    break;
+                }// end if
+                heap[i] = heap[parent];
+                metrics.addMove();
+                i = parent;
+            }// end while
+            heap[i] = key;
+            metrics.addMove();
+            return;
+        }// end if
+        metrics.addComparison();
+        // full, so only a key smaller than the largest kept one gets in
+        if(size > 0 && key < heap[0]){
+            siftDown(key);
+        }// end if
+    }// end offer
+
+    /**
+     * Offers every value in an array
+     * @param values the values
+     */
+    public void offerAll(int[] values){
+        for(int value : values){
+            offer(value);
+        }// end for
+    }// end offerAll
+
+    /**
+     * @return the number of values kept, which is k once at least k values have been offered
+     */
+    public int size(){
+        return size;
+    }// end size
+
+    /**
+     * @return the comparisons and moves made so far
+     */
+    public SortMetrics getMetrics(){
+        return metrics;
+    }// end getMetrics
+
+    /**
+     * @return the kept values in order, smallest first for smallest(k) and largest first for largest(k)
+     */
+    public int[] toSortedArray(){
+        int[] result = Arrays.copyOf(heap, size);
+        Arrays.sort(result);
+        if(largest){
+            // the stored keys are inverted, so sorting them ascending puts the largest value first
+            for(int i = 0; i < size; i++){
+                result[i] = ~result[i];
+            }// end for
+        }// end if
+        return result;
+    }// end toSortedArray
+
+    /**
+     * Replaces the top of the heap with key and moves it down below any larger children
+     * @param key the new key
+     */
+    private void siftDown(int key){
+        int i = 0;
+        int half = size / 2; // positions before this have at least one child
+        while(i < half){
+            int child = 2 * i + 1;
+            if(child + 1 < size){
+                metrics.addComparison();
+                if(heap[child + 1] > heap[child]){
+                    child++;
+                }// end if
+            }// end if
+            metrics.addComparison();
+            if(key >= heap[child]){
+                break;
+            }// end if
+            heap[i] = heap[child];
+            metrics.addMove();
+            i = child;
+        }// end while
+        heap[i] = key;
+        metrics.addMove();
+    }// end siftDown
+}// end class IntTopK
@@ -0,0 +1,186 @@
+/**
+ *
+ * @author Blake Mills
+ * COSC 3325 - Memory-mapped int arrays
+ *
+ * The purpose of this class is to treat a binary file of ints as one big int array without reading
+ * it onto the heap. The file uses the same format as ExternalSort (4 bytes per int, big-endian), and
+ * is mapped into memory with FileChannel.map, so reads and writes go straight to the operating
+ * system's page cache and the garbage collector never sees the data.
+ *
+ * One MappedByteBuffer can only cover 2^31 - 1 bytes, because buffers are indexed by int. To handle
+ * bigger files, the file is mapped as a list of chunks of CHUNK_INTS ints (1 GB each), and a long
+ * index is split into a chunk number (the high bits) and a position in that chunk (the low bits).
+ * Every chunk is viewed as an IntBuffer, so each get or set is a single absolute access.
+ *
+ * A mapping stays valid until the garbage collector frees the MappedIntArray, even after the file
+ * channel is closed, so there is nothing to close. Writes reach the file when the operating system
+ * flushes them, or when force is called.
+ */
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class MappedIntArray {
+    private static final int CHUNK_SHIFT = 28; // log2 of the ints per chunk
+    public static final int CHUNK_INTS = 1 << CHUNK_SHIFT; // ints per mapped chunk (1 GB)
+    private static final long CHUNK_MASK = CHUNK_INTS - 1; // the bits of an index inside its chunk
+
+    private final MappedByteBuffer[] mappings; // the mapped chunks of the file, kept for force
+    private final IntBuffer[] chunks; // an int view of each mapped chunk
+    private final long length; // number of ints in the array
+
+    /**
+     * Maps an existing file of ints for reading and writing
+     * @param file the file, whose length must be a multiple of 4
+     * @return the array backed by the file
+     * @throws IOException if the file cannot be mapped or its length is not a multiple of 4
+     */
+    public static MappedIntArray open(Path file) throws IOException {
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)){
+            long bytes = channel.size();
+            if(bytes % Integer.BYTES != 0){
+                throw new IOException(file + " is " + bytes + " bytes, which is not a whole number of ints");
+            }// end if
+            return new MappedIntArray(channel, bytes / Integer.BYTES);
+        }// end try
+    }// end open
+
+    /**
+     * Creates (or replaces) a file big enough for the given number of ints and maps it. The ints start
+     * out as zero. This is how the sorts get their scratch space.
+     * @param file the file to create
+     * @param length the number of ints
+     * @return the array backed by the new file
+     * @throws IOException if the file cannot be created or mapped
+     */
+    public static MappedIntArray create(Path file, long length) throws IOException {
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)){
+            return new MappedIntArray(channel, length);
+        }// end try
+    }// end create
+
+    /**
+     * Creates a scratch file like create, opened with DELETE_ON_CLOSE so it goes away by itself. On Linux
+     * and macOS the file is unlinked as soon as this returns, and the mapping keeps its pages until it is
+     * garbage collected. Windows cannot delete a mapped file, so there it is deleted once the mapping is
+     * garbage collected, or at the latest when the JVM exits.
+     * @param file the file to create
+     * @param length the number of ints
+     * @return the array backed by the new file
+     * @throws IOException if the file cannot be created or mapped
+     */
+    public static MappedIntArray createScratch(Path file, long length) throws IOException {
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.DELETE_ON_CLOSE)){
+            return new MappedIntArray(channel, length);
+        }// end try
+    }// end createScratch
+
+    /**
+     * Deletes a file that may still be mapped. Windows refuses to delete a mapped file, and a mapping is
+     * only released when it is garbage collected, so if the delete fails the file is deleted when the JVM
+     * exits instead.
+     * @param file the file to delete
+     */
+    public static void delete(Path file){
+        try {
+            Files.deleteIfExists(file);
+        } catch(IOException e){
+            file.toFile().deleteOnExit();
+        }// end catch
+    }// end delete
+
+    /**
+     * Maps the first length ints of a channel, one chunk at a time. Mapping past the end of the file
+     * makes the file longer.
+     * @param channel a channel open for reading and writing
+     * @param length the number of ints to map
+     * @throws IOException if the channel cannot be mapped
+     */
+    private MappedIntArray(FileChannel channel, long length) throws IOException {
+        int count = (int) ((length + CHUNK_MASK) >>> CHUNK_SHIFT); // number of chunks
+        this.mappings = new MappedByteBuffer[count];
+        this.chunks = new IntBuffer[count];
+        this.length = length;
+        for(int c = 0; c < count; c++){
+            long first = (long) c << CHUNK_SHIFT; // index of the chunk's first int
+            long ints = Math.min(CHUNK_INTS, length - first);
+            mappings[c] = channel.map(FileChannel.MapMode.READ_WRITE, first * Integer.BYTES, ints * Integer.BYTES);
+            chunks[c] = mappings[c].asIntBuffer();
+        }// end for
+    }
+
+    /**
+     * @return the number of ints in the array
+     */
+    public long length(){
+        return length;
+    }// end length
+
+    /**
+     * Reads an int
+     * @param index the index, from 0 to length - 1
+     * @return the int at that index
+     */
+    public int get(long index){
+        return chunks[(int) (index >>> CHUNK_SHIFT)].get((int) (index & CHUNK_MASK));
+    }// end get
+
+    /**
+     * Writes an int
+     * @param index the index, from 0 to length - 1
+     * @param value the int to write there
+     */
+    public void set(long index, int value){
+        chunks[(int) (index >>> CHUNK_SHIFT)].put((int) (index & CHUNK_MASK), value);
+    }// end set
+
+    /**
+     * Swaps two ints
+     * @param i the first index
+     * @param j the second index
+     */
+    public void swap(long i, long j){
+        int temp = get(i);
+        set(i, get(j));
+        set(j, temp);
+    }// end swap
+
+    /**
+     * Copies ints from this array into another one, like System.arraycopy. The ranges must not overlap
+     * if the arrays are the same.
+     * @param from the index of the first int to copy
+     * @param destination the array to copy into
+     * @param to the index in destination to copy the first int to
+     * @param count the number of ints to copy
+     */
+    public void copyTo(long from, MappedIntArray destination, long to, long count){
+        while(count > 0){
+            // copy as much as fits in the current chunk of both arrays at once
+            IntBuffer source = chunks[(int) (from >>> CHUNK_SHIFT)];
+            IntBuffer target = destination.chunks[(int) (to >>> CHUNK_SHIFT)];
+            int sourceOffset = (int) (from & CHUNK_MASK);
+            int targetOffset = (int) (to & CHUNK_MASK);
+            int ints = (int) Math.min(count, Math.min(source.limit() - sourceOffset, target.limit() - targetOffset));
+            target.put(targetOffset, source, sourceOffset, ints);
+            from += ints;
+            to += ints;
+            count -= ints;
+        }// end while
+    }// end copyTo
+
+    /**
+     * Writes every change made so far out to the file
+     */
+    public void force(){
+        for(MappedByteBuffer mapping : mappings){
+            mapping.force();
+        }// end for
+    }// end force
+}// end class MappedIntArray
@@ -0,0 +1,453 @@
+/**
+ *
+ * @author Blake Mills
+ * COSC 3325 - Sorting memory-mapped files
+ *
+ * The purpose of this class is to sort a file of ints in place through a MappedIntArray, without
+ * copying it onto the heap. The sorts are the long-indexed versions of the in-memory ones, so they
+ * also work on files of more than 2^31 ints:
+ *
+ *   quickSort   the introsort from SortingAlgorithms2 (ninther pivot, Hoare partition, heap sort
+ *               fallback), finishing small ranges with insertion sort. It needs no extra space.
+ *   mergeSort   a bottom-up Merge sort that merges runs back and forth between the file and a mapped
+ *               scratch file of the same size, so it only ever reads and writes sequentially. It is
+ *               stable.
+ *   radixSort   the LSD radix sort from RadixSorts (four 8-bit digits), also using a mapped scratch
+ *               file. Every pass reads the file once in order.
+ *
+ * The scratch file is created with DELETE_ON_CLOSE and deleted again when the sort finishes. On
+ * Windows, which cannot delete a mapped file, it lasts until its mapping is garbage collected or the
+ * JVM exits. Merge and radix read their input in order on every pass, which the operating system can
+ * read ahead, while each Quick sort partition walks inward from both ends of its range. That matters
+ * once the file is bigger than the free memory and pages have to come back from disk.
+ */
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class MappedSorts {
+    private static final int INSERTION_CUTOFF = 16; // ranges this size or smaller are insertion sorted
+    private static final int NINTHER_THRESHOLD = 128; // ranges larger than this use Tukey's ninther pivot
+    private static final int RADIX = 256; // number of buckets per radix digit
+    private static final int DIGIT_BITS = 8; // bits per radix digit
+    private static final int DIGIT_MASK = RADIX - 1; // mask for one radix digit
+
+    /**
+     * Sorts a file of ints in place with the Quick sort
+     * @param file the file of big-endian ints to sort
+     * @return the metrics for this sort
+     * @throws IOException if the file cannot be mapped
+     */
+    public static SortMetrics quickSort(Path file) throws IOException {
+        MappedIntArray array = MappedIntArray.open(file);
+        SortMetrics metrics = quickSort(array);
+        array.force();
+        return metrics;
+    }// end quickSort
+
+    /**
+     * Sorts a file of ints in place with the Merge sort, using a scratch file in the same directory
+     * @param file the file of big-endian ints to sort
+     * @return the metrics for this sort
+     * @throws IOException if a file cannot be created or mapped
+     */
+    public static SortMetrics mergeSort(Path file) throws IOException {
+        MappedIntArray array = MappedIntArray.open(file);
+        SortMetrics metrics = mergeSort(array, scratchFile(file));
+        array.force();
+        return metrics;
+    }// end mergeSort
+
+    /**
+     * Sorts a file of ints in place with the radix sort, using a scratch file in the same directory
+     * @param file the file of big-endian ints to sort
+     * @return the metrics for this sort
+     * @throws IOException if a file cannot be created or mapped
+     */
+    public static SortMetrics radixSort(Path file) throws IOException {
+        MappedIntArray array = MappedIntArray.open(file);
+        SortMetrics metrics = radixSort(array, scratchFile(file));
+        array.force();
+        return metrics;
+    }// end radixSort
+
+    /**
+     * Sorts a mapped array with the Quick sort (an introsort, so never worse than O(n log n))
+     * @param a the array to sort
+     * @return the metrics for this sort
+     */
+    public static SortMetrics quickSort(MappedIntArray a){
+        SortMetrics metrics = new SortMetrics(); // the statistics for this sort
+        long start = System.nanoTime();
+        long n = a.length();
+        introSort(a, 0, n - 1, metrics, 1, 2 * (63 - Long.numberOfLeadingZeros(Math.max(2, n))));
+        metrics.setElapsedNanos(System.nanoTime() - start);
+        return metrics;
+    }// end quickSort
+
+    /**
+     * Sorts a mapped array with a bottom-up Merge sort. Runs of INSERTION_CUTOFF ints are insertion
+     * sorted in place first, then every pass merges pairs of runs into runs twice as long, from the
+     * array into the scratch array or back. If the last pass leaves the result in the scratch array it
+     * is copied back.
+     * @param a the array to sort
+     * @param scratch a file to use as scratch space; it is created and deleted by the sort
+     * @return the metrics for this sort
+     * @throws IOException if the scratch file cannot be created
+     */
+    public static SortMetrics mergeSort(MappedIntArray a, Path scratch) throws IOException {
+        SortMetrics metrics = new SortMetrics(); // the statistics for this sort
+        metrics.recordDepth(1);
+        long start = System.nanoTime();
+        long n = a.length();
+        try {
+            MappedIntArray buffer = MappedIntArray.createScratch(scratch, n);
+            // sort the first runs where they are
+            for(long lo = 0; lo < n; lo += INSERTION_CUTOFF){
+                insertionSort(a, lo, Math.min(n, lo + INSERTION_CUTOFF) - 1, metrics);
+            }// end for
+
+            MappedIntArray source = a; // the array holding the runs before this pass
+            MappedIntArray destination = buffer; // the array receiving the merged runs
+            for(long width = INSERTION_CUTOFF; width < n; width *= 2){
+                for(long lo = 0; lo < n; lo += 2 * width){
+                    long middle = Math.min(n, lo + width);
+                    long hi = Math.min(n, lo + 2 * width);
+                    mergeRuns(source, destination, lo, middle, hi, metrics);
+                }// end for
+                // the runs are now in destination, so swap roles for the next pass
+                MappedIntArray temp = source;
+                source = destination;
+                destination = temp;
+            }// end for
+
+            // an odd number of passes leaves the result in the scratch array
+            if(source != a){
+                source.copyTo(0, a, 0, n);
+                metrics.addMoves(n);
+            }// end if
+        } finally {
+            MappedIntArray.delete(scratch);
+        }// end finally
+        metrics.setElapsedNanos(System.nanoTime() - start);
+        return metrics;
+    }// end mergeSort
+
+    /**
+     * Sorts a mapped array with an LSD radix sort, the same way RadixSorts.radixSort sorts an int[].
+     * One pass counts all four digits, then each digit moves every int once, skipping a digit that is
+     * the same in every int.
+     * @param a the array to sort
+     * @param scratch a file to use as scratch space; it is created and deleted by the sort
+     * @return the metrics for this sort
+     * @throws IOException if the scratch file cannot be created
+     */
+    public static SortMetrics radixSort(MappedIntArray a, Path scratch) throws IOException {
+        SortMetrics metrics = new SortMetrics(); // the statistics for this sort
+        metrics.recordDepth(1);
+        long start = System.nanoTime();
+        long n = a.length();
+        try {
+            MappedIntArray buffer = MappedIntArray.createScratch(scratch, n);
+
+            // count every digit of every key in one pass over the array
+            long[][] counts = new long[Integer.BYTES][RADIX];
+            for(long i = 0; i < n; i++){
+                int key = a.get(i);
+                counts[0][key & DIGIT_MASK]++;
+                counts[1][(key >>> 8) & DIGIT_MASK]++;
+                counts[2][(key >>> 16) & DIGIT_MASK]++;
+                // flipping the sign bit puts negative keys before positive ones
+                counts[3][((key >>> 24) ^ 0x80) & DIGIT_MASK]++;
+            }// end for
+
+            MappedIntArray source = a; // the array holding the keys before this pass
+            MappedIntArray destination = buffer; // the array receiving the keys in this pass
+            for(int pass = 0; pass < Integer.BYTES; pass++){
+                long[] count = counts[pass];
+                int shift = pass * DIGIT_BITS; // where this digit starts in the key
+                int flip = pass == Integer.BYTES - 1 ? 0x80 : 0; // sign bit fix for the top digit
+
+                // if every key has the same digit, this pass would not move anything
+                if(n == 0 || count[((source.get(0) >>> shift) ^ flip) & DIGIT_MASK] == n){
+                    continue;
+                }// end if
+
+                // turn the counts into the starting position for each digit
+                long position = 0;
+                for(int digit = 0; digit < RADIX; digit++){
+                    long c = count[digit];
+                    count[digit] = position;
+                    position += c;
+                }// end for
+
+                // distribute the keys by this digit, keeping keys with the same digit in order
+                for(long i = 0; i < n; i++){
+                    int key = source.get(i);
+                    destination.set(count[((key >>> shift) ^ flip) & DIGIT_MASK]++, key);
+                }// end for
+                metrics.addMoves(n);
+
+                // the keys are now in destination, so swap roles for the next pass
+                MappedIntArray temp = source;
+                source = destination;
+                destination = temp;
+            }// end for
+
+            // an odd number of passes leaves the result in the scratch array
+            if(source != a){
+                source.copyTo(0, a, 0, n);
+                metrics.addMoves(n);
+            }// end if
+        } finally {
+            MappedIntArray.delete(scratch);
+        }// end finally
+        metrics.setElapsedNanos(System.nanoTime() - start);
+        return metrics;
+    }// end radixSort
+
+    /**
+     * Picks a scratch file next to the file being sorted, so it is on the same disk
+     * @param file the file being sorted
+     * @return a new empty file in the same directory
+     * @throws IOException if the file cannot be created
+     */
+    private static Path scratchFile(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        return Files.createTempFile(directory, "sort-scratch-", ".bin");
+    }// end scratchFile
+
+    /**
+     * Introsorts the range [l, r]: partitions around a median-of-three or ninther pivot, recursing into
+     * the smaller side and looping on the larger one, and heap sorts a range once depthLimit partitions
+     * have not finished it
+     * @param a the array to sort
+     * @param l the left index
+     * @param r the right index
+     * @param metrics the statistics for this sort
+     * @param depth the depth of this call, where the first call is depth 1
+     * @param depthLimit the number of partitioning levels left before switching to heap sort
+     */
+    private static void introSort(MappedIntArray a, long l, long r, SortMetrics metrics, int depth, int depthLimit){
+        metrics.recordDepth(depth);
+        while(r - l + 1 > INSERTION_CUTOFF){
+            // too many levels of partitioning means the pivots are bad, so heap sort the rest
+            if(depthLimit == 0){
+                heapSort(a, l, r, metrics);
+                return;
+            }// end if
+            depthLimit--;
+
+            choosePivot(a, l, r, metrics);
+            long s = partition(a, l, r, metrics);
+
+            // recurse into the smaller side, loop on the larger side
+            if(s - l < r - s){
+                introSort(a, l, s - 1, metrics, depth + 1, depthLimit);
+                l = s + 1;
+            }
+            else {
+                introSort(a, s + 1, r, metrics, depth + 1, depthLimit);
+                r = s - 1;
+            }// end else
+        }// end while
+        insertionSort(a, l, r, metrics);
+    }// end introSort
+
+    /**
+     * Partitions [l, r] around the pivot in a[l] with Hoare's scheme, like SortingAlgorithms2.partition
+     * @param a the array
+     * @param l the left index
+     * @param r the right index
+     * @param metrics the statistics for the sort
+     * @return the final index of the pivot
+     */
+    private static long partition(MappedIntArray a, long l, long r, SortMetrics metrics){
+        int p = a.get(l); // the pivot
+        long i = l;
+        long j = r + 1;
+        while(true){
+            do {
+                i++;
+                metrics.addComparison();
+            } while(i <= r && a.get(i) < p);
+            do {
+                j--;
+                metrics.addComparison();
+            } while(j >= l && a.get(j) > p);
+            if(i >= j){
+                break;
+            }// end if
+            a.swap(i, j);
+            metrics.addSwap();
+        }// end while
+        // put the pivot between the two sides
+        a.swap(l, j);
+        metrics.addSwap();
+        return j;
+    }// end partition
+
+    /**
+     * Moves the median of three samples (or Tukey's ninther, for large ranges) to a[l]
+     * @param a the array
+     * @param l the left index
+     * @param r the right index
+     * @param metrics the statistics for the sort
+     */
+    private static void choosePivot(MappedIntArray a, long l, long r, SortMetrics metrics){
+        long size = r - l + 1; // number of elements in the range
+        long middle = l + (r - l) / 2; // middle index of the range
+        long pivot; // index of the chosen pivot
+        if(size > NINTHER_THRESHOLD){
+            long step = size / 8; // distance between the samples
+            long first = medianOfThree(a, l, l + step, l + 2 * step, metrics);
+            long second = medianOfThree(a, middle - step, middle, middle + step, metrics);
+            long third = medianOfThree(a, r - 2 * step, r - step, r, metrics);
+            pivot = medianOfThree(a, first, second, third, metrics);
+        }
+        else {
+            pivot = medianOfThree(a, l, middle, r, metrics);
+        }// end else
+        a.swap(l, pivot);
+        metrics.addSwap();
+    }// end choosePivot
+
+    /**
+     * Finds which of three positions holds the median of their values
+     * @param a the array
+     * @param i the first position
+     * @param j the second position
+     * @param k the third position
+     * @param metrics the statistics for the sort
+     * @return the position of the median value
+     */
+    private static long medianOfThree(MappedIntArray a, long i, long j, long k, SortMetrics metrics){
+        int x = a.get(i), y = a.get(j), z = a.get(k);
+        metrics.addComparisons(3);
+        if(x < y){
+            return y < z ? j : (x < z ? k : i);
+        }// end if
+        return x < z ? i : (y < z ? k : j);
+    }// end medianOfThree
+
+    /**
+     * Heap sorts the range [l, r], the fallback when partitioning is not making progress
+     * @param a the array to sort
+     * @param l the left index
+     * @param r the right index
+     * @param metrics the statistics for the sort
+     */
+    private static void heapSort(MappedIntArray a, long l, long r, SortMetrics metrics){
+        long n = r - l + 1; // number of elements in the heap
+        // build a max-heap out of the range
+        for(long i = n / 2 - 1; i >= 0; i--){
+            siftDown(a, l, i, n, metrics);
+        }// end for
+        // repeatedly move the largest element to the end and shrink the heap
+        for(long end = n - 1; end > 0; end--){
+            a.swap(l, l + end);
+            metrics.addSwap();
+            siftDown(a, l, 0, end, metrics);
+        }// end for
+    }// end heapSort
+
+    /**
+     * Moves the element at heap position i down until it is larger than both of its children
+     * @param a the array holding the heap
+     * @param offset the array index of heap position 0
+     * @param i the heap position to sift down
+     * @param n the number of elements in the heap
+     * @param metrics the statistics for the sort
+     */
+    private static void siftDown(MappedIntArray a, long offset, long i, long n, SortMetrics metrics){
+        int value = a.get(offset + i); // the element being moved down
+        while(2 * i + 1 < n){
+            long child = 2 * i + 1; // the left child
+            // use the right child if it is larger
+            if(child + 1 < n){
+                metrics.addComparison();
+                if(a.get(offset + child + 1) > a.get(offset + child)){
+                    child++;
+                }// end if
+            }// end if
+            metrics.addComparison();
+            if(value >= a.get(offset + child)){
+                break;
+            }// end if
+            a.set(offset + i, a.get(offset + child));
+            metrics.addMove();
+            i = child;
+        }// end while
+        a.set(offset + i, value);
+        metrics.addMove();
+    }// end siftDown
+
+    /**
+     * Insertion sorts the range [l, r]
+     * @param a the array to sort
+     * @param l the left index
+     * @param r the right index
+     * @param metrics the statistics for the sort
+     */
+    private static void insertionSort(MappedIntArray a, long l, long r, SortMetrics metrics){
+        for(long i = l + 1; i <= r; i++){
+            int key = a.get(i); // the element being inserted
+            long j = i - 1;
+            // shift larger elements one place right
+            while(j >= l){
+                metrics.addComparison();
+                int x = a.get(j);
+                if(x <= key){
+                    break;
+                }// end if
+                a.set(j + 1, x);
+                metrics.addMove();
+                j--;
+            }// end while
+            a.set(j + 1, key);
+            metrics.addMove();
+        }// end for
+    }// end insertionSort
+
+    /**
+     * Merges the sorted ranges [lo, middle) and [middle, hi) of source into [lo, hi) of destination
+     * @param source the array holding the two sorted ranges
+     * @param destination the array that receives the merged range
+     * @param lo the first index of the left range
+     * @param middle the first index of the right range
+     * @param hi one past the last index of the right range
+     * @param metrics the statistics for the sort
+     */
+    private static void mergeRuns(MappedIntArray source, MappedIntArray destination, long lo, long middle,
+            long hi, SortMetrics metrics){
+        long i = lo; // index for left half position
+        long j = middle; // index for right half position
+        long k = lo; // index for destination position
+        if(i < middle && j < hi){
+            int left = source.get(i);
+            int right = source.get(j);
+            // while both halves have elements, insert the smaller one (the left one on ties, to stay stable)
+            while(true){
+                metrics.addComparison();
+                if(left <= right){
+                    destination.set(k++, left);
+                    if(++i == middle){
+                        break;
+                    }// end if
+                    left = source.get(i);
+                }
+                else {
+                    destination.set(k++, right);
+                    if(++j == hi){
+                        break;
+                    }// end if
+                    right = source.get(j);
+                }// end else
+            }// end while
+        }// end if
+        // copy whichever half still has elements left
+        source.copyTo(i, destination, k, middle - i);
+        source.copyTo(j, destination, k + (middle - i), hi - j);
+        metrics.addMoves(hi - lo);
+    }// end mergeRuns
+}// end class MappedSorts
@@ -0,0 +1,150 @@
+/**
+ *
+ * @author Blake Mills
+ * COSC 3325 - Stable sorting of (key, index) pairs
+ *
+ * The purpose of this class is to sort records by an int key stably without the extra copies a
+ * stable Merge sort makes at every level. Each record is packed into one long: the key in the high
+ * 32 bits and the record's index in the low 32 bits. Because indexes are never negative, comparing two
+ * packed longs compares their keys first and then their indexes, so sorting the longs by value puts
+ * records with the same key in index order. If the indexes start out as the records' original positions,
+ * that is exactly the order a stable sort would give, even when the sort itself is not stable.
+ *
+ *   sort(pairs)           introsort (PrimitiveSorts) on the whole packed values, in place. It allocates
+ *                         nothing, and is stable as long as every index is different.
+ *   sort(pairs, scratch)  LSD radix sort on the 4 key bytes only, so it is stable whatever the indexes
+ *                         are. It takes O(n) time and its only extra memory is the caller's scratch
+ *                         array, which can be reused between sorts.
+ *   stableOrder(keys)     the order a stable sort would put the keys in, as a list of indexes.
+ */
+public class PairSorts {
+    private static final int RADIX = 256; // number of buckets per radix digit
+    private static final int DIGIT_BITS = 8; // bits per radix digit
+    private static final int DIGIT_MASK = RADIX - 1; // mask for one radix digit
+    private static final long INDEX_MASK = 0xFFFFFFFFL; // the low 32 bits, which hold the index
+
+    /**
+     * Packs a key and a record index into one long
+     * @param key the key to sort by
+     * @param index the record's index, which must not be negative
+     * @return the packed pair
+     */
+    public static long pack(int key, int index){
+        return ((long) key << 32) | index;
+    }// end pack
+
+    /**
+     * @param pair a packed pair
+     * @return its key
+     */
+    public static int key(long pair){
+        return (int) (pair >> 32);
+    }// end key
+
+    /**
+     * @param pair a packed pair
+     * @return its record index
+     */
+    public static int index(long pair){
+        return (int) (pair & INDEX_MASK);
+    }// end index
+
+    /**
+     * Sorts packed pairs in place by key and then by index, without allocating anything. This is a stable
+     * sort by key when no two pairs have the same index.
+     * @param pairs the packed pairs
+     * @return the metrics for this sort
+     */
+    public static SortMetrics sort(long[] pairs){
+        return PrimitiveSorts.performIntroSort(pairs);
+    }// end sort
+
+    /**
+     * Stably sorts packed pairs by key only, with an LSD radix sort over the key's four bytes. Pairs with
+     * the same key keep the order they had, whatever their indexes are.
+     * @param pairs the packed pairs
+     * @param scratch a buffer at least as long as pairs; its contents are overwritten
+     * @return the metrics for this sort
+     */
+    public static SortMetrics sort(long[] pairs, long[] scratch){
+        if(scratch.length < pairs.length){
+            throw new IllegalArgumentException("Scratch buffer holds " + scratch.length
+                    + " elements but there are " + pairs.length + " pairs");
+        }// end if
+        SortMetrics metrics = new SortMetrics(); // the statistics for this sort
+        metrics.recordDepth(1);
+        long start = System.nanoTime();
+        int n = pairs.length; // number of pairs
+
+        // count every key digit of every pair in one pass
+        int[][] counts = new int[Integer.BYTES][RADIX];
+        for(int i = 0; i < n; i++){
+            int key = key(pairs[i]);
+            counts[0][key & DIGIT_MASK]++;
+            counts[1][(key >>> 8) & DIGIT_MASK]++;
+            counts[2][(key >>> 16) & DIGIT_MASK]++;
+            // flipping the sign bit puts negative keys before positive ones
+            counts[3][((key >>> 24) ^ 0x80) & DIGIT_MASK]++;
+        }// end for
+
+        long[] source = pairs; // the array holding the pairs before this pass
+        long[] destination = scratch; // the array receiving the pairs in this pass
+        for(int pass = 0; pass < Integer.BYTES; pass++){
+            int[] count = counts[pass];
+            int shift = pass * DIGIT_BITS; // where this digit starts in the key
+            int flip = pass == Integer.BYTES - 1 ? 0x80 : 0; // sign bit fix for the top digit
+
+            // if every key has the same digit, this pass would not move anything
+            if(n == 0 || count[((key(source[0]) >>> shift) ^ flip) & DIGIT_MASK] == n){
+                continue;
+            }// end if
+
+            // turn the counts into the starting position for each digit
+            int position = 0;
+            for(int digit = 0; digit < RADIX; digit++){
+                int c = count[digit];
+                count[digit] = position;
+                position += c;
+            }// end for
+
+            // distribute the pairs by this digit, keeping pairs with the same digit in order
+            for(int i = 0; i < n; i++){
+                long pair = source[i];
+                destination[count[((key(pair) >>> shift) ^ flip) & DIGIT_MASK]++] = pair;
+            }// end for
+            metrics.addMoves(n);
+
+            // the pairs are now in destination, so swap roles for the next pass
+            long[] temp = source;
+            source = destination;
+            destination = temp;
+        }// end for
+
+        // an odd number of passes leaves the result in the scratch buffer
+        if(source != pairs){
+            System.arraycopy(source, 0, pairs, 0, n);
+            metrics.addMoves(n);
+        }// end if
+        metrics.setElapsedNanos(System.nanoTime() - start);
+        return metrics;
+    }// end sort
+
+    /**
+     * Works out the order a stable sort would put the keys in, without moving them
+     * @param keys the keys of the records, where record i has key keys[i]
+     * @return the record indexes in sorted order; records with the same key stay in index order
+     */
+    public static int[] stableOrder(int[] keys){
+        int n = keys.length;
+        long[] pairs = new long[n];
+        for(int i = 0; i < n; i++){
+            pairs[i] = pack(keys[i], i);
+        }// end for
+        sort(pairs, new long[n]);
+        int[] order = new int[n];
+        for(int i = 0; i < n; i++){
+            order[i] = index(pairs[i]);
+        }// end for
+        return order;
+    }// end stableOrder
+}// end class PairSorts
@@ -0,0 +1,190 @@
+/**
+ *
+ * @author Blake Mills
+ * COSC 3325 - Parallel sample sort
+ *
+ * The purpose of this class is to sort an int array on many cores without the serial first
+ * partition that limits the parallel Quick sort. Instead of splitting around one pivot at a time,
+ * it splits the array into p buckets at once in five phases:
+ *
+ *   1. Sample: pick p * OVERSAMPLE random elements, sort them, and take every OVERSAMPLE-th one as
+ *      the p - 1 splitters, so each bucket gets about n / p elements.
+ *   2. Histogram: cut the array into blocks, and count how many elements of each block fall in each
+ *      bucket. Every block is counted by its own task into its own histogram, so no counts are shared.
+ *   3. Prefix sums: add up the histograms in bucket order, then block order, giving each block the
+ *      position in the buffer where its elements of each bucket start.
+ *   4. Scatter: every block copies its elements into the buffer at those positions, in parallel.
+ *   5. Sort buckets: every bucket is copied back into the array and sorted with the introsort from
+ *      SortingAlgorithms2, in parallel.
+ *
+ * A bucket's elements are all larger than the ones in the buckets before it, so after phase 5 the
+ * whole array is sorted. Finding an element's bucket takes log2(p) comparisons against the splitters
+ * (p is a power of two), done without branching on the data. Many copies of one key all land in the
+ * same bucket, so heavily duplicated input spreads less evenly over the threads.
+ */
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+public class ParallelSampleSort {
+    public static final int SEQUENTIAL_THRESHOLD = 1 << 16; // arrays this size or smaller are just introsorted
+    private static final int OVERSAMPLE = 64; // sample elements per bucket
+    private static final int MAX_BUCKETS = 1 << 12; // most buckets, so the histograms stay small
+    private static final long SAMPLE_SEED = 0x5A3D1E5L; // seed for choosing the sample, so runs repeat
+
+    /**
+     * How long each phase of the last sort took
+     */
+    public static class PhaseTimes {
+        public long sampleNanos; // choosing the splitters
+        public long histogramNanos; // counting each block's bucket sizes
+        public long prefixSumNanos; // turning the counts into positions
+        public long scatterNanos; // copying elements into their buckets
+        public long bucketSortNanos; // copying the buckets back and sorting them
+
+        @Override
+        public String toString(){
+            return String.format("sample=%.1fms histogram=%.1fms prefix=%.1fms scatter=%.1fms buckets=%.1fms",
+                    sampleNanos / 1e6, histogramNanos / 1e6, prefixSumNanos / 1e6, scatterNanos / 1e6,
+                    bucketSortNanos / 1e6);
+        }// end toString
+    }// end PhaseTimes
+
+    /**
+     * Sorts the array with a parallel sample sort on the common ForkJoinPool
+     * @param array the array to sort
+     * @return the metrics for this sort
+     */
+    public static SortMetrics parallelSampleSort(int[] array){
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        return parallelSampleSort(array, pool, defaultBuckets(pool.getParallelism()), new PhaseTimes());
+    }// end parallelSampleSort
+
+    /**
+     * Works out a bucket count for a number of threads: four buckets per thread, so a thread that finishes
+     * a small bucket can take another, rounded up to a power of two
+     * @param parallelism the number of threads
+     * @return the number of buckets
+     */
+    public static int defaultBuckets(int parallelism){
+        return Math.min(MAX_BUCKETS, Integer.highestOneBit(Math.max(1, 4 * parallelism - 1)) * 2);
+    }// end defaultBuckets
+
+    /**
+     * Sorts the array with a parallel sample sort
+     * @param array the array to sort
+     * @param pool the pool whose threads do the sorting
+     * @param buckets the number of buckets, rounded up to a power of two between 2 and 4096
+     * @param times receives the time taken by each phase
+     * @return the metrics for this sort
+     */
+    public static SortMetrics parallelSampleSort(int[] array, ForkJoinPool pool, int buckets, PhaseTimes times){
+        SortMetrics metrics = new SortMetrics(); // the statistics for this sort
+        long start = System.nanoTime();
+        int n = array.length;
+        if(n <= SEQUENTIAL_THRESHOLD){
+            SortingAlgorithms2.introSort(array, 0, n - 1, metrics, 1, 2 * SortingAlgorithms2.log2(n));
+            times.bucketSortNanos = System.nanoTime() - start;
+            metrics.setElapsedNanos(times.bucketSortNanos);
+            return metrics;
+        }// end if
+        int p = Math.min(MAX_BUCKETS, Math.max(2, Integer.highestOneBit(buckets - 1) * 2)); // number of buckets
+        int levels = Integer.numberOfTrailingZeros(p); // comparisons to find a bucket
+        int blocks = 4 * pool.getParallelism(); // pieces of the array counted and scattered separately
+        int blockSize = (n + blocks - 1) / blocks;
+        metrics.recordDepth(2);
+
+        // phase 1: sort a sample and take evenly spaced elements as the splitters
+        long phase = System.nanoTime();
+        int[] sample = new int[p * OVERSAMPLE];
+        SplittableRandom random = new SplittableRandom(SAMPLE_SEED);
+        for(int i = 0; i < sample.length; i++){
+            sample[i] = array[random.nextInt(n)];
+        }// end for
+        SortingAlgorithms2.introSort(sample, 0, sample.length - 1, metrics, 1, 2 * SortingAlgorithms2.log2(sample.length));
+        // splitters[1 .. p - 1] are the splitters; splitters[0] is never read
+        int[] splitters = new int[p];
+        for(int b = 1; b < p; b++){
+            splitters[b] = sample[b * OVERSAMPLE];
+        }// end for
+        times.sampleNanos = System.nanoTime() - phase;
+
+        // phase 2: count each block's elements per bucket, one histogram per block
+        phase = System.nanoTime();
+        int[][] counts = new int[blocks][p];
+        pool.submit(() -> IntStream.range(0, blocks).parallel().forEach(block -> {
+            int[] count = counts[block];
+            for(int i = block * blockSize, end = Math.min(n, i + blockSize); i < end; i++){
+                count[bucketOf(array[i], splitters, p)]++;
+            }// end for
+        })).join();
+        metrics.addComparisons((long) n * levels);
+        times.histogramNanos = System.nanoTime() - phase;
+
+        // phase 3: turn the counts into starting positions, bucket by bucket and block by block
+        phase = System.nanoTime();
+        int[] bucketStart = new int[p + 1]; // bucketStart[b] is where bucket b begins; bucketStart[p] is n
+        int position = 0;
+        for(int b = 0; b < p; b++){
+            bucketStart[b] = position;
+            for(int block = 0; block < blocks; block++){
+                int c = counts[block][b];
+                counts[block][b] = position;
+                position += c;
+            }// end for
+        }// end for
+        bucketStart[p] = n;
+        times.prefixSumNanos = System.nanoTime() - phase;
+
+        // phase 4: every block copies its elements to their bucket's next free position in the buffer
+        phase = System.nanoTime();
+        int[] buffer = new int[n];
+        pool.submit(() -> IntStream.range(0, blocks).parallel().forEach(block -> {
+            int[] next = counts[block];
+            for(int i = block * blockSize, end = Math.min(n, i + blockSize); i < end; i++){
+                int x = array[i];
+                buffer[next[bucketOf(x, splitters, p)]++] = x;
+            }// end for
+        })).join();
+        metrics.addComparisons((long) n * levels);
+        metrics.addMoves(n);
+        times.scatterNanos = System.nanoTime() - phase;
+
+        // phase 5: copy every bucket back and sort it, each bucket in its own task
+        phase = System.nanoTime();
+        SortMetrics[] bucketMetrics = new SortMetrics[p];
+        pool.submit(() -> IntStream.range(0, p).parallel().forEach(b -> {
+            int from = bucketStart[b];
+            int length = bucketStart[b + 1] - from;
+            SortMetrics bucket = new SortMetrics();
+            System.arraycopy(buffer, from, array, from, length);
+            bucket.addMoves(length);
+            SortingAlgorithms2.introSort(array, from, from + length - 1, bucket, 2, 2 * SortingAlgorithms2.log2(length));
+            bucketMetrics[b] = bucket;
+        })).join();
+        for(SortMetrics bucket : bucketMetrics){
+            metrics.add(bucket);
+        }// end for
+        times.bucketSortNanos = System.nanoTime() - phase;
+
+        metrics.setElapsedNanos(System.nanoTime() - start);
+        return metrics;
+    }// end parallelSampleSort
+
+    /**
+     * Finds which bucket a value belongs in, which is the number of splitters less than or equal to it.
+     * The splitters are searched like a binary tree, adding each step to the bucket number when the
+     * value is at least the splitter there, so the data never decides a branch.
+     * @param x the value
+     * @param splitters the sorted splitters in positions 1 to p - 1
+     * @param p the number of buckets, a power of two
+     * @return the bucket number, from 0 to p - 1
+     */
+    private static int bucketOf(int x, int[] splitters, int p){
+        int bucket = 0;
+        for(int step = p >>> 1; step > 0; step >>>= 1){
+            bucket += x >= splitters[bucket + step] ? step : 0;
+        }// end for
+        return bucket;
+    }// end bucketOf
+}// end class ParallelSampleSort
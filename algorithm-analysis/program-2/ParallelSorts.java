@@ -0,0 +1,272 @@
+/**
+ *
+ * @author Blake Mills
+ * COSC 3325 - Parallel sorting
+ *
+ * The purpose of this class is to run the Merge sort and Quick sort from SortingAlgorithms2 on
+ * more than one core. Both sorts split their range in two, and when a range is larger than the
+ * parallel cutoff the two halves are handed to a ForkJoinPool as separate RecursiveActions so
+ * idle threads can steal them. Ranges at or below the cutoff are sorted on the current thread
+ * with the same recursion, and ranges of INSERTION_CUTOFF elements or fewer are finished with
+ * SortingAlgorithms2's insertion sort, or a sorting network if they have 16 elements or fewer.
+ *
+ * The parallel Quick sort picks its pivots and limits its depth like introSort: choosePivot moves a
+ * median-of-three or ninther pivot into place before each partition, only the smaller partition is
+ * handed off (forked or recursed into) while the larger one is looped on, and a range that is still being
+ * partitioned after 2*log2(n) levels is heap sorted. Sorted and reversed input therefore neither goes
+ * quadratic nor overflows a worker thread's stack.
+ *
+ * The steps (pivot choice, partition, merge, heap sort and insertion sort) are the ones from SortingAlgorithms2. Every
+ * task counts into its own SortMetrics, and a task adds its children's metrics into its own after
+ * they have finished, so the totals are exact no matter how many threads are sorting.
+ */
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class ParallelSorts {
+    public static final int DEFAULT_PARALLEL_CUTOFF = 8192; // ranges this size or smaller are not split into new tasks
+    public static final int INSERTION_CUTOFF = 32; // ranges this size or smaller are sorted by sortSmallRange
+
+    /**
+     * Sorts the array with a parallel Merge sort on the common ForkJoinPool using the default cutoff
+     * @param array the array to sort
+     * @return the metrics for this sort
+     */
+    public static SortMetrics parallelMergeSort(int[] array){
+        return parallelMergeSort(array, ForkJoinPool.commonPool(), DEFAULT_PARALLEL_CUTOFF);
+    }// end parallelMergeSort
+
+    /**
+     * Sorts the array with a parallel Merge sort. Like performBufferedMergeSort it allocates a
+     * single buffer and alternates between the buffer and the array at each level.
+     * @param array the array to sort
+     * @param pool the pool whose threads do the sorting
+     * @param cutoff ranges with this many elements or fewer are sorted without creating new tasks
+     * @return the metrics for this sort
+     */
+    public static SortMetrics parallelMergeSort(int[] array, ForkJoinPool pool, int cutoff){
+        long start = System.nanoTime();
+        // the one buffer for the whole sort, starting as a copy of the array
+        int[] buffer = array.clone();
+        MergeSortTask task = new MergeSortTask(buffer, array, 0, array.length, Math.max(cutoff, INSERTION_CUTOFF), 1);
+        pool.invoke(task);
+        task.metrics.addMoves(array.length);
+        task.metrics.setElapsedNanos(System.nanoTime() - start);
+        return task.metrics;
+    }// end parallelMergeSort
+
+    /**
+     * Sorts the array with a parallel Quick sort on the common ForkJoinPool using the default cutoff
+     * @param array the array to sort
+     * @return the metrics for this sort
+     */
+    public static SortMetrics parallelQuickSort(int[] array){
+        return parallelQuickSort(array, ForkJoinPool.commonPool(), DEFAULT_PARALLEL_CUTOFF);
+    }// end parallelQuickSort
+
+    /**
+     * Sorts the array with a parallel Quick sort. The array is partitioned the same way as
+     * quickSort, and the two partitions are then sorted at the same time.
+     * @param array the array to sort
+     * @param pool the pool whose threads do the sorting
+     * @param cutoff ranges with this many elements or fewer are sorted without creating new tasks
+     * @return the metrics for this sort
+     */
+    public static SortMetrics parallelQuickSort(int[] array, ForkJoinPool pool, int cutoff){
+        long start = System.nanoTime();
+        QuickSortTask task = new QuickSortTask(array, 0, array.length - 1, Math.max(cutoff, INSERTION_CUTOFF), 1,
+                2 * SortingAlgorithms2.log2(array.length));
+        pool.invoke(task);
+        task.metrics.setElapsedNanos(System.nanoTime() - start);
+        return task.metrics;
+    }// end parallelQuickSort
+
+    /**
+     * Sorts the range [lo, hi) of source into destination, where both arrays hold the same
+     * elements in that range to begin with.
+     */
+    private static class MergeSortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int[] source; // the array to merge from
+        private final int[] destination; // the array that receives the sorted range
+        private final int lo; // the first index of the range
+        private final int hi; // one past the last index of the range
+        private final int cutoff; // ranges this size or smaller stay on this thread
+        private final int depth; // the recursion depth of this task
+        private final SortMetrics metrics = new SortMetrics(); // the statistics for this task and its children
+
+        MergeSortTask(int[] source, int[] destination, int lo, int hi, int cutoff, int depth){
+            this.source = source;
+            this.destination = destination;
+            this.lo = lo;
+            this.hi = hi;
+            this.cutoff = cutoff;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute(){
+            // small enough to not be worth splitting into more tasks
+            if(hi - lo <= cutoff){
+                sequentialMergeSort(source, destination, lo, hi, metrics, depth);
+                return;
+            }
+            metrics.recordDepth(depth);
+            int middle = lo + (hi - lo) / 2; // split point
+
+            // sort both halves of destination into source at the same time
+            MergeSortTask left = new MergeSortTask(destination, source, lo, middle, cutoff, depth + 1);
+            MergeSortTask right = new MergeSortTask(destination, source, middle, hi, cutoff, depth + 1);
+            invokeAll(left, right);
+            metrics.add(left.metrics);
+            metrics.add(right.metrics);
+            // merge the two sorted halves back into destination
+            SortingAlgorithms2.mergeRuns(source, destination, lo, middle, hi, metrics);
+        }
+    }// end MergeSortTask
+
+    /**
+     * The single-threaded part of the parallel Merge sort. It works like the buffered Merge sort, except
+     * that small ranges are sorted in place in destination by sortSmallRange.
+     * @param source the array to merge from
+     * @param destination the array that receives the sorted range
+     * @param lo the first index of the range
+     * @param hi one past the last index of the range
+     * @param metrics the statistics for the task doing the sort
+     * @param depth the recursion depth of this call
+     */
+    private static void sequentialMergeSort(int[] source, int[] destination, int lo, int hi, SortMetrics metrics, int depth){
+        metrics.recordDepth(depth);
+        // small ranges are sorted where they need to end up
+        if(hi - lo <= INSERTION_CUTOFF){
+            sortSmallRange(destination, lo, hi - 1, metrics);
+            return;
+        }
+        int middle = lo + (hi - lo) / 2; // split point
+
+        // sort each half of destination into source, then merge them back
+        sequentialMergeSort(destination, source, lo, middle, metrics, depth + 1);
+        sequentialMergeSort(destination, source, middle, hi, metrics, depth + 1);
+        SortingAlgorithms2.mergeRuns(source, destination, lo, middle, hi, metrics);
+    }// end sequentialMergeSort
+
+    /**
+     * Quick sorts the range from l to r (inclusive) of the array. Each partition forks a task for the
+     * smaller side and keeps partitioning the larger side itself.
+     */
+    private static class QuickSortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int[] a; // the array to sort
+        private final int l; // the left index
+        private final int r; // the right index
+        private final int cutoff; // ranges this size or smaller stay on this thread
+        private final int depth; // the recursion depth of this task
+        private final int depthLimit; // partitioning levels left before switching to heap sort
+        private final SortMetrics metrics = new SortMetrics(); // the statistics for this task and its children
+
+        QuickSortTask(int[] a, int l, int r, int cutoff, int depth, int depthLimit){
+            this.a = a;
+            this.l = l;
+            this.r = r;
+            this.cutoff = cutoff;
+            this.depth = depth;
+            this.depthLimit = depthLimit;
+        }
+
+        @Override
+        protected void compute(){
+            metrics.recordDepth(depth);
+            int lo = l; // the left index of the part still to sort
+            int hi = r; // the right index of the part still to sort
+            int limit = depthLimit; // levels left for the part still to sort
+            List<QuickSortTask> forked = new ArrayList<>(); // the smaller sides handed to other threads
+            // keep splitting until what is left is small enough to not be worth more tasks
+            while(hi - lo + 1 > cutoff){
+                // too many levels of partitioning means the pivots are bad, so heap sort the rest
+                if(limit == 0){
+                    SortingAlgorithms2.heapSort(a, lo, hi, metrics);
+                    lo = hi + 1;
+                    break;
+                }// end if
+                limit--;
+                SortingAlgorithms2.choosePivot(a, lo, hi, metrics);
+                int s = SortingAlgorithms2.partition(a, lo, hi, metrics);
+                // fork the smaller side, loop on the larger side
+                QuickSortTask smaller;
+                if(s - lo < hi - s){
+                    smaller = new QuickSortTask(a, lo, s - 1, cutoff, depth + 1, limit);
+                    lo = s + 1;
+                }
+                else {
+                    smaller = new QuickSortTask(a, s + 1, hi, cutoff, depth + 1, limit);
+                    hi = s - 1;
+                }// end else
+                smaller.fork();
+                forked.add(smaller);
+            }// end while
+            if(lo < hi){
+                sequentialQuickSort(a, lo, hi, metrics, depth, limit);
+            }// end if
+            for(QuickSortTask task : forked){
+                task.join();
+                metrics.add(task.metrics);
+            }// end for
+        }
+    }// end QuickSortTask
+
+    /**
+     * The single-threaded part of the parallel Quick sort. It works like introSort, except that
+     * small ranges are sorted by sortSmallRange.
+     * @param a the array to sort
+     * @param l the left index
+     * @param r the right index
+     * @param metrics the statistics for the task doing the sort
+     * @param depth the recursion depth of this call
+     * @param depthLimit the number of partitioning levels left before switching to heap sort
+     */
+    private static void sequentialQuickSort(int[] a, int l, int r, SortMetrics metrics, int depth, int depthLimit){
+        metrics.recordDepth(depth);
+        // keep partitioning while the range is too big for sortSmallRange
+        while(r - l + 1 > INSERTION_CUTOFF){
+            // too many levels of partitioning means the pivots are bad, so heap sort the rest
+            if(depthLimit == 0){
+                SortingAlgorithms2.heapSort(a, l, r, metrics);
+                return;
+            }// end if
+            depthLimit--;
+            SortingAlgorithms2.choosePivot(a, l, r, metrics);
+            int s = SortingAlgorithms2.partition(a, l, r, metrics);
+            // recurse into the smaller side, loop on the larger side
+            if(s - l < r - s){
+                sequentialQuickSort(a, l, s - 1, metrics, depth + 1, depthLimit);
+                l = s + 1;
+            }
+            else {
+                sequentialQuickSort(a, s + 1, r, metrics, depth + 1, depthLimit);
+                r = s - 1;
+            }// end else
+        }// end while
+        if(l < r){
+            sortSmallRange(a, l, r, metrics);
+        }// end if
+    }// end sequentialQuickSort
+
+    /**
+     * Sorts a range of at most INSERTION_CUTOFF elements, using a branch-free sorting network when it is
+     * small enough and insertion sort otherwise
+     * @param a the array to sort
+     * @param l the left index
+     * @param r the right index
+     * @param metrics the statistics for the task doing the sort
+     */
+    private static void sortSmallRange(int[] a, int l, int r, SortMetrics metrics){
+        if(r - l + 1 <= SortingNetworks.MAX_SIZE){
+            SortingNetworks.sort(a, l, r, metrics);
+        }
+        else {
+            SortingAlgorithms2.insertionSort(a, l, r, metrics);
+        }// end else
+    }// end sortSmallRange
+}// end class ParallelSorts
@@ -0,0 +1,701 @@
+/**
+ *
+ * @author Blake Mills
+ * COSC 3325 - Sorting other primitive types
+ *
+ * The purpose of this class is to provide the insertion sort, buffered Merge sort and introsort
+ * from SortingAlgorithms2 for long[] and double[] arrays, and for index arrays. An index sort
+ * puts a permutation of record numbers in order using a Sorter.IndexComparator, which compares
+ * two records by number (for example by looking them up in parallel arrays of fields), so records
+ * can be sorted without boxing their keys into Integer or Double or building Comparator objects.
+ *
+ * Each method is a copy of the int[] version in SortingAlgorithms2 with the element type changed,
+ * and counts the same SortMetrics. Doubles are compared with Double.compare, so -0.0 sorts before
+ * 0.0 and NaN sorts after everything else, the same order Arrays.sort uses. The Merge sort is
+ * stable, so it is the one to use for index sorts that break ties by the original order.
+ */
+public class PrimitiveSorts {
+    private static final int INSERTION_CUTOFF = 16; // introsort ranges this size or smaller are insertion sorted
+
+    /**
+     * Performs an insertion sort on the array passed to it and returns its metrics
+     * @param array the array to sort
+     * @return the metrics for this sort
+     */
+    public static SortMetrics performInsertionSort(long[] array){
+        SortMetrics metrics = new SortMetrics(); // the statistics for this sort
+        metrics.recordDepth(1);
+        long start = System.nanoTime();
+        insertionSort(array, 0, array.length - 1, metrics);
+        metrics.setElapsedNanos(System.nanoTime() - start);
+        return metrics;
+    }// end performInsertionSort
+
+    /**
+     * Performs an insertion sort on the array passed to it and returns its metrics
+     * @param array the array to sort
+     * @return the metrics for this sort
+     */
+    public static SortMetrics performInsertionSort(double[] array){
+        SortMetrics metrics = new SortMetrics(); // the statistics for this sort
+        metrics.recordDepth(1);
+        long start = System.nanoTime();
+        insertionSort(array, 0, array.length - 1, metrics);
+        metrics.setElapsedNanos(System.nanoTime() - start);
+        return metrics;
+    }// end performInsertionSort
+
+    /**
+     * Performs an insertion sort on an array of record numbers and returns its metrics
+     * @param indexes the record numbers to sort
+     * @param comparator compares two records by number
+     * @return the metrics for this sort
+     */
+    public static SortMetrics performInsertionSort(int[] indexes, Sorter.IndexComparator comparator){
+        SortMetrics metrics = new SortMetrics(); // the statistics for this sort
+        metrics.recordDepth(1);
+        long start = System.nanoTime();
+        insertionSort(indexes, 0, indexes.length - 1, comparator, metrics);
+        metrics.setElapsedNanos(System.nanoTime() - start);
+        return metrics;
+    }// end performInsertionSort
+
+    /**
+     * Insertion sorts the elements from index l to index r (inclusive)
+     * @param array the array to sort
+     * @param l the left index
+     * @param r the right index
+     * @param metrics the statistics for the sort
+     */
+    private static void insertionSort(long[] array, int l, int r, SortMetrics metrics){
+        for(int i = l + 1; i <= r; i++){
+            long key = array[i]; // the element being inserted
+            int j = i - 1;
+            // shift larger elements right until the key's place is found
+            while(j >= l){
+                metrics.addComparison();
+                if(array[j] > key){
+                    array[j + 1] = array[j];
+                    metrics.addMove();
+                    j--;
+                }
+                else {
+                    break;
+                }// end else
+            }// end while
+            array[j + 1] = key;
+            metrics.addMove();
+        }// end for
+    }// end insertionSort
+
+    /**
+     * Insertion sorts the elements from index l to index r (inclusive)
+     * @param array the array to sort
+     * @param l the left index
+     * @param r the right index
+     * @param metrics the statistics for the sort
+     */
+    private static void insertionSort(double[] array, int l, int r, SortMetrics metrics){
+        for(int i = l + 1; i <= r; i++){
+            double key = array[i]; // the element being inserted
+            int j = i - 1;
+            // shift larger elements right until the key's place is found
+            while(j >= l){
+                metrics.addComparison();
+                if(Double.compare(array[j], key) > 0){
+                    array[j + 1] = array[j];
+                    metrics.addMove();
+                    j--;
+                }
+                else {
+                    break;
+                }// end else
+            }// end while
+            array[j + 1] = key;
+            metrics.addMove();
+        }// end for
+    }// end insertionSort
+
+    /**
+     * Insertion sorts the record numbers from index l to index r (inclusive)
+     * @param indexes the record numbers to sort
+     * @param l the left index
+     * @param r the right index
+     * @param comparator compares two records by number
+     * @param metrics the statistics for the sort
+     */
+    private static void insertionSort(int[] indexes, int l, int r, Sorter.IndexComparator comparator, SortMetrics metrics){
+        for(int i = l + 1; i <= r; i++){
+            int key = indexes[i]; // the record being inserted
+            int j = i - 1;
+            // shift larger records right until the key's place is found
+            while(j >= l){
+                metrics.addComparison();
+                if(comparator.compare(indexes[j], key) > 0){
+                    indexes[j + 1] = indexes[j];
+                    metrics.addMove();
+                    j--;
+                }
+                else {
+                    break;
+                }// end else
+            }// end while
+            indexes[j + 1] = key;
+            metrics.addMove();
+        }// end for
+    }// end insertionSort
+
+    /**
+     * Performs a stable Merge sort with one buffer, like SortingAlgorithms2.performBufferedMergeSort
+     * @param array the array to sort
+     * @return the metrics for this sort
+     */
+    public static SortMetrics performMergeSort(long[] array){
+        SortMetrics metrics = new SortMetrics(); // the statistics for this sort
+        metrics.recordDepth(1);
+        long start = System.nanoTime();
+        if(array.length > 1){
+            long[] buffer = array.clone();
+            metrics.addMoves(array.length);
+            mergeSort(buffer, array, 0, array.length, metrics, 1);
+        }// end if
+        metrics.setElapsedNanos(System.nanoTime() - start);
+        return metrics;
+    }// end performMergeSort
+
+    /**
+     * Performs a stable Merge sort with one buffer, like SortingAlgorithms2.performBufferedMergeSort
+     * @param array the array to sort
+     * @return the metrics for this sort
+     */
+    public static SortMetrics performMergeSort(double[] array){
+        SortMetrics metrics = new SortMetrics(); // the statistics for this sort
+        metrics.recordDepth(1);
+        long start = System.nanoTime();
+        if(array.length > 1){
+            double[] buffer = array.clone();
+            metrics.addMoves(array.length);
+            mergeSort(buffer, array, 0, array.length, metrics, 1);
+        }// end if
+        metrics.setElapsedNanos(System.nanoTime() - start);
+        return metrics;
+    }// end performMergeSort
+
+    /**
+     * Performs a stable Merge sort on an array of record numbers, so records that compare equal stay
+     * in the order they started in
+     * @param indexes the record numbers to sort
+     * @param comparator compares two records by number
+     * @return the metrics for this sort
+     */
+    public static SortMetrics performMergeSort(int[] indexes, Sorter.IndexComparator comparator){
+        SortMetrics metrics = new SortMetrics(); // the statistics for this sort
+        metrics.recordDepth(1);
+        long start = System.nanoTime();
+        if(indexes.length > 1){
+            int[] buffer = indexes.clone();
+            metrics.addMoves(indexes.length);
+            mergeSort(buffer, indexes, 0, indexes.length, comparator, metrics, 1);
+        }// end if
+        metrics.setElapsedNanos(System.nanoTime() - start);
+        return metrics;
+    }// end performMergeSort
+
+    /**
+     * Sorts the range [lo, hi) of source into destination, swapping their roles at each level
+     * @param source the array to merge from
+     * @param destination the array that receives the sorted range
+     * @param lo the first index of the range
+     * @param hi one past the last index of the range
+     * @param metrics the statistics for the sort
+     * @param depth the depth of this call
+     */
+    private static void mergeSort(long[] source, long[] destination, int lo, int hi, SortMetrics metrics, int depth){
+        metrics.recordDepth(depth);
+        if(hi - lo <= 1){
+            return;
+        }// end if
+        int middle = lo + (hi - lo) / 2;
+        mergeSort(destination, source, lo, middle, metrics, depth + 1);
+        mergeSort(destination, source, middle, hi, metrics, depth + 1);
+
+        // merge the sorted halves from source into destination, taking from the left on ties
+        int i = lo;
+        int j = middle;
+        int k = lo;
+        while(i < middle && j < hi){
+            metrics.addComparison();
+            destination[k++] = source[i] <= source[j] ? source[i++] : source[j++];
+        }// end while
+        System.arraycopy(source, i, destination, k, middle - i);
+        System.arraycopy(source, j, destination, k + (middle - i), hi - j);
+        metrics.addMoves(hi - lo);
+    }// end mergeSort
+
+    /**
+     * Sorts the range [lo, hi) of source into destination, swapping their roles at each level
+     * @param source the array to merge from
+     * @param destination the array that receives the sorted range
+     * @param lo the first index of the range
+     * @param hi one past the last index of the range
+     * @param metrics the statistics for the sort
+     * @param depth the depth of this call
+     */
+    private static void mergeSort(double[] source, double[] destination, int lo, int hi, SortMetrics metrics, int depth){
+        metrics.recordDepth(depth);
+        if(hi - lo <= 1){
+            return;
+        }// end if
+        int middle = lo + (hi - lo) / 2;
+        mergeSort(destination, source, lo, middle, metrics, depth + 1);
+        mergeSort(destination, source, middle, hi, metrics, depth + 1);
+
+        // merge the sorted halves from source into destination, taking from the left on ties
+        int i = lo;
+        int j = middle;
+        int k = lo;
+        while(i < middle && j < hi){
+            metrics.addComparison();
+            destination[k++] = Double.compare(source[i], source[j]) <= 0 ? source[i++] : source[j++];
+        }// end while
+        System.arraycopy(source, i, destination, k, middle - i);
+        System.arraycopy(source, j, destination, k + (middle - i), hi - j);
+        metrics.addMoves(hi - lo);
+    }// end mergeSort
+
+    /**
+     * Sorts the range [lo, hi) of source into destination, swapping their roles at each level
+     * @param source the record numbers to merge from
+     * @param destination the array that receives the sorted range
+     * @param lo the first index of the range
+     * @param hi one past the last index of the range
+     * @param comparator compares two records by number
+     * @param metrics the statistics for the sort
+     * @param depth the depth of this call
+     */
+    private static void mergeSort(int[] source, int[] destination, int lo, int hi, Sorter.IndexComparator comparator,
+            SortMetrics metrics, int depth){
+        metrics.recordDepth(depth);
+        if(hi - lo <= 1){
+            return;
+        }// end if
+        int middle = lo + (hi - lo) / 2;
+        mergeSort(destination, source, lo, middle, comparator, metrics, depth + 1);
+        mergeSort(destination, source, middle, hi, comparator, metrics, depth + 1);
+
+        // merge the sorted halves from source into destination, taking from the left on ties
+        int i = lo;
+        int j = middle;
+        int k = lo;
+        while(i < middle && j < hi){
+            metrics.addComparison();
+            destination[k++] = comparator.compare(source[i], source[j]) <= 0 ? source[i++] : source[j++];
+        }// end while
+        System.arraycopy(source, i, destination, k, middle - i);
+        System.arraycopy(source, j, destination, k + (middle - i), hi - j);
+        metrics.addMoves(hi - lo);
+    }// end mergeSort
+
+    /**
+     * Performs an introsort, like SortingAlgorithms2.performIntroSort, using a median-of-three pivot
+     * @param array the array to sort
+     * @return the metrics for this sort
+     */
+    public static SortMetrics performIntroSort(long[] array){
+        SortMetrics metrics = new SortMetrics(); // the statistics for this sort
+        long start = System.nanoTime();
+        introSort(array, 0, array.length - 1, metrics, 1, 2 * SortingAlgorithms2.log2(array.length));
+        metrics.setElapsedNanos(System.nanoTime() - start);
+        return metrics;
+    }// end performIntroSort
+
+    /**
+     * Performs an introsort, like SortingAlgorithms2.performIntroSort, using a median-of-three pivot
+     * @param array the array to sort
+     * @return the metrics for this sort
+     */
+    public static SortMetrics performIntroSort(double[] array){
+        SortMetrics metrics = new SortMetrics(); // the statistics for this sort
+        long start = System.nanoTime();
+        introSort(array, 0, array.length - 1, metrics, 1, 2 * SortingAlgorithms2.log2(array.length));
+        metrics.setElapsedNanos(System.nanoTime() - start);
+        return metrics;
+    }// end performIntroSort
+
+    /**
+     * Performs an introsort on an array of record numbers. It is not stable.
+     * @param indexes the record numbers to sort
+     * @param comparator compares two records by number
+     * @return the metrics for this sort
+     */
+    public static SortMetrics performIntroSort(int[] indexes, Sorter.IndexComparator comparator){
+        SortMetrics metrics = new SortMetrics(); // the statistics for this sort
+        long start = System.nanoTime();
+        introSort(indexes, 0, indexes.length - 1, comparator, metrics, 1, 2 * SortingAlgorithms2.log2(indexes.length));
+        metrics.setElapsedNanos(System.nanoTime() - start);
+        return metrics;
+    }// end performIntroSort
+
+    /**
+     * Partitions around a median-of-three pivot, recursing into the smaller side and looping on the larger,
+     * and heap sorts the range once depthLimit runs out
+     * @param a the array to sort
+     * @param l the left index
+     * @param r the right index
+     * @param metrics the statistics for the sort
+     * @param depth the depth of this call
+     * @param depthLimit the number of partitioning levels left before switching to heap sort
+     */
+    private static void introSort(long[] a, int l, int r, SortMetrics metrics, int depth, int depthLimit){
+        metrics.recordDepth(depth);
+        while(r - l + 1 > INSERTION_CUTOFF){
+            if(depthLimit == 0){
+                heapSort(a, l, r, metrics);
+                return;
+            }// end if
+            depthLimit--;
+
+            // move the median of the first, middle and last elements to a[l] and partition around it
+            int m = l + (r - l) / 2;
+            int pivot = a[l] < a[m] ? (a[m] < a[r] ? m : (a[l] < a[r] ? r : l))
+                                    : (a[l] < a[r] ? l : (a[m] < a[r] ? r : m));
+            metrics.addComparisons(3);
+            swap(a, l, pivot, metrics);
+            long p = a[l]; // the pivot value
+            int i = l;
+            int j = r + 1;
+            while(true){
+                do {
+                    i++;
+                    metrics.addComparison();
+                } while(i <= r && a[i] < p);
+                do {
+                    j--;
+                    metrics.addComparison();
+                } while(a[j] > p);
+                if(i >= j){
+                    break;
+                }// end if
+                swap(a, i, j, metrics);
+            }// end while
+            swap(a, l, j, metrics);
+
+            // recurse into the smaller side, loop on the larger side
+            if(j - l < r - j){
+                introSort(a, l, j - 1, metrics, depth + 1, depthLimit);
+                l = j + 1;
+            }
+            else {
+                introSort(a, j + 1, r, metrics, depth + 1, depthLimit);
+                r = j - 1;
+            }// end else
+        }// end while
+        insertionSort(a, l, r, metrics);
+    }// end introSort
+
+    /**
+     * Partitions around a median-of-three pivot, recursing into the smaller side and looping on the larger,
+     * and heap sorts the range once depthLimit runs out
+     * @param a the array to sort
+     * @param l the left index
+     * @param r the right index
+     * @param metrics the statistics for the sort
+     * @param depth the depth of this call
+     * @param depthLimit the number of partitioning levels left before switching to heap sort
+     */
+    private static void introSort(double[] a, int l, int r, SortMetrics metrics, int depth, int depthLimit){
+        metrics.recordDepth(depth);
+        while(r - l + 1 > INSERTION_CUTOFF){
+            if(depthLimit == 0){
+                heapSort(a, l, r, metrics);
+                return;
+            }// end if
+            depthLimit--;
+
+            // move the median of the first, middle and last elements to a[l] and partition around it
+            int m = l + (r - l) / 2;
+            int pivot = Double.compare(a[l], a[m]) < 0
+                    ? (Double.compare(a[m], a[r]) < 0 ? m : (Double.compare(a[l], a[r]) < 0 ? r : l))
+                    : (Double.compare(a[l], a[r]) < 0 ? l : (Double.compare(a[m], a[r]) < 0 ? r : m));
+            metrics.addComparisons(3);
+            swap(a, l, pivot, metrics);
+            double p = a[l]; // the pivot value
+            int i = l;
+            int j = r + 1;
+            while(true){
+                do {
+                    i++;
+                    metrics.addComparison();
+                } while(i <= r && Double.compare(a[i], p) < 0);
+                do {
+                    j--;
+                    metrics.addComparison();
+                } while(Double.compare(a[j], p) > 0);
+                if(i >= j){
+                    break;
+                }// end if
+                swap(a, i, j, metrics);
+            }// end while
+            swap(a, l, j, metrics);
+
+            // recurse into the smaller side, loop on the larger side
+            if(j - l < r - j){
+                introSort(a, l, j - 1, metrics, depth + 1, depthLimit);
+                l = j + 1;
+            }
+            else {
+                introSort(a, j + 1, r, metrics, depth + 1, depthLimit);
+                r = j - 1;
+            }// end else
+        }// end while
+        insertionSort(a, l, r, metrics);
+    }// end introSort
+
+    /**
+     * Partitions around a median-of-three pivot, recursing into the smaller side and looping on the larger,
+     * and heap sorts the range once depthLimit runs out
+     * @param a the record numbers to sort
+     * @param l the left index
+     * @param r the right index
+     * @param c compares two records by number
+     * @param metrics the statistics for the sort
+     * @param depth the depth of this call
+     * @param depthLimit the number of partitioning levels left before switching to heap sort
+     */
+    private static void introSort(int[] a, int l, int r, Sorter.IndexComparator c, SortMetrics metrics, int depth,
+            int depthLimit){
+        metrics.recordDepth(depth);
+        while(r - l + 1 > INSERTION_CUTOFF){
+            if(depthLimit == 0){
+                heapSort(a, l, r, c, metrics);
+                return;
+            }// end if
+            depthLimit--;
+
+            // move the median of the first, middle and last records to a[l] and partition around it
+            int m = l + (r - l) / 2;
+            int pivot = c.compare(a[l], a[m]) < 0
+                    ? (c.compare(a[m], a[r]) < 0 ? m : (c.compare(a[l], a[r]) < 0 ? r : l))
+                    : (c.compare(a[l], a[r]) < 0 ? l : (c.compare(a[m], a[r]) < 0 ? r : m));
+            metrics.addComparisons(3);
+            swap(a, l, pivot, metrics);
+            int p = a[l]; // the pivot record
+            int i = l;
+            int j = r + 1;
+            while(true){
+                do {
+                    i++;
+                    metrics.addComparison();
+                } while(i <= r && c.compare(a[i], p) < 0);
+                do {
+                    j--;
+                    metrics.addComparison();
+                } while(c.compare(a[j], p) > 0);
+                if(i >= j){
+                    break;
+                }// end if
+                swap(a, i, j, metrics);
+            }// end while
+            swap(a, l, j, metrics);
+
+            // recurse into the smaller side, loop on the larger side
+            if(j - l < r - j){
+                introSort(a, l, j - 1, c, metrics, depth + 1, depthLimit);
+                l = j + 1;
+            }
+            else {
+                introSort(a, j + 1, r, c, metrics, depth + 1, depthLimit);
+                r = j - 1;
+            }// end else
+        }// end while
+        insertionSort(a, l, r, c, metrics);
+    }// end introSort
+
+    /**
+     * Heap sorts the elements from index l to index r (inclusive)
+     * @param a the array to sort
+     * @param l the left index
+     * @param r the right index
+     * @param metrics the statistics for the sort
+     */
+    private static void heapSort(long[] a, int l, int r, SortMetrics metrics){
+        int n = r - l + 1; // number of elements in the heap
+        for(int i = n / 2 - 1; i >= 0; i--){
+            siftDown(a, l, i, n, metrics);
+        }// end for
+        for(int end = n - 1; end > 0; end--){
+            swap(a, l, l + end, metrics);
+            siftDown(a, l, 0, end, metrics);
+        }// end for
+    }// end heapSort
+
+    /**
+     * Heap sorts the elements from index l to index r (inclusive)
+     * @param a the array to sort
+     * @param l the left index
+     * @param r the right index
+     * @param metrics the statistics for the sort
+     */
+    private static void heapSort(double[] a, int l, int r, SortMetrics metrics){
+        int n = r - l + 1; // number of elements in the heap
+        for(int i = n / 2 - 1; i >= 0; i--){
+            siftDown(a, l, i, n, metrics);
+        }// end for
+        for(int end = n - 1; end > 0; end--){
+            swap(a, l, l + end, metrics);
+            siftDown(a, l, 0, end, metrics);
+        }// end for
+    }// end heapSort
+
+    /**
+     * Heap sorts the record numbers from index l to index r (inclusive)
+     * @param a the record numbers to sort
+     * @param l the left index
+     * @param r the right index
+     * @param c compares two records by number
+     * @param metrics the statistics for the sort
+     */
+    private static void heapSort(int[] a, int l, int r, Sorter.IndexComparator c, SortMetrics metrics){
+        int n = r - l + 1; // number of elements in the heap
+        for(int i = n / 2 - 1; i >= 0; i--){
+            siftDown(a, l, i, n, c, metrics);
+        }// end for
+        for(int end = n - 1; end > 0; end--){
+            swap(a, l, l + end, metrics);
+            siftDown(a, l, 0, end, c, metrics);
+        }// end for
+    }// end heapSort
+
+    /**
+     * Moves the element at heap position i down until it is larger than both of its children
+     * @param a the array holding the heap
+     * @param offset the array index of heap position 0
+     * @param i the heap position to sift down
+     * @param n the number of elements in the heap
+     * @param metrics the statistics for the sort
+     */
+    private static void siftDown(long[] a, int offset, int i, int n, SortMetrics metrics){
+        long value = a[offset + i]; // the element being moved down
+        while(2 * i + 1 < n){
+            int child = 2 * i + 1;
+            if(child + 1 < n){
+                metrics.addComparison();
+                if(a[offset + child + 1] > a[offset + child]){
+                    child++;
+                }// end if
+            }// end if
+            metrics.addComparison();
+            if(value >= a[offset + child]){
+                break;
+            }// end if
+            a[offset + i] = a[offset + child];
+            metrics.addMove();
+            i = child;
+        }// end while
+        a[offset + i] = value;
+        metrics.addMove();
+    }// end siftDown
+
+    /**
+     * Moves the element at heap position i down until it is larger than both of its children
+     * @param a the array holding the heap
+     * @param offset the array index of heap position 0
+     * @param i the heap position to sift down
+     * @param n the number of elements in the heap
+     * @param metrics the statistics for the sort
+     */
+    private static void siftDown(double[] a, int offset, int i, int n, SortMetrics metrics){
+        double value = a[offset + i]; // the element being moved down
+        while(2 * i + 1 < n){
+            int child = 2 * i + 1;
+            if(child + 1 < n){
+                metrics.addComparison();
+                if(Double.compare(a[offset + child + 1], a[offset + child]) > 0){
+                    child++;
+                }// end if
+            }// end if
+            metrics.addComparison();
+            if(Double.compare(value, a[offset + child]) >= 0){
+                break;
+            }// end if
+            a[offset + i] = a[offset + child];
+            metrics.addMove();
+            i = child;
+        }// end while
+        a[offset + i] = value;
+        metrics.addMove();
+    }// end siftDown
+
+    /**
+     * Moves the record at heap position i down until it is larger than both of its children
+     * @param a the record numbers holding the heap
+     * @param offset the array index of heap position 0
+     * @param i the heap position to sift down
+     * @param n the number of records in the heap
+     * @param c compares two records by number
+     * @param metrics the statistics for the sort
+     */
+    private static void siftDown(int[] a, int offset, int i, int n, Sorter.IndexComparator c, SortMetrics metrics){
+        int value = a[offset + i]; // the record being moved down
+        while(2 * i + 1 < n){
+            int child = 2 * i + 1;
+            if(child + 1 < n){
+                metrics.addComparison();
+                if(c.compare(a[offset + child + 1], a[offset + child]) > 0){
+                    child++;
+                }// end if
+            }// end if
+            metrics.addComparison();
+            if(c.compare(value, a[offset + child]) >= 0){
+                break;
+            }// end if
+            a[offset + i] = a[offset + child];
+            metrics.addMove();
+            i = child;
+        }// end while
+        a[offset + i] = value;
+        metrics.addMove();
+    }// end siftDown
+
+    /**
+     * Swaps two elements
+     * @param a the array
+     * @param i the first index
+     * @param j the second index
+     * @param metrics the statistics for the sort
+     */
+    private static void swap(long[] a, int i, int j, SortMetrics metrics){
+        long temp = a[i];
+        a[i] = a[j];
+        a[j] = temp;
+        metrics.addSwap();
+    }// end swap
+
+    /**
+     * Swaps two elements
+     * @param a the array
+     * @param i the first index
+     * @param j the second index
+     * @param metrics the statistics for the sort
+     */
+    private static void swap(double[] a, int i, int j, SortMetrics metrics){
+        double temp = a[i];
+        a[i] = a[j];
+        a[j] = temp;
+        metrics.addSwap();
+    }// end swap
+
+    /**
+     * Swaps two record numbers
+     * @param a the array
+     * @param i the first index
+     * @param j the second index
+     * @param metrics the statistics for the sort
+     */
+    private static void swap(int[] a, int i, int j, SortMetrics metrics){
+        int temp = a[i];
+        a[i] = a[j];
+        a[j] = temp;
+        metrics.addSwap();
+    }// end swap
+}// end class PrimitiveSorts
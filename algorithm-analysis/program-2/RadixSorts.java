@@ -0,0 +1,253 @@
+/**
+ *
+ * @author Blake Mills
+ * COSC 3325 - Non-comparison sorting
+ *
+ * The purpose of this class is to sort int arrays without comparing elements to each other.
+ * The LSD radix sort looks at each key one 8-bit digit at a time, starting with the lowest
+ * digit, and stably distributes the keys by that digit into a scratch buffer. Four passes
+ * sort any int array in O(n) time, and passes where every key has the same digit are skipped.
+ * The counting sort counts how many times each value occurs and rewrites the array from the
+ * counts, which is even faster when the values all fall in a small range.
+ *
+ * Neither makes comparisons between elements, so their SortMetrics mostly count moves.
+ * To see where they beat the comparison sorts, run SortBenchmark with large sizes, e.g.
+ *   java -Xmx4g -cp bin SortBenchmark algorithms=radix,counting,intro,quick-dual,merge-buffered
+ *        sizes=1000000,10000000,100000000 distributions=uniform,range100 iterations=3
+ */
+public class RadixSorts {
+    public static final int MAX_COUNTING_RANGE = 1 << 24; // largest (max - min + 1) the counting sort accepts
+    private static final int DIGIT_BITS = 8; // bits per radix digit
+    private static final int RADIX = 1 << DIGIT_BITS; // number of possible digit values
+    private static final int DIGIT_MASK = RADIX - 1; // masks off one digit
+
+    /**
+     * Performs an LSD radix sort on the array passed to it and returns its metrics
+     * @param array the array to sort
+     * @return the metrics for this sort
+     */
+    public static SortMetrics performRadixSort(int[] array){
+        return radixSort(array, new int[array.length]);
+    }// end performRadixSort
+
+    /**
+     * Performs an LSD radix sort using the given scratch buffer, so a caller sorting many arrays
+     * can allocate the buffer once and reuse it
+     * @param array the array to sort
+     * @param scratch a buffer at least as long as the array; its contents are overwritten
+     * @return the metrics for this sort
+     */
+    public static SortMetrics radixSort(int[] array, int[] scratch){
+        if(scratch.length < array.length){
+            throw new IllegalArgumentException("Scratch buffer holds " + scratch.length
+                    + " elements but the array has " + array.length);
+        }// end if
+        SortMetrics metrics = new SortMetrics(); // the statistics for this sort
+        metrics.recordDepth(1);
+        long start = System.nanoTime();
+        int n = array.length; // number of keys
+
+        // count every digit of every key in one pass over the array
+        int[][] counts = new int[Integer.BYTES][RADIX];
+        for(int i = 0; i < n; i++){
+            int key = array[i];
+            counts[0][key & DIGIT_MASK]++;
+            counts[1][(key >>> 8) & DIGIT_MASK]++;
+            counts[2][(key >>> 16) & DIGIT_MASK]++;
+            // flipping the sign bit puts negative keys before positive ones
+            counts[3][((key >>> 24) ^ 0x80) & DIGIT_MASK]++;
+        }// end for
+
+        int[] source = array; // the array holding the keys before this pass
+        int[] destination = scratch; // the array receiving the keys in this pass
+        for(int pass = 0; pass < Integer.BYTES; pass++){
+            int[] count = counts[pass];
+            int shift = pass * DIGIT_BITS; // where this digit starts in the key
+            int flip = pass == Integer.BYTES - 1 ? 0x80 : 0; // sign bit fix for the top digit
+
+            // if every key has the same digit, this pass would not move anything
+            if(n == 0 || count[((source[0] >>> shift) ^ flip) & DIGIT_MASK] == n){
+                continue;
+            }// end if
+
+            // turn the counts into the starting position for each digit
+            int position = 0;
+            for(int digit = 0; digit < RADIX; digit++){
+                int c = count[digit];
+                count[digit] = position;
+                position += c;
+            }// end for
+
+            // distribute the keys by this digit, keeping keys with the same digit in order
+            for(int i = 0; i < n; i++){
+                int key = source[i];
+                destination[count[((key >>> shift) ^ flip) & DIGIT_MASK]++] = key;
+            }// end for
+            metrics.addMoves(n);
+
+            // the keys are now in destination, so swap roles for the next pass
+            int[] temp = source;
+            source = destination;
+            destination = temp;
+        }// end for
+
+        // an odd number of passes leaves the result in the scratch buffer
+        if(source != array){
+            System.arraycopy(source, 0, array, 0, n);
+            metrics.addMoves(n);
+        }// end if
+        metrics.setElapsedNanos(System.nanoTime() - start);
+        return metrics;
+    }// end radixSort
+
+    /**
+     * Performs an LSD radix sort on an array of longs and returns its metrics. It works like the int
+     * version with eight 8-bit digits instead of four.
+     * @param array the array to sort
+     * @return the metrics for this sort
+     */
+    public static SortMetrics performRadixSort(long[] array){
+        SortMetrics metrics = new SortMetrics(); // the statistics for this sort
+        metrics.recordDepth(1);
+        long start = System.nanoTime();
+        radixSort(array, new long[array.length], metrics);
+        metrics.setElapsedNanos(System.nanoTime() - start);
+        return metrics;
+    }// end performRadixSort
+
+    /**
+     * Performs an LSD radix sort on an array of doubles and returns its metrics. Each double's bits are
+     * turned into a long that sorts in the same order as Double.compare (negatives have every bit but
+     * the sign flipped), the longs are radix sorted, and the bits are turned back.
+     * Every NaN comes out as the standard Double.NaN.
+     * @param array the array to sort
+     * @return the metrics for this sort
+     */
+    public static SortMetrics performRadixSort(double[] array){
+        SortMetrics metrics = new SortMetrics(); // the statistics for this sort
+        metrics.recordDepth(1);
+        long start = System.nanoTime();
+        int n = array.length;
+        long[] keys = new long[n]; // the doubles as sortable longs
+        for(int i = 0; i < n; i++){
+            long bits = Double.doubleToLongBits(array[i]);
+            keys[i] = bits < 0 ? bits ^ Long.MAX_VALUE : bits;
+        }// end for
+        radixSort(keys, new long[n], metrics);
+        for(int i = 0; i < n; i++){
+            long key = keys[i];
+            array[i] = Double.longBitsToDouble(key < 0 ? key ^ Long.MAX_VALUE : key);
+        }// end for
+        metrics.addMoves(2L * n);
+        metrics.setElapsedNanos(System.nanoTime() - start);
+        return metrics;
+    }// end performRadixSort
+
+    /**
+     * The radix sort for longs, using scratch as the second buffer
+     * @param array the array to sort
+     * @param scratch a buffer at least as long as the array
+     * @param metrics the statistics for this sort
+     */
+    private static void radixSort(long[] array, long[] scratch, SortMetrics metrics){
+        int n = array.length; // number of keys
+        int[][] counts = new int[Long.BYTES][RADIX];
+        for(int i = 0; i < n; i++){
+            long key = array[i];
+            for(int pass = 0; pass < Long.BYTES; pass++){
+                counts[pass][(int) (key >>> (pass * DIGIT_BITS)) & DIGIT_MASK]++;
+            }// end for
+        }// end for
+
+        long[] source = array; // the array holding the keys before this pass
+        long[] destination = scratch; // the array receiving the keys in this pass
+        for(int pass = 0; pass < Long.BYTES; pass++){
+            int[] count = counts[pass];
+            int shift = pass * DIGIT_BITS; // where this digit starts in the key
+            int flip = pass == Long.BYTES - 1 ? 0x80 : 0; // sign bit fix for the top digit
+
+            // if every key has the same digit, this pass would not move anything
+            if(n == 0 || count[(int) (source[0] >>> shift) & DIGIT_MASK] == n){
+                continue;
+            }// end if
+
+            // turn the counts into the starting position for each digit, in sign-corrected order
+            int position = 0;
+            for(int d = 0; d < RADIX; d++){
+                int digit = d ^ flip;
+                int c = count[digit];
+                count[digit] = position;
+                position += c;
+            }// end for
+
+            for(int i = 0; i < n; i++){
+                long key = source[i];
+                destination[count[(int) (key >>> shift) & DIGIT_MASK]++] = key;
+            }// end for
+            metrics.addMoves(n);
+
+            long[] temp = source;
+            source = destination;
+            destination = temp;
+        }// end for
+
+        if(source != array){
+            System.arraycopy(source, 0, array, 0, n);
+            metrics.addMoves(n);
+        }// end if
+    }// end radixSort
+
+    /**
+     * Performs a counting sort on the array passed to it and returns its metrics. This only works when
+     * the difference between the largest and smallest values is less than MAX_COUNTING_RANGE.
+     * @param array the array to sort
+     * @return the metrics for this sort
+     * @throws IllegalArgumentException if the values span too large a range
+     */
+    public static SortMetrics performCountingSort(int[] array){
+        SortMetrics metrics = new SortMetrics(); // the statistics for this sort
+        metrics.recordDepth(1);
+        long start = System.nanoTime();
+        if(array.length == 0){
+            return metrics;
+        }// end if
+
+        // find the range of the values
+        int min = array[0];
+        int max = array[0];
+        for(int i = 1; i < array.length; i++){
+            metrics.addComparison();
+            if(array[i] < min){
+                min = array[i];
+            }
+            else {
+                metrics.addComparison();
+                if(array[i] > max){
+                    max = array[i];
+                }
+            }// end else
+        }// end for
+        long range = (long) max - min + 1; // number of possible values
+        if(range > MAX_COUNTING_RANGE){
+            throw new IllegalArgumentException("Counting sort needs values within a range of "
+                    + MAX_COUNTING_RANGE + " but these span " + range);
+        }// end if
+
+        // count how many times each value occurs
+        int[] count = new int[(int) range];
+        for(int i = 0; i < array.length; i++){
+            count[array[i] - min]++;
+        }// end for
+
+        // write each value back as many times as it occurred
+        int k = 0; // index for array position
+        for(int v = 0; v < count.length; v++){
+            for(int c = count[v]; c > 0; c--){
+                array[k++] = v + min;
+            }// end for
+        }// end for
+        metrics.addMoves(array.length);
+        metrics.setElapsedNanos(System.nanoTime() - start);
+        return metrics;
+    }// end performCountingSort
+}// end class RadixSorts
@@ -0,0 +1,132 @@
+/**
+ *
+ * @author Blake Mills
+ * COSC 3325 - Selection and partial sorting
+ *
+ * The purpose of this class is to find the k smallest or largest values, or the k-th smallest value,
+ * without sorting the whole array. nthElement is an introselect: it partitions with the same pivot
+ * choice and partition as introSort in SortingAlgorithms2, but only keeps going into the side that
+ * holds position k, which takes O(n) time on average instead of O(n log n). If it partitions too many
+ * times without finishing, the pivots are bad, and it heap sorts the range that is left, so the worst
+ * case is still O(n log n). partialSort uses nthElement and then sorts only the first k elements.
+ *
+ * smallest and largest do not change the array; they stream it through an IntTopK heap of k values,
+ * which suits small k, and the values can come from anywhere (for example a file) instead of an array.
+ */
+public class Selection {
+
+    /**
+     * Rearranges the array so the element at index k is the one that would be there if the array were
+     * sorted, every element before it is less than or equal to it, and every element after it is greater
+     * than or equal to it
+     * @param array the array to rearrange
+     * @param k the index, from 0 to array.length - 1
+     * @return the metrics for this selection
+     */
+    public static SortMetrics nthElement(int[] array, int k){
+        if(k < 0 || k >= array.length){
+            throw new IllegalArgumentException("k must be from 0 to " + (array.length - 1) + ": " + k);
+        }// end if
+        SortMetrics metrics = new SortMetrics(); // the statistics for this selection
+        metrics.recordDepth(1);
+        long start = System.nanoTime();
+        introSelect(array, 0, array.length - 1, k, metrics);
+        metrics.setElapsedNanos(System.nanoTime() - start);
+        return metrics;
+    }// end nthElement
+
+    /**
+     * Finds the k-th smallest element (counting from 0), rearranging the array like nthElement
+     * @param array the array to search
+     * @param k the index the element would have if the array were sorted
+     * @return the element
+     */
+    public static int select(int[] array, int k){
+        nthElement(array, k);
+        return array[k];
+    }// end select
+
+    /**
+     * Puts the k smallest elements of the array, in sorted order, at the front of the array. The rest of
+     * the array is left in no particular order.
+     * @param array the array to partially sort
+     * @param k the number of elements to sort, from 0 to array.length
+     * @return the metrics for this sort
+     */
+    public static SortMetrics partialSort(int[] array, int k){
+        if(k < 0 || k > array.length){
+            throw new IllegalArgumentException("k must be from 0 to " + array.length + ": " + k);
+        }// end if
+        SortMetrics metrics = new SortMetrics(); // the statistics for this sort
+        metrics.recordDepth(1);
+        long start = System.nanoTime();
+        if(k > 0){
+            // the k smallest are now in [0, k - 1], in no order, so sort just that range
+            if(k < array.length){
+                introSelect(array, 0, array.length - 1, k - 1, metrics);
+            }// end if
+            SortingAlgorithms2.introSort(array, 0, k - 1, metrics, 1, 2 * SortingAlgorithms2.log2(k));
+        }// end if
+        metrics.setElapsedNanos(System.nanoTime() - start);
+        return metrics;
+    }// end partialSort
+
+    /**
+     * Finds the k smallest values of the array without changing it
+     * @param array the values
+     * @param k the number of values to find
+     * @return the k smallest values (fewer if the array is shorter), smallest first
+     */
+    public static int[] smallest(int[] array, int k){
+        IntTopK top = IntTopK.smallest(Math.min(k, array.length));
+        top.offerAll(array);
+        return top.toSortedArray();
+    }// end smallest
+
+    /**
+     * Finds the k largest values of the array without changing it
+     * @param array the values
+     * @param k the number of values to find
+     * @return the k largest values (fewer if the array is shorter), largest first
+     */
+    public static int[] largest(int[] array, int k){
+        IntTopK top = IntTopK.largest(Math.min(k, array.length));
+        top.offerAll(array);
+        return top.toSortedArray();
+    }// end largest
+
+    /**
+     * Narrows [l, r] down to position k by partitioning and keeping only the side that holds k, and
+     * finishes small ranges with a sorting network. After 2*log2(n) partitions it heap sorts whatever
+     * range is left.
+     * @param a the array
+     * @param l the left index
+     * @param r the right index
+     * @param k the position to fill
+     * @param metrics the statistics for the selection
+     */
+    private static void introSelect(int[] a, int l, int r, int k, SortMetrics metrics){
+        int depthLimit = 2 * SortingAlgorithms2.log2(r - l + 1); // partitions left before giving up on pivots
+        while(r - l + 1 > SortingNetworks.MAX_SIZE){
+            if(depthLimit == 0){
+                SortingAlgorithms2.heapSort(a, l, r, metrics);
+                return;
+            }// end if
+            depthLimit--;
+            SortingAlgorithms2.choosePivot(a, l, r, metrics);
+            int s = SortingAlgorithms2.partition(a, l, r, metrics);
+            // the pivot landed on k, so it is done
+            if(s == k){
+                return;
+            }// end if
+            // otherwise only the side holding k matters
+            if(k < s){
+                r = s - 1;
+            }
+            else {
+                l = s + 1;
+            }// end else
+        }// end while
+        SortingNetworks.sort(a, l, r, metrics);
+    }// end introSelect
+}// end class Selection
@@ -0,0 +1,111 @@
+/**
+ *
+ * @author Blake Mills
+ * COSC 3325 - Sort instrumentation
+ *
+ * Holds the statistics for one run of a sort: how many comparisons it made, how many swaps
+ * and single-element moves it did, how deep its recursion went, and how long it took. Every
+ * sort creates its own SortMetrics and returns it, so sorts can run at the same time on
+ * different threads without sharing a counter. Parallel sorts give each task its own
+ * SortMetrics and add the children's totals into the parent's once they have finished.
+ */
+public class SortMetrics {
+    private long comparisons = 0; // number of comparisons between two elements
+    private long swaps = 0; // number of times two elements traded places
+    private long moves = 0; // number of single elements written to an array (copies and shifts)
+    private int maxDepth = 0; // the deepest level of recursion reached (1 for the first call)
+    private long elapsedNanos = 0; // how long the sort took
+
+    /**
+     * Records one comparison
+     */
+    public void addComparison(){
+        comparisons++;
+    }// end addComparison
+
+    /**
+     * Records several comparisons at once
+     * @param count the number of comparisons
+     */
+    public void addComparisons(long count){
+        comparisons += count;
+    }// end addComparisons
+
+    /**
+     * Records one swap of two elements
+     */
+    public void addSwap(){
+        swaps++;
+    }// end addSwap
+
+    /**
+     * Records one element being written to an array
+     */
+    public void addMove(){
+        moves++;
+    }// end addMove
+
+    /**
+     * Records several elements being written to an array at once
+     * @param count the number of elements written
+     */
+    public void addMoves(long count){
+        moves += count;
+    }// end addMoves
+
+    /**
+     * Records that the recursion reached the given depth, keeping the deepest one seen
+     * @param depth the current depth, where the first call is depth 1
+     */
+    public void recordDepth(int depth){
+        if(depth > maxDepth){
+            maxDepth = depth;
+        }// end if
+    }// end recordDepth
+
+    /**
+     * Sets how long the sort took
+     * @param elapsedNanos the elapsed time in nanoseconds
+     */
+    public void setElapsedNanos(long elapsedNanos){
+        this.elapsedNanos = elapsedNanos;
+    }// end setElapsedNanos
+
+    /**
+     * Adds the counts from another SortMetrics into this one. The depth becomes the deeper of the two.
+     * The elapsed time is not added, since the work may have happened at the same time.
+     * @param other the metrics to add
+     */
+    public void add(SortMetrics other){
+        comparisons += other.comparisons;
+        swaps += other.swaps;
+        moves += other.moves;
+        recordDepth(other.maxDepth);
+    }// end add
+
+    public long getComparisons(){
+        return comparisons;
+    }
+
+    public long getSwaps(){
+        return swaps;
+    }
+
+    public long getMoves(){
+        return moves;
+    }
+
+    public int getMaxDepth(){
+        return maxDepth;
+    }
+
+    public long getElapsedNanos(){
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString(){
+        return "comparisons=" + comparisons + ", swaps=" + swaps + ", moves=" + moves
+                + ", maxDepth=" + maxDepth + ", elapsedNanos=" + elapsedNanos;
+    }
+}// end class SortMetrics
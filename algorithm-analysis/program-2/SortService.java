@@ -0,0 +1,319 @@
+/**
+ *
+ * @author Blake Mills
+ * COSC 3325 - Batch sort service
+ *
+ * The purpose of this class is to let many request threads hand over arrays of mixed sizes to be
+ * sorted, with bounded latency, instead of each one calling a sort directly. Every array is routed
+ * by its size:
+ *
+ *   inline     up to inlineMax elements: insertion sorted right away on the calling thread, since
+ *              handing it to another thread would cost more than sorting it.
+ *   queued     up to parallelMin elements: put on a bounded queue and introsorted by one of a fixed
+ *              number of worker threads.
+ *   parallel   larger arrays: also go through the queue, but the worker sorts them with
+ *              ParallelSampleSort on a shared work-stealing ForkJoinPool, so one large array uses
+ *              every core.
+ *
+ * The queue is bounded so that latency stays bounded under overload: when it is full, submit throws
+ * RejectedExecutionException straight away, and the caller can back off or shed the request,
+ * instead of the queue growing without limit. (A ForkJoinPool's own queues are unbounded, which is
+ * why the queued arrays go to a ThreadPoolExecutor with an ArrayBlockingQueue.)
+ *
+ * The service counts the arrays on each route, the rejections, the queue depth and its high-water
+ * mark, and the latency from submit to finished in a log-scale histogram, and stats returns a snapshot
+ * of all of these with latency percentiles and throughput. Every counter is atomic, so submit can be
+ * called from any number of threads.
+ */
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class SortService implements AutoCloseable {
+    public static final int DEFAULT_INLINE_MAX = 64; // arrays this size or smaller are sorted inline
+    public static final int DEFAULT_PARALLEL_MIN = 1 << 18; // arrays this size or larger use the parallel sort
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024; // arrays that can wait for a worker at once
+
+    private final int inlineMax; // largest array sorted inline
+    private final int parallelMin; // smallest array sorted in parallel
+    private final ThreadPoolExecutor workers; // sorts the queued and parallel arrays
+    private final ArrayBlockingQueue<Runnable> queue; // the arrays waiting for a worker
+    private final ForkJoinPool parallelPool; // runs the parallel sorts
+    private final int buckets; // buckets for each parallel sample sort
+
+    private final long startNanos = System.nanoTime(); // when the service started, for throughput
+    private final AtomicLong inlineCount = new AtomicLong(); // arrays sorted inline
+    private final AtomicLong queuedCount = new AtomicLong(); // arrays accepted for the workers' introsort
+    private final AtomicLong parallelCount = new AtomicLong(); // arrays accepted for the parallel sort
+    private final AtomicLong rejectedCount = new AtomicLong(); // arrays turned away because the queue was full
+    private final AtomicLong failedCount = new AtomicLong(); // arrays whose sort threw an exception
+    private final AtomicLong completedCount = new AtomicLong(); // arrays finished, on every route
+    private final AtomicLong completedElements = new AtomicLong(); // elements in the finished arrays
+    private final AtomicInteger maxQueueDepth = new AtomicInteger(); // the deepest the queue has been
+    private final LatencyHistogram latency = new LatencyHistogram(); // submit-to-finished times
+
+    /**
+     * Creates a service with the default routing thresholds and queue capacity, one worker per core, and
+     * the common ForkJoinPool for the parallel sorts
+     */
+    public SortService(){
+        this(DEFAULT_INLINE_MAX, DEFAULT_PARALLEL_MIN, DEFAULT_QUEUE_CAPACITY,
+                Runtime.getRuntime().availableProcessors(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a service
+     * @param inlineMax arrays this size or smaller are insertion sorted on the calling thread
+     * @param parallelMin arrays this size or larger are sorted with the parallel sample sort
+     * @param queueCapacity how many arrays can wait for a worker before submit starts rejecting them
+     * @param workerThreads the number of worker threads
+     * @param parallelPool the pool the parallel sorts run in
+     */
+    public SortService(int inlineMax, int parallelMin, int queueCapacity, int workerThreads, ForkJoinPool parallelPool){
+        if(inlineMax >= parallelMin){
+            throw new IllegalArgumentException("inlineMax (" + inlineMax + ") must be less than parallelMin ("
+                    + parallelMin + ")");
+        }// end if
+        this.inlineMax = inlineMax;
+        this.parallelMin = parallelMin;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.workers = new ThreadPoolExecutor(workerThreads, workerThreads, 0, TimeUnit.SECONDS, queue,
+                new ThreadPoolExecutor.AbortPolicy());
+        this.parallelPool = parallelPool;
+        this.buckets = ParallelSampleSort.defaultBuckets(parallelPool.getParallelism());
+    }
+
+    /**
+     * Sorts an array, inline if it is small and otherwise on a worker thread. The array must not be used
+     * by the caller until the future completes.
+     * @param array the array to sort in place
+     * @return a future that completes with the sort's metrics once the array is sorted
+     * @throws RejectedExecutionException if the queue is full or the service has been closed
+     */
+    public CompletableFuture<SortMetrics> submit(int[] array){
+        long submitted = System.nanoTime();
+        int n = array.length;
+        // the workers' executor rejects arrays after close, but the inline ones never reach it
+        if(workers.isShutdown()){
+            rejectedCount.incrementAndGet();
+            throw new RejectedExecutionException("The service has been closed");
+        }// end if
+        if(n <= inlineMax){
+            inlineCount.incrementAndGet();
+            SortMetrics metrics = SortingAlgorithms2.performInsertionSort(array);
+            finished(n, submitted);
+            return CompletableFuture.completedFuture(metrics);
+        }// end if
+
+        boolean parallel = n >= parallelMin;
+        SortTask task = new SortTask(array, parallel, submitted);
+        try {
+            workers.execute(task);
+        } catch(RejectedExecutionException e){
+            rejectedCount.incrementAndGet();
+            throw e;
+        }// end catch
+        (parallel ? parallelCount : queuedCount).incrementAndGet();
+        maxQueueDepth.accumulateAndGet(queue.size(), Math::max);
+        return task.future;
+    }// end submit
+
+    /**
+     * @return the number of arrays waiting for a worker right now
+     */
+    public int queueDepth(){
+        return queue.size();
+    }// end queueDepth
+
+    /**
+     * @return a snapshot of the service's counters, latency percentiles and throughput
+     */
+    public Stats stats(){
+        Stats stats = new Stats();
+        stats.inline = inlineCount.get();
+        stats.queued = queuedCount.get();
+        stats.parallel = parallelCount.get();
+        stats.rejected = rejectedCount.get();
+        stats.failed = failedCount.get();
+        stats.completed = completedCount.get();
+        stats.queueDepth = queue.size();
+        stats.maxQueueDepth = maxQueueDepth.get();
+        stats.p50Nanos = latency.percentile(0.50);
+        stats.p95Nanos = latency.percentile(0.95);
+        stats.p99Nanos = latency.percentile(0.99);
+        stats.maxNanos = latency.percentile(1.0);
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        stats.arraysPerSecond = stats.completed / seconds;
+        stats.elementsPerSecond = completedElements.get() / seconds;
+        return stats;
+    }// end stats
+
+    /**
+     * Stops accepting arrays and waits for the ones already accepted to be sorted. If the calling thread
+     * is interrupted while waiting, the workers are interrupted too, the arrays still in the queue are
+     * dropped without being sorted and their futures cancelled, and the thread's interrupt flag is set
+     * again for its caller.
+     */
+    @Override
+    public void close(){
+        workers.shutdown();
+        try {
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch(InterruptedException e){
+            for(Runnable task : workers.shutdownNow()){
+                ((SortTask) task).future.cancel(false);
+            }// end for
+            Thread.currentThread().interrupt();
+        }// end catch
+    }// end close
+
+    /**
+     * Records a finished array
+     * @param n the array's length
+     * @param submitted when it was submitted, from System.nanoTime
+     */
+    private void finished(int n, long submitted){
+        latency.record(System.nanoTime() - submitted);
+        completedCount.incrementAndGet();
+        completedElements.addAndGet(n);
+    }// end finished
+
+    /**
+     * An accepted array waiting for a worker. It keeps its future so close can cancel the arrays it drops.
+     */
+    private class SortTask implements Runnable {
+        private final int[] array; // the array to sort in place
+        private final boolean parallel; // whether to use the parallel sort
+        private final long submitted; // when it was submitted, from System.nanoTime
+        private final CompletableFuture<SortMetrics> future = new CompletableFuture<>(); // completes once sorted
+
+        SortTask(int[] array, boolean parallel, long submitted){
+            this.array = array;
+            this.parallel = parallel;
+            this.submitted = submitted;
+        }
+
+        /**
+         * Sorts the array and completes the future with the metrics, or with the exception if it fails
+         */
+        @Override
+        public void run(){
+            try {
+                SortMetrics metrics = parallel
+                        ? ParallelSampleSort.parallelSampleSort(array, parallelPool, buckets, new ParallelSampleSort.PhaseTimes())
+                        : SortingAlgorithms2.performIntroSort(array);
+                finished(array.length, submitted);
+                future.complete(metrics);
+            } catch(RuntimeException | Error e){
+                failedCount.incrementAndGet();
+                future.completeExceptionally(e);
+            }// end catch
+        }// end run
+    }// end SortTask
+
+    /**
+     * A snapshot of the service's metrics
+     */
+    public static class Stats {
+        public long inline; // arrays sorted inline
+        public long queued; // arrays accepted for the workers' introsort
+        public long parallel; // arrays accepted for the parallel sort
+        public long rejected; // arrays turned away because the queue was full
+        public long failed; // arrays whose sort threw an exception
+        public long completed; // arrays finished, on every route
+        public int queueDepth; // arrays waiting for a worker when the snapshot was taken
+        public int maxQueueDepth; // the deepest the queue has been
+        public long p50Nanos; // median submit-to-finished time
+        public long p95Nanos; // 95th percentile submit-to-finished time
+        public long p99Nanos; // 99th percentile submit-to-finished time
+        public long maxNanos; // longest submit-to-finished time
+        public double arraysPerSecond; // arrays finished per second since the service started
+        public double elementsPerSecond; // elements sorted per second since the service started
+
+        @Override
+        public String toString(){
+            return String.format("completed=%d (inline=%d queued=%d parallel=%d) rejected=%d failed=%d "
+                    + "queue=%d max=%d latency p50=%.3fms p95=%.3fms p99=%.3fms max=%.3fms "
+                    + "throughput=%.0f arrays/s %.1f M elements/s",
+                    completed, inline, queued, parallel, rejected, failed, queueDepth, maxQueueDepth,
+                    p50Nanos / 1e6, p95Nanos / 1e6, p99Nanos / 1e6, maxNanos / 1e6,
+                    arraysPerSecond, elementsPerSecond / 1e6);
+        }// end toString
+    }// end Stats
+
+    /**
+     * Counts latencies in log-scale buckets: each power of two is split into SUB_BUCKETS equal parts,
+     * so a percentile is accurate to within 1 / SUB_BUCKETS of its value. Recording is one atomic
+     * increment, with no locking.
+     */
+    private static class LatencyHistogram {
+        private static final int SUB_BITS = 3; // log2 of the buckets per power of two
+        private static final int SUB_BUCKETS = 1 << SUB_BITS; // buckets per power of two
+        private final AtomicLongArray counts = new AtomicLongArray(64 * SUB_BUCKETS); // latencies per bucket
+
+        /**
+         * Counts one latency
+         * @param nanos the latency, in nanoseconds
+         */
+        void record(long nanos){
+            counts.incrementAndGet(bucketOf(Math.max(1, nanos)));
+        }// end record
+
+        /**
+         * Finds the latency below which the given fraction of the recorded latencies fall
+         * @param fraction the fraction, from 0 to 1
+         * @return the upper bound of the bucket holding that percentile, or 0 if nothing was recorded
+         */
+        long percentile(double fraction){
+            long total = 0;
+            for(int i = 0; i < counts.length(); i++){
+                total += counts.get(i);
+            }// end for
+            if(total == 0){
+                return 0;
+            }// end if
+            long rank = Math.max(1, (long) Math.ceil(fraction * total)); // how many latencies to count off
+            long seen = 0;
+            for(int i = 0; i < counts.length(); i++){
+                seen += counts.get(i);
+                if(seen >= rank){
+                    return upperBound(i);
+                }// end if
+            }// end for
+            return upperBound(counts.length() - 1);
+        }// end percentile
+
+        /**
+         * @param nanos a latency of at least 1
+         * @return its bucket: the power of two it falls in, then which of that power's sub-buckets
+         */
+        private static int bucketOf(long nanos){
+            int power = 63 - Long.numberOfLeadingZeros(nanos);
+            if(power < SUB_BITS){
+                // values this small get a bucket each
+                return (int) nanos;
+            }// end if
+            int sub = (int) ((nanos >>> (power - SUB_BITS)) & (SUB_BUCKETS - 1));
+            return power * SUB_BUCKETS + sub;
+        }// end bucketOf
+
+        /**
+         * @param bucket a bucket number
+         * @return the largest latency that falls in the bucket
+         */
+        private static long upperBound(int bucket){
+            int power = bucket / SUB_BUCKETS;
+            if(power < SUB_BITS){
+                return bucket;
+            }// end if
+            int sub = bucket % SUB_BUCKETS;
+            return ((long) (SUB_BUCKETS + sub + 1) << (power - SUB_BITS)) - 1;
+        }// end upperBound
+    }// end LatencyHistogram
+}// end class SortService
@@ -0,0 +1,93 @@
+/**
+ *
+ * @author Blake Mills
+ * COSC 3325 - Sorter strategy
+ *
+ * The purpose of this interface is to let code pick a sorting algorithm at run time and then sort
+ * int[], long[] and double[] arrays, or records by index, with it. Every type has its own method,
+ * so the elements are never boxed. Sorters.forName looks up a Sorter by the same names the
+ * benchmarks use.
+ *
+ * Not every algorithm can sort every type. The ones that cannot, such as the counting sort for
+ * long[] or the radix sort for records, throw UnsupportedOperationException; supports tells you
+ * ahead of time. isStable tells you whether records with equal keys keep their order.
+ */
+public interface Sorter {
+
+    /**
+     * Compares two records by their record numbers, the way a Comparator compares two objects. The
+     * records usually live in parallel primitive arrays, such as an array of temperatures and an array
+     * of city codes, so comparing them needs no objects.
+     */
+    interface IndexComparator {
+        int compare(int i, int j);
+    }// end IndexComparator
+
+    /**
+     * The kinds of data a Sorter can be asked to sort
+     */
+    enum Type {INT, LONG, DOUBLE, INDEX}
+
+    /**
+     * @return the name of the algorithm, as used by Sorters.forName
+     */
+    String name();
+
+    /**
+     * @param type a kind of data
+     * @return true if this sorter can sort it
+     */
+    boolean supports(Type type);
+
+    /**
+     * A stable sort keeps elements that compare equal in the order they started in. For int[], long[]
+     * and double[] that makes no difference, but for sortIndexes it means records with equal keys stay
+     * in index order, so sorting by a secondary key and then by a primary key sorts by both.
+     * @return true if the algorithm is stable
+     */
+    boolean isStable();
+
+    /**
+     * Sorts the array in place
+     * @param array the array to sort
+     * @return the metrics for this sort
+     */
+    SortMetrics sort(int[] array);
+
+    /**
+     * Sorts the array in place
+     * @param array the array to sort
+     * @return the metrics for this sort
+     */
+    SortMetrics sort(long[] array);
+
+    /**
+     * Sorts the array in place, in the order of Double.compare
+     * @param array the array to sort
+     * @return the metrics for this sort
+     */
+    SortMetrics sort(double[] array);
+
+    /**
+     * Sorts an array of record numbers in place so the records they refer to are in order
+     * @param indexes the record numbers to sort
+     * @param comparator compares two records by number
+     * @return the metrics for this sort
+     */
+    SortMetrics sortIndexes(int[] indexes, IndexComparator comparator);
+
+    /**
+     * Works out the sorted order of size records without moving them
+     * @param size the number of records, numbered 0 to size - 1
+     * @param comparator compares two records by number
+     * @return the record numbers in sorted order, so element i is the record that belongs at position i
+     */
+    default int[] sortedOrder(int size, IndexComparator comparator){
+        int[] indexes = new int[size];
+        for(int i = 0; i < size; i++){
+            indexes[i] = i;
+        }// end for
+        sortIndexes(indexes, comparator);
+        return indexes;
+    }// end sortedOrder
+}// end interface Sorter
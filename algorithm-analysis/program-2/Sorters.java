@@ -0,0 +1,188 @@
+/**
+ *
+ * @author Blake Mills
+ * COSC 3325 - Sorter registry
+ *
+ * The purpose of this class is to turn each sorting algorithm in program-2 into a Sorter that can be
+ * looked up by name and swapped for another one. The names match the ones SortBenchmark uses.
+ *
+ *   insertion, merge-buffered, intro  sort int[], long[], double[] and record indexes
+ *   radix                              sorts int[], long[] and double[]
+ *   merge, merge-blocked, natural-merge, quick, quick-3way, quick-dual, quick-branchless,
+ *   parallel-merge, parallel-quick, parallel-sample, counting
+ *                                      sort int[] only
+ *
+ * insertion, the merge sorts (except parallel-merge) and radix are stable; the others are not. For a
+ * stable sort of records by an int key without a Merge sort's copying, see PairSorts.
+ *
+ * Example, sorting readings by temperature and then city without creating any objects per reading:
+ *   double[] temps = ...; int[] cities = ...;
+ *   int[] order = Sorters.forName("merge-buffered").sortedOrder(temps.length, (i, j) -> {
+ *       int byTemp = Double.compare(temps[i], temps[j]);
+ *       return byTemp != 0 ? byTemp : Integer.compare(cities[i], cities[j]);
+ *   });
+ */
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+public class Sorters {
+    private static final Map<String, Sorter> SORTERS = createSorters(); // every sorter by name, in benchmark order
+
+    /**
+     * Looks up a sorter by name
+     * @param name the algorithm's name
+     * @return the sorter
+     * @throws IllegalArgumentException if there is no sorter with that name
+     */
+    public static Sorter forName(String name){
+        Sorter sorter = SORTERS.get(name);
+        if(sorter == null){
+            throw new IllegalArgumentException("Unknown algorithm: " + name + " (known: " + SORTERS.keySet() + ")");
+        }// end if
+        return sorter;
+    }// end forName
+
+    /**
+     * @return every sorter, in the order the benchmarks run them
+     */
+    public static Collection<Sorter> all(){
+        return Collections.unmodifiableCollection(SORTERS.values());
+    }// end all
+
+    /**
+     * Builds the sorters from the sorts in SortingAlgorithms2, PrimitiveSorts, ParallelSorts, ParallelSampleSort
+     * and RadixSorts
+     * @return the sorters by name
+     */
+    private static Map<String, Sorter> createSorters(){
+        Map<String, Sorter> sorters = new LinkedHashMap<>();
+        add(sorters, new Strategy("insertion", true, SortingAlgorithms2::performInsertionSort,
+                PrimitiveSorts::performInsertionSort, PrimitiveSorts::performInsertionSort,
+                PrimitiveSorts::performInsertionSort));
+        add(sorters, new Strategy("merge", true, SortingAlgorithms2::performMergeSort, null, null, null));
+        add(sorters, new Strategy("merge-buffered", true, SortingAlgorithms2::performBufferedMergeSort,
+                PrimitiveSorts::performMergeSort, PrimitiveSorts::performMergeSort, PrimitiveSorts::performMergeSort));
+        add(sorters, new Strategy("merge-blocked", true, SortingAlgorithms2::performBlockedMergeSort, null, null, null));
+        add(sorters, new Strategy("natural-merge", true, SortingAlgorithms2::performNaturalMergeSort, null, null, null));
+        add(sorters, new Strategy("quick", false, SortingAlgorithms2::performQuickSort, null, null, null));
+        add(sorters, new Strategy("quick-3way", false,
+                array -> SortingAlgorithms2.performQuickSort(array, SortingAlgorithms2.PartitionScheme.THREE_WAY),
+                null, null, null));
+        add(sorters, new Strategy("quick-dual", false,
+                array -> SortingAlgorithms2.performQuickSort(array, SortingAlgorithms2.PartitionScheme.DUAL_PIVOT),
+                null, null, null));
+        add(sorters, new Strategy("quick-branchless", false,
+                array -> SortingAlgorithms2.performQuickSort(array, SortingAlgorithms2.PartitionScheme.BRANCHLESS_LOMUTO),
+                null, null, null));
+        add(sorters, new Strategy("intro", false, SortingAlgorithms2::performIntroSort,
+                PrimitiveSorts::performIntroSort, PrimitiveSorts::performIntroSort, PrimitiveSorts::performIntroSort));
+        // its small ranges are finished by sorting networks, which do not keep equal elements in order
+        add(sorters, new Strategy("parallel-merge", false, ParallelSorts::parallelMergeSort, null, null, null));
+        add(sorters, new Strategy("parallel-quick", false, ParallelSorts::parallelQuickSort, null, null, null));
+        add(sorters, new Strategy("parallel-sample", false, ParallelSampleSort::parallelSampleSort, null, null, null));
+        add(sorters, new Strategy("radix", true, RadixSorts::performRadixSort, RadixSorts::performRadixSort,
+                RadixSorts::performRadixSort, null));
+        // it rebuilds the array from counts, so there is no original order of equal elements to keep
+        add(sorters, new Strategy("counting", false, RadixSorts::performCountingSort, null, null, null));
+        return sorters;
+    }// end createSorters
+
+    /**
+     * Adds a sorter to the map under its name
+     * @param sorters the map
+     * @param sorter the sorter
+     */
+    private static void add(Map<String, Sorter> sorters, Sorter sorter){
+        sorters.put(sorter.name(), sorter);
+    }// end add
+
+    /**
+     * A Sorter made from one sort method per type. A type whose method is null is not supported.
+     * The functions take whole arrays, so nothing is boxed per element.
+     */
+    private static class Strategy implements Sorter {
+        private final String name; // the algorithm's name
+        private final boolean stable; // true if equal elements keep their order
+        private final Function<int[], SortMetrics> intSort; // sorts int[]
+        private final Function<long[], SortMetrics> longSort; // sorts long[], or null
+        private final Function<double[], SortMetrics> doubleSort; // sorts double[], or null
+        private final BiFunction<int[], IndexComparator, SortMetrics> indexSort; // sorts record numbers, or null
+
+        Strategy(String name, boolean stable, Function<int[], SortMetrics> intSort, Function<long[], SortMetrics> longSort,
+                Function<double[], SortMetrics> doubleSort, BiFunction<int[], IndexComparator, SortMetrics> indexSort){
+            this.name = name;
+            this.stable = stable;
+            this.intSort = intSort;
+            this.longSort = longSort;
+            this.doubleSort = doubleSort;
+            this.indexSort = indexSort;
+        }
+
+        @Override
+        public String name(){
+            return name;
+        }// end name
+
+        @Override
+        public boolean supports(Type type){
+            switch(type){
+                case INT:
+                    return intSort != null;
+                case LONG:
+                    return longSort != null;
+                case DOUBLE:
+                    return doubleSort != null;
+                default:
+                    return indexSort != null;
+            }// end switch
+        }// end supports
+
+        @Override
+        public boolean isStable(){
+            return stable;
+        }// end isStable
+
+        @Override
+        public SortMetrics sort(int[] array){
+            return intSort.apply(array);
+        }// end sort
+
+        @Override
+        public SortMetrics sort(long[] array){
+            return require(longSort, Type.LONG).apply(array);
+        }// end sort
+
+        @Override
+        public SortMetrics sort(double[] array){
+            return require(doubleSort, Type.DOUBLE).apply(array);
+        }// end sort
+
+        @Override
+        public SortMetrics sortIndexes(int[] indexes, IndexComparator comparator){
+            return require(indexSort, Type.INDEX).apply(indexes, comparator);
+        }// end sortIndexes
+
+        /**
+         * Checks that a type is supported before sorting it
+         * @param function the sort method for the type
+         * @param type the type
+         * @return the sort method
+         * @throws UnsupportedOperationException if the method is null
+         */
+        private <F> F require(F function, Type type){
+            if(function == null){
+                throw new UnsupportedOperationException(name + " cannot sort " + type + " data");
+            }// end if
+            return function;
+        }// end require
+
+        @Override
+        public String toString(){
+            return name;
+        }// end toString
+    }// end Strategy
+}// end class Sorters
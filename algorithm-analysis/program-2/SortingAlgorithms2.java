@@ -1,321 +1,1368 @@
-/**
- * 
- * @author Blake Mills
- * 11/16/2025
- * COSC 3325 - Programming Assignment 2
- * 
- * The purpose of this class is to compare the number of comparisons it takes for three
- * different sorting algorithms to sort four different sized arrays filled with
- * pseudo-random integers. The program starts by creating 4 different integer arrays with
- * 4 different sizes: 10, 100, 1000, and 10000. It then loads each with random integers, and
- * proceeds to run an insertion sort on each array outputting the number of integers in the
- * array as well as the number of comparisons required for the sort. The class then goes on to
- * fill the 4 arrays with pseudo-random integers again and runs a merge sort on the data also
- * outputting the number of integers in each array as well as comparisons it took to sort. It then
- * repeats this same process a third time for quick sort.
- */
-import java.util.Random;
-
-
-public class SortingAlgorithms2 {
-    private static long counter = 0; // counter used to keep track of the number of comparisons in each algoritm
-    private static String finalArrayString = ""; // string to hold the unsorted and sorted 100-element arrays for output
-    public static void main(String[] args) throws Exception {
-        int [] array10 = new int[10]; // a 10-integer array that holds random integers to be sorted
-        int [] array100 = new int[100]; // a 100-integer array that holds random integers to be sorted
-        int [] array1000 = new int[1000]; // a 1000-integer array that holds random integers to be sorted
-        int [] array10000 = new int[10000]; // a 10,000-integer array that holds random integers to be sorted
-        
-        finalArrayString += "Unsorted array for Insertion Sort:\n";
-        //load each array with random integers for insertion sort
-        loadArrayWithRandoms(array10);
-        loadArrayWithRandoms(array100);
-        loadArrayWithRandoms(array1000);
-        loadArrayWithRandoms(array10000);
-
-        // perform insertion sort on each array
-        System.out.println("SORTING ALGORITHM: Insertion Sort\n");
-        performInsertionSort(array10);
-        performInsertionSort(array100);
-        performInsertionSort(array1000);
-        performInsertionSort(array10000);
-
-        finalArrayString += "\nUnsorted array for Merge Sort:\n";
-        //load each array with random integers for Merge sort
-        loadArrayWithRandoms(array10);
-        loadArrayWithRandoms(array100);
-        loadArrayWithRandoms(array1000);
-        loadArrayWithRandoms(array10000);
-
-        // perform a Merge sort on each array
-        System.out.println("SORTING ALGORITHM: Merge Sort\n");
-        array10 = performMergeSort(array10);
-        printData(array10, counter);
-        counter = 0;
-        array100 = performMergeSort(array100);
-        printData(array100, counter);
-        counter=0;
-        array1000 = performMergeSort(array1000);
-        printData(array1000, counter);
-        counter = 0;
-        array10000 = performMergeSort(array10000);
-        printData(array10000, counter);
-        counter = 0;
-
-        finalArrayString += "\nUnsorted array for Quick Sort:\n";
-        //load each array with random integers for a Quick sort
-        loadArrayWithRandoms(array10);
-        loadArrayWithRandoms(array100);
-        loadArrayWithRandoms(array1000);
-        loadArrayWithRandoms(array10000);
-
-        //perform Quick sort on each array
-        System.out.println("SORTING ALGORITHM: Quick Sort\n");
-        performQuickSort(array10);
-        counter = 0;
-        performQuickSort(array100);
-        counter = 0;
-        performQuickSort(array1000);
-        counter = 0;
-        performQuickSort(array10000);
-
-        System.out.println(finalArrayString);
-    }// end main
-
-    /**
-     * Performs a Merge sort on the array passed to it followed by outputting the number of integers in the array and the
-     * number of comparisons it took to sort the array
-     * @param array the array to sort
-     */
-    public static int[] performMergeSort(int[] array){
-        // base case (for recursion): if the array is null or has 1 or fewer elements, it is already sorted
-        if(array == null || array.length <= 1){
-            return array;
-        }
-
-        int middle = array.length / 2; // finds middle index of the array
-        int[] leftArray = new int[middle]; // holds the left sub-array
-        int[] rightArray = new int[array.length - middle]; // holds the right sub-array
-
-        // copy elements into left sub array
-        for (int i = 0; i < middle; i++) {
-            leftArray[i] = array[i];
-        }
-        // copy elements into right sub array
-        for(int j = 0; j < array.length - middle; j++){
-            rightArray[j] = array[middle + j];
-        }
-
-        // perform merge sort recursively on both sub-arrays (this runs until base case is met)
-        performMergeSort(leftArray);
-        performMergeSort(rightArray);
-
-        // merge the two sub-arrays into the main array
-        merge(array, leftArray, rightArray);
-
-        return array; // return the sorted array
-    } // end performMergeSort
-
-    /**
-     * This is a helper method for the performMergeSort method. The purpose of
-     * this method is to merge two sorted sub-arrays into one, sorted array by comparing elements
-     * between the two sub-arrays.
-     * @param array the array to merge the two sub-arrays into
-     * @param left the left sub-array
-     * @param right the right sub-array
-     */
-    private static void merge(int[] array, int[] left, int[] right) {
-        int i=0; // index for left sub-array position
-        int j=0; // index for right sub-array position
-        int k=0; // index for main array position
-
-        // while there are still elements in both sub-arrays to compare, compare the sizes of
-        // the next two elements and insert the smaller integer
-        while(i< left.length && j < right.length){
-            // if the left element is less than or equal to the right element, insert it!
-            if(left[i] <= right[j]){
-                array[k] = left[i];
-                i++;
-            } // end if
-            // if the right element is less than the left element, insert it!
-            else {
-                array[k] = right[j];
-                j++;
-            } // end else
-
-            counter++; // increment the comparison count
-            k++; // increment the main array index
-        } // end while
-
-        // if there are remaining elements in the left sub-array, add them to the main array
-        while(i < left.length){
-            array[k] = left[i];
-            i++;
-            k++;
-        }// end while
-        // if there are remaining elements in the right sub-array, add them to the main array
-        while(j < right.length){
-            array[k] = right[j];
-            j++;
-            k++;
-        }// end while
-    }// end merge
-
-    /**
-     * Performs a Quick sort on the array passed to it followed by 
-     * outputting the number of integers in the array and the
-     * number of comparisons it took to sort the array
-     * @param array the array to sort
-     */
-    public static void performQuickSort(int[] array){
-        // call the quickSort method to sort the array
-        quickSort(array, 0, array.length - 1);
-        // print out the data about the sort
-        printData(array, counter);
-    }// end performQuickSort
-
-    /**
-     * The main Quick sort algorithm that recursively sorts the array by partitioning it
-     * and sorting the partitions
-     * @param a the array to sort
-     * @param l the left index
-     * @param r the right index
-     */
-    public static void quickSort(int[] a, int l, int r){
-        int s; // define an integer for the partition index
-
-        // if the left index is less than the right index
-        // partition the array and sort the partitions
-        if(l < r){
-            // partition the array and get the partition index
-            s = partition(a,l,r);
-            // recursively sort the left partition
-            quickSort(a,l,s-1);
-            // recursively sort the right partition
-            quickSort(a,s+1,r);
-        } // end if
-    }// end quickSort
-
-    /**
-     * Partitions the array into two sub-arrays based on a pivot value
-     * @param a the array to partition
-     * @param l the left index
-     * @param r the right index
-     * @return the partition index
-     */
-    private static int partition(int[] a, int l, int r){
-        // define pivot, index i, index j, and a temporary variable
-        int p, i, j, temp;
-
-        // set the pivot to the leftmost element
-        p = a[l];
-        // set i to the left index and j to the right index + 1
-        i = l;
-        j = r + 1;
-        // loop indefinitely
-        while (true) {
-            do {
-                // increment i and the comparison counter 
-                i = i + 1;
-                counter = counter + 1;
-                // while the element at index i is less than the pivot
-                // and i is less than or equal to the right index
-            } while (i <= r && a[i] < p);
-            do {
-                // decrement j and increment the comparison counter
-                j = j - 1;
-                counter = counter + 1;
-                // while the element at index j is greater than the pivot
-                // and j is greater than or equal to the left index
-            } while (j >= l && a[j] > p);
-            // if i is greater than or equal to j, break the loop
-            if (i >= j) {
-                break;
-            }// end if
-            // swap the elements at index i and j
-            temp = a[i];
-            a[i] = a[j];
-            a[j] = temp;
-        }// end while
-        // swap the pivot element with the element at index j
-        temp = a[l];
-        a[l] = a[j];
-        a[j] = temp;
-        // return the partition index
-        return j;
-    } // end partition
-    
-    /**
-     * Performs an insertion sort on the array passed to it 
-     * followed by outputting the number of integers in the array
-     * and the number of comparisons it took to sort the array
-     * @param array the array to sort
-     */
-    public static void performInsertionSort(int[] array){
-        // for each element in the array starting from index 1
-        for (int i = 1; i < array.length; i++) {
-            
-            int key = array[i]; // store the current element as key
-            int j = i - 1; // set j to the index before i
-
-            // for each element before the key
-            // compare it to the key and shift elements as needed
-            while (j >= 0) {
-                counter++; // increment comparison counter
-                // if the element at index j is greater than the key
-                if (array[j] > key) {
-                    array[j + 1] = array[j]; // shift element at j to the right
-                    j--; // decrement j to compare with the next element
-                } //end if            counter++; // increment comparison count for the first comparison
-                else {
-                    break; // exit loop if the correct position for key is found
-                }// end else
-            }// end while
-            array[j + 1] = key; // place key in its correct position
-        }// end for
-        // print out the data about the sort
-        printData(array, counter);
-        counter = 0; // reset counter for next sort
-    }// end performInsertionSort
-
-    /**
-     * Loads the integer array arrayToLoad (of any size) with pseudo-random integers up to Integer.MAX_VALUE
-     * @param arrayToLoad the specified array to be loaded
-     */
-    public static void loadArrayWithRandoms(int[] arrayToLoad){
-        
-        // declare a new Random variable named randy
-        Random randy = new Random();
-        // for each index of the array
-        for(int i=0;i<arrayToLoad.length;i++){
-            //place a pseudo-random integer in the index's spot from 0 to Integer.MAX_VALUE
-            arrayToLoad[i] = randy.nextInt(Integer.MAX_VALUE);
-            // if this is the 100-element array, add to our final output string of unsorted arrays
-            if(arrayToLoad.length == 100){
-                if(i==0) finalArrayString += "[ ";
-                finalArrayString += arrayToLoad[i] + ", ";
-                if(i==99) finalArrayString += " ]";
-            }// end if
-        }// end for
-    }// end loadArrayWithRandoms
-
-    /**
-     * Prints out data about a sort, including the sorting algorithm used,
-     * number of values in the array, and number of comparisons required to sort
-     * @param sortType the type of sorting algorithm used
-     * @param array the array that was sorted
-     * @param comparisons the number of comparisons required to sort the array
-     */
-    public static void printData(int[] array, long comparisons){
-        System.out.println("Size of array: "+array.length);
-        System.out.println("Number of comparisons made: " + comparisons + "\n");
-        // if this is the 100-element array, add to our final output string of sorted arrays
-        if(array.length == 100){
-            finalArrayString += "\nSorted array:\n[ ";
-            for(int i=0;i<array.length;i++){
-                finalArrayString += array[i] + ", ";
-            }
-            finalArrayString += " ]\n";
-        }// end if
-    }// end printData
+/**
+ * 
+ * @author Blake Mills
+ * 11/16/2025
+ * COSC 3325 - Programming Assignment 2
+ * 
+ * The purpose of this class is to compare the number of comparisons it takes for three
+ * different sorting algorithms to sort four different sized arrays filled with
+ * pseudo-random integers. The program starts by creating 4 different integer arrays with
+ * 4 different sizes: 10, 100, 1000, and 10000. It then loads each with random integers, and
+ * proceeds to run an insertion sort on each array outputting the number of integers in the
+ * array as well as the number of comparisons required for the sort. The class then goes on to
+ * fill the 4 arrays with pseudo-random integers again and runs a merge sort on the data also
+ * outputting the number of integers in each array as well as comparisons it took to sort. It then
+ * repeats this same process a third time for quick sort.
+ */
+
+
+public class SortingAlgorithms2 {
+    private static final DataGenerator generator = new DataGenerator(); // source of the random test data
+    private static final int INTRO_NETWORK_CUTOFF = SortingNetworks.MAX_SIZE; // partitions this size or smaller are finished by a sorting network
+    private static final int NINTHER_THRESHOLD = 128; // ranges larger than this use the ninther as the pivot
+    private static final int BLOCKED_MERGE_BLOCK = 1 << 13; // elements per block the blocked Merge sort sorts in cache (32 KB)
+    private static final int BLOCKED_MERGE_WAYS = 16; // runs merged at once by each pass of the blocked Merge sort
+    private static final int NATURAL_MIN_MERGE = 32; // natural Merge sort arrays shorter than this are one insertion sorted run
+    private static final int NATURAL_MIN_GALLOP = 7; // wins in a row before a natural merge starts galloping
+    private static final int NATURAL_MAX_RUNS = 64; // more pending runs than the balance rule allows for any int length
+
+    /**
+     * The ways quickSort can partition a range
+     */
+    public enum PartitionScheme {
+        HOARE, // one pivot (the leftmost element), two partitions; the original partition method
+        THREE_WAY, // one median-of-three pivot, three partitions: less than, equal to and greater than the pivot
+        DUAL_PIVOT, // two pivots (taken from a third of the way in from each end), three partitions (Yaroslavskiy)
+        BRANCHLESS_LOMUTO // one median-of-three pivot, two partitions built without branching on the data
+    }// end PartitionScheme
+
+    public static void main(String[] args) throws Exception {
+        StringBuilder finalArrayString = new StringBuilder(); // holds the unsorted and sorted 100-element arrays for output
+        int [] array10 = new int[10]; // a 10-integer array that holds random integers to be sorted
+        int [] array100 = new int[100]; // a 100-integer array that holds random integers to be sorted
+        int [] array1000 = new int[1000]; // a 1000-integer array that holds random integers to be sorted
+        int [] array10000 = new int[10000]; // a 10,000-integer array that holds random integers to be sorted
+        
+        finalArrayString.append("Unsorted array for Insertion Sort:\n");
+        //load each array with random integers for insertion sort
+        loadArrayWithRandoms(array10);
+        loadArrayWithRandoms(array100);
+        loadArrayWithRandoms(array1000);
+        loadArrayWithRandoms(array10000);
+        appendArray(finalArrayString, array100);
+
+        // perform insertion sort on each array
+        System.out.println("SORTING ALGORITHM: Insertion Sort\n");
+        printData(array10, performInsertionSort(array10));
+        printData(array100, performInsertionSort(array100));
+        printData(array1000, performInsertionSort(array1000));
+        printData(array10000, performInsertionSort(array10000));
+        finalArrayString.append("\nSorted array:\n");
+        appendArray(finalArrayString, array100);
+        finalArrayString.append("\n");
+
+        finalArrayString.append("\nUnsorted array for Merge Sort:\n");
+        //load each array with random integers for Merge sort
+        loadArrayWithRandoms(array10);
+        loadArrayWithRandoms(array100);
+        loadArrayWithRandoms(array1000);
+        loadArrayWithRandoms(array10000);
+        appendArray(finalArrayString, array100);
+
+        // perform a Merge sort on each array
+        System.out.println("SORTING ALGORITHM: Merge Sort\n");
+        printData(array10, performMergeSort(array10));
+        printData(array100, performMergeSort(array100));
+        printData(array1000, performMergeSort(array1000));
+        printData(array10000, performMergeSort(array10000));
+        finalArrayString.append("\nSorted array:\n");
+        appendArray(finalArrayString, array100);
+        finalArrayString.append("\n");
+
+        finalArrayString.append("\nUnsorted array for Quick Sort:\n");
+        //load each array with random integers for a Quick sort
+        loadArrayWithRandoms(array10);
+        loadArrayWithRandoms(array100);
+        loadArrayWithRandoms(array1000);
+        loadArrayWithRandoms(array10000);
+        appendArray(finalArrayString, array100);
+
+        //perform Quick sort on each array
+        System.out.println("SORTING ALGORITHM: Quick Sort\n");
+        printData(array10, performQuickSort(array10));
+        printData(array100, performQuickSort(array100));
+        printData(array1000, performQuickSort(array1000));
+        printData(array10000, performQuickSort(array10000));
+        finalArrayString.append("\nSorted array:\n");
+        appendArray(finalArrayString, array100);
+        finalArrayString.append("\n");
+
+        System.out.println(finalArrayString);
+    }// end main
+
+    /**
+     * Performs a Merge sort on the array passed to it and returns the number of comparisons,
+     * moves and recursion depth it took to sort the array, along with how long it took. It is stable:
+     * equal elements keep the order they started in.
+     * @param array the array to sort
+     * @return the metrics for this sort
+     */
+    public static SortMetrics performMergeSort(int[] array){
+        SortMetrics metrics = new SortMetrics(); // the statistics for this sort
+        long start = System.nanoTime();
+        mergeSort(array, metrics, 1);
+        metrics.setElapsedNanos(System.nanoTime() - start);
+        return metrics;
+    } // end performMergeSort
+
+    /**
+     * The recursive part of performMergeSort
+     * @param array the array to sort
+     * @param metrics the statistics for this sort
+     * @param depth the depth of this call, where the first call is depth 1
+     */
+    private static void mergeSort(int[] array, SortMetrics metrics, int depth){
+        metrics.recordDepth(depth);
+        // base case (for recursion): if the array is null or has 1 or fewer elements, it is already sorted
+        if(array == null || array.length <= 1){
+            return;
+        }
+
+        int middle = array.length / 2; // finds middle index of the array
+        int[] leftArray = new int[middle]; // holds the left sub-array
+        int[] rightArray = new int[array.length - middle]; // holds the right sub-array
+
+        // copy elements into left sub array
+        for (int i = 0; i < middle; i++) {
+            leftArray[i] = array[i];
+        }
+        // copy elements into right sub array
+        for(int j = 0; j < array.length - middle; j++){
+            rightArray[j] = array[middle + j];
+        }
+        metrics.addMoves(array.length); // every element was copied into a sub-array
+
+        // perform merge sort recursively on both sub-arrays (this runs until base case is met)
+        mergeSort(leftArray, metrics, depth + 1);
+        mergeSort(rightArray, metrics, depth + 1);
+
+        // merge the two sub-arrays into the main array
+        merge(array, leftArray, rightArray, metrics);
+    } // end mergeSort
+
+    /**
+     * This is a helper method for the performMergeSort method. The purpose of
+     * this method is to merge two sorted sub-arrays into one, sorted array by comparing elements
+     * between the two sub-arrays.
+     * @param array the array to merge the two sub-arrays into
+     * @param left the left sub-array
+     * @param right the right sub-array
+     * @param metrics the statistics for this sort
+     */
+    private static void merge(int[] array, int[] left, int[] right, SortMetrics metrics) {
+        int i=0; // index for left sub-array position
+        int j=0; // index for right sub-array position
+        int k=0; // index for main array position
+
+        // while there are still elements in both sub-arrays to compare, compare the sizes of
+        // the next two elements and insert the smaller integer
+        while(i< left.length && j < right.length){
+            // if the left element is less than or equal to the right element, insert it!
+            if(left[i] <= right[j]){
+                array[k] = left[i];
+                i++;
+            } // end if
+            // if the right element is less than the left element, insert it!
+            else {
+                array[k] = right[j];
+                j++;
+            } // end else
+
+            metrics.addComparison(); // increment the comparison count
+            k++; // increment the main array index
+        } // end while
+
+        // if there are remaining elements in the left sub-array, add them to the main array
+        while(i < left.length){
+            array[k] = left[i];
+            i++;
+            k++;
+        }// end while
+        // if there are remaining elements in the right sub-array, add them to the main array
+        while(j < right.length){
+            array[k] = right[j];
+            j++;
+            k++;
+        }// end while
+        metrics.addMoves(array.length); // every element was written back into the main array
+    }// end merge
+
+    /**
+     * Performs a Merge sort that allocates a single auxiliary buffer up front instead of
+     * new left and right sub-arrays at every level of recursion. Each level merges from one
+     * of the two arrays into the other (ping-pong), so no copying back is needed. It makes
+     * exactly the same comparisons as performMergeSort, and is stable like it.
+     * @param array the array to sort
+     * @return the metrics for this sort
+     */
+    public static SortMetrics performBufferedMergeSort(int[] array){
+        SortMetrics metrics = new SortMetrics(); // the statistics for this sort
+        // if the array is null or has 1 or fewer elements, it is already sorted
+        if(array == null || array.length <= 1){
+            metrics.recordDepth(1);
+            return metrics;
+        }
+        long start = System.nanoTime();
+        // the one buffer for the whole sort, starting as a copy of the array
+        int[] buffer = array.clone();
+        metrics.addMoves(array.length);
+        // sort the buffer's contents into the array
+        bufferedMergeSort(buffer, array, 0, array.length, metrics, 1);
+        metrics.setElapsedNanos(System.nanoTime() - start);
+        return metrics;
+    }// end performBufferedMergeSort
+
+    /**
+     * This is a helper method for performBufferedMergeSort. It sorts the range [lo, hi) of source
+     * into the same range of destination. Both arrays must hold the same elements in that range when
+     * it is called. The halves are sorted from destination into source, and then merged back from
+     * source into destination, which swaps the roles of the two arrays at each level.
+     * @param source the array to merge from
+     * @param destination the array that receives the sorted range
+     * @param lo the first index of the range
+     * @param hi one past the last index of the range
+     * @param metrics the statistics for this sort
+     * @param depth the depth of this call, where the first call is depth 1
+     */
+    private static void bufferedMergeSort(int[] source, int[] destination, int lo, int hi, SortMetrics metrics, int depth){
+        metrics.recordDepth(depth);
+        // a range of one element is already sorted
+        if(hi - lo <= 1){
+            return;
+        }
+        int middle = lo + (hi - lo) / 2; // split point, matching performMergeSort's left half size
+
+        // sort each half of destination into source (the roles swap at every level)
+        bufferedMergeSort(destination, source, lo, middle, metrics, depth + 1);
+        bufferedMergeSort(destination, source, middle, hi, metrics, depth + 1);
+
+        // merge the two sorted halves from source back into destination
+        mergeRuns(source, destination, lo, middle, hi, metrics);
+    }// end bufferedMergeSort
+
+    /**
+     * Merges the sorted ranges [lo, middle) and [middle, hi) of source into [lo, hi) of destination.
+     * This is the merge step shared by the buffered and parallel merge sorts.
+     * @param source the array holding the two sorted ranges
+     * @param destination the array that receives the merged range
+     * @param lo the first index of the left range
+     * @param middle the first index of the right range
+     * @param hi one past the last index of the right range
+     * @param metrics the statistics for the sort doing the merge
+     */
+    static void mergeRuns(int[] source, int[] destination, int lo, int middle, int hi, SortMetrics metrics){
+        int i = lo; // index for left half position
+        int j = middle; // index for right half position
+        int k = lo; // index for destination position
+
+        // while both halves have elements, insert the smaller one
+        while(i < middle && j < hi){
+            // if the left element is less than or equal to the right element, insert it!
+            if(source[i] <= source[j]){
+                destination[k] = source[i];
+                i++;
+            } // end if
+            // if the right element is less than the left element, insert it!
+            else {
+                destination[k] = source[j];
+                j++;
+            } // end else
+
+            metrics.addComparison(); // increment the comparison count
+            k++; // increment the destination index
+        } // end while
+
+        // copy whichever half still has elements left
+        System.arraycopy(source, i, destination, k, middle - i);
+        System.arraycopy(source, j, destination, k + (middle - i), hi - j);
+        metrics.addMoves(hi - lo); // every element in the range was written once
+    }// end mergeRuns
+
+    /**
+     * Performs a bottom-up, blocked Merge sort on the array passed to it and returns its metrics. The
+     * top-down Merge sorts make log2(n) passes over the whole array, and once the array is much larger
+     * than the CPU caches every one of those passes has to come from main memory. This sort first sorts
+     * each block of BLOCKED_MERGE_BLOCK elements (small enough that the block and its part of the buffer
+     * stay in the L1/L2 cache while it is sorted), then merges BLOCKED_MERGE_WAYS sorted runs at a time
+     * with a loser tree. That makes only log16(n / 8192) passes over main memory, for example 4 instead of
+     * 27 for 10^8 elements. It makes about the same number of comparisons as performBufferedMergeSort, and
+     * is stable.
+     * @param array the array to sort
+     * @return the metrics for this sort
+     */
+    public static SortMetrics performBlockedMergeSort(int[] array){
+        SortMetrics metrics = new SortMetrics(); // the statistics for this sort
+        metrics.recordDepth(1);
+        long start = System.nanoTime();
+        int n = array.length;
+        int[] buffer = new int[n]; // the second array the passes alternate with
+
+        // sort each cache-sized block in place, using its part of the buffer as scratch
+        for(int lo = 0; lo < n; lo += BLOCKED_MERGE_BLOCK){
+            int hi = Math.min(n, lo + BLOCKED_MERGE_BLOCK);
+            System.arraycopy(array, lo, buffer, lo, hi - lo);
+            metrics.addMoves(hi - lo);
+            bufferedMergeSort(buffer, array, lo, hi, metrics, 1);
+        }// end for
+
+        // merge groups of runs until one run covers the whole array
+        int[] source = array; // holds the sorted runs before this pass
+        int[] destination = buffer; // receives the merged runs in this pass
+        for(long runLength = BLOCKED_MERGE_BLOCK; runLength < n; runLength *= BLOCKED_MERGE_WAYS){
+            for(long lo = 0; lo < n; lo += runLength * BLOCKED_MERGE_WAYS){
+                int hi = (int) Math.min(n, lo + runLength * BLOCKED_MERGE_WAYS);
+                loserTreeMerge(source, destination, (int) lo, hi, (int) runLength, metrics);
+            }// end for
+            int[] temp = source;
+            source = destination;
+            destination = temp;
+        }// end for
+
+        // an odd number of passes leaves the result in the buffer
+        if(source != array){
+            System.arraycopy(source, 0, array, 0, n);
+            metrics.addMoves(n);
+        }// end if
+        metrics.setElapsedNanos(System.nanoTime() - start);
+        return metrics;
+    }// end performBlockedMergeSort
+
+    /**
+     * Merges the sorted runs of runLength elements in [lo, hi) of source (the last one may be shorter)
+     * into [lo, hi) of destination with a loser tree. The tree has one leaf per run; each inner node
+     * remembers the run that lost the match played there, and node 0 holds the overall winner, the run
+     * whose next element is smallest. After the winner's element is written, only the matches on the
+     * path from its leaf to the root are replayed, so each element costs log2(k) comparisons for k runs,
+     * and the tree itself is small enough to stay in the L1 cache.
+     * @param source the array holding the sorted runs
+     * @param destination the array that receives the merged range
+     * @param lo the first index of the first run
+     * @param hi one past the last index of the last run
+     * @param runLength the length of each run
+     * @param metrics the statistics for the sort
+     */
+    private static void loserTreeMerge(int[] source, int[] destination, int lo, int hi, int runLength, SortMetrics metrics){
+        int runs = (int) (((long) hi - lo + runLength - 1) / runLength); // number of runs in the range
+        if(runs == 1){
+            System.arraycopy(source, lo, destination, lo, hi - lo);
+            metrics.addMoves(hi - lo);
+            return;
+        }// end if
+        int leaves = Integer.highestOneBit(runs - 1) * 2; // runs rounded up to a power of two; the extras are empty
+        int[] next = new int[leaves]; // next[r] is the index of run r's next element
+        int[] end = new int[leaves]; // end[r] is one past run r's last element
+        // heads[r] is run r's next element in the top 32 bits and r in the bottom 32, so comparing two heads
+        // compares the elements and breaks ties by run number, which keeps the merge stable; an empty run's
+        // head is Long.MAX_VALUE, so it loses every match
+        long[] heads = new long[leaves];
+        for(int r = 0; r < leaves; r++){
+            next[r] = (int) Math.min(hi, lo + (long) r * runLength);
+            end[r] = (int) Math.min(hi, lo + (long) (r + 1) * runLength);
+            heads[r] = next[r] < end[r] ? ((long) source[next[r]] << 32) | r : Long.MAX_VALUE;
+        }// end for
+
+        // play every match from the leaves up, keeping the winners of each level in winners
+        int[] tree = new int[leaves]; // tree[0] is the winner, tree[1 .. leaves - 1] the losers
+        int[] winners = new int[2 * leaves];
+        for(int r = 0; r < leaves; r++){
+            winners[leaves + r] = r;
+        }// end for
+        for(int node = leaves - 1; node >= 1; node--){
+            int a = winners[2 * node];
+            int b = winners[2 * node + 1];
+            winners[node] = heads[b] < heads[a] ? b : a;
+            tree[node] = heads[b] < heads[a] ? a : b;
+        }// end for
+        tree[0] = winners[1];
+
+        for(int k = lo; k < hi; k++){
+            // write the winner's element and load the next one from its run
+            int winner = tree[0];
+            destination[k] = source[next[winner]++];
+            long head = next[winner] < end[winner] ? ((long) source[next[winner]] << 32) | winner : Long.MAX_VALUE;
+            heads[winner] = head;
+            // replay the winner's matches on the way back to the root
+            for(int node = (leaves + winner) >>> 1; node >= 1; node >>>= 1){
+                int other = tree[node];
+                if(heads[other] < head){
+                    tree[node] = winner;
+                    winner = other;
+                    head = heads[other];
+                }// end if
+            }// end for
+            tree[0] = winner;
+        }// end for
+        metrics.addComparisons((long) (hi - lo) * Integer.numberOfTrailingZeros(leaves) + leaves - 1);
+        metrics.addMoves(hi - lo);
+    }// end loserTreeMerge
+
+    /**
+     * Performs a natural Merge sort (in the style of TimSort) on the array passed to it and returns its
+     * metrics. Instead of always splitting the array in half, it walks the array once looking for runs
+     * that are already in order: ascending runs are kept, strictly descending runs are reversed, and runs
+     * shorter than a minimum length (between 16 and 32) are extended with a binary insertion sort. The
+     * runs are merged as they are found, keeping their lengths balanced, and each merge first skips the
+     * parts of the two runs that are already in place and then gallops (searches ahead exponentially)
+     * whenever one run keeps winning. An already sorted array is one run and takes n - 1 comparisons,
+     * and a sorted array with a batch of new elements appended costs little more than sorting the batch.
+     * The sort is stable. Its depth in the metrics is the most runs waiting to be merged at once.
+     * @param array the array to sort
+     * @return the metrics for this sort
+     */
+    public static SortMetrics performNaturalMergeSort(int[] array){
+        SortMetrics metrics = new SortMetrics(); // the statistics for this sort
+        metrics.recordDepth(1);
+        long start = System.nanoTime();
+        int n = array.length;
+        if(n > 1){
+            NaturalMergeState state = new NaturalMergeState(metrics);
+            int minRun = minRunLength(n); // shortest run worth merging
+            int lo = 0; // start of the next run
+            while(lo < n){
+                int runLength = countRun(array, lo, n, metrics);
+                // extend a short run to minRun elements with binary insertion sort
+                if(runLength < minRun){
+                    int forced = Math.min(minRun, n - lo);
+                    binaryInsertionSort(array, lo, lo + forced, lo + runLength, metrics);
+                    runLength = forced;
+                }// end if
+                state.pushRun(array, lo, runLength);
+                lo += runLength;
+            }// end while
+            state.mergeAll(array);
+        }// end if
+        metrics.setElapsedNanos(System.nanoTime() - start);
+        return metrics;
+    }// end performNaturalMergeSort
+
+    /**
+     * Works out the minimum run length for an array of n elements the way TimSort does, so the number
+     * of runs is a power of two or just under one and the merges stay balanced
+     * @param n the array length
+     * @return the minimum run length, between NATURAL_MIN_MERGE / 2 and NATURAL_MIN_MERGE
+     */
+    private static int minRunLength(int n){
+        int r = 0; // becomes 1 if any bit shifted off is set
+        while(n >= NATURAL_MIN_MERGE){
+            r |= n & 1;
+            n >>= 1;
+        }// end while
+        return n + r;
+    }// end minRunLength
+
+    /**
+     * Finds the length of the run starting at lo. A run is either non-descending or strictly
+     * descending; a descending run is reversed in place so every run ends up ascending. Equal elements
+     * never start a descending run, which keeps the sort stable.
+     * @param a the array
+     * @param lo the first index of the run
+     * @param hi one past the last index that may be part of the run
+     * @param metrics the statistics for the sort
+     * @return the length of the run
+     */
+    private static int countRun(int[] a, int lo, int hi, SortMetrics metrics){
+        int end = lo + 1; // one past the end of the run found so far
+        if(end == hi){
+            return 1;
+        }// end if
+        metrics.addComparison();
+        if(a[end] < a[lo]){
+            // strictly descending
+            end++;
+            while(end < hi){
+                metrics.addComparison();
+                if(a[end] >= a[end - 1]){
+                    break;
+                }// end if
+                end++;
+            }// end while
+            // reverse the run so it ascends
+            for(int i = lo, j = end - 1; i < j; i++, j--){
+                swap(a, i, j, metrics);
+            }// end for
+        }
+        else {
+            // non-descending
+            end++;
+            while(end < hi){
+                metrics.addComparison();
+                if(a[end] < a[end - 1]){
+                    break;
+                }// end if
+                end++;
+            }// end while
+        }// end else
+        return end - lo;
+    }// end countRun
+
+    /**
+     * Sorts [lo, hi) when [lo, start) is already sorted, inserting each later element at the place a
+     * binary search finds for it. After an equal element, so it is stable.
+     * @param a the array
+     * @param lo the first index of the range
+     * @param hi one past the last index of the range
+     * @param start the first index that is not yet sorted
+     * @param metrics the statistics for the sort
+     */
+    private static void binaryInsertionSort(int[] a, int lo, int hi, int start, SortMetrics metrics){
+        for(int i = start; i < hi; i++){
+            int key = a[i]; // the element being inserted
+            int left = lo;
+            int right = i;
+            // find the first element greater than the key
+            while(left < right){
+                int middle = (left + right) >>> 1;
+                metrics.addComparison();
+                if(key < a[middle]){
+                    right = middle;
+                }
+                else {
+                    left = middle + 1;
+                }// end else
+            }// end while
+            // shift the larger elements right by one and drop the key into the gap
+            System.arraycopy(a, left, a, left + 1, i - left);
+            a[left] = key;
+            metrics.addMoves(i - left + 1);
+        }// end for
+    }// end binaryInsertionSort
+
+    /**
+     * Finds the first index in [lo, hi) whose element is greater than key (so every element equal to
+     * key comes before it). It checks positions 1, 3, 7, 15, ... past lo until it overshoots and then
+     * binary searches the last gap, which takes O(log k) comparisons when the answer is k past lo.
+     * @param key the value to search for
+     * @param a the array, sorted in [lo, hi)
+     * @param lo the first index to search
+     * @param hi one past the last index to search
+     * @param metrics the statistics for the sort
+     * @return the index of the first element greater than key, or hi if there is none
+     */
+    private static int gallopRight(int key, int[] a, int lo, int hi, SortMetrics metrics){
+        int bound = 1; // a[lo + bound - 1] is the next position checked
+        while(bound - 1 < hi - lo){
+            metrics.addComparison();
+            if(a[lo + bound - 1] > key){
+                break;
+            }// end if
+            // stop doubling at the end of the range, so bound cannot overflow on a huge array
+            bound = bound > (hi - lo) / 2 ? hi - lo + 1 : bound * 2;
+        }// end while
+        int left = lo + bound / 2; // every element before this is <= key
+        int right = Math.min(hi, lo + bound - 1); // this element is > key, or it is hi
+        while(left < right){
+            int middle = (left + right) >>> 1;
+            metrics.addComparison();
+            if(a[middle] > key){
+                right = middle;
+            }
+            else {
+                left = middle + 1;
+            }// end else
+        }// end while
+        return left;
+    }// end gallopRight
+
+    /**
+     * Finds the first index in [lo, hi) whose element is greater than or equal to key (so every
+     * element equal to key comes after it), galloping like gallopRight
+     * @param key the value to search for
+     * @param a the array, sorted in [lo, hi)
+     * @param lo the first index to search
+     * @param hi one past the last index to search
+     * @param metrics the statistics for the sort
+     * @return the index of the first element >= key, or hi if there is none
+     */
+    private static int gallopLeft(int key, int[] a, int lo, int hi, SortMetrics metrics){
+        int bound = 1; // a[lo + bound - 1] is the next position checked
+        while(bound - 1 < hi - lo){
+            metrics.addComparison();
+            if(a[lo + bound - 1] >= key){
+                break;
+            }// end if
+            // stop doubling at the end of the range, so bound cannot overflow on a huge array
+            bound = bound > (hi - lo) / 2 ? hi - lo + 1 : bound * 2;
+        }// end while
+        int left = lo + bound / 2; // every element before this is < key
+        int right = Math.min(hi, lo + bound - 1); // this element is >= key, or it is hi
+        while(left < right){
+            int middle = (left + right) >>> 1;
+            metrics.addComparison();
+            if(a[middle] >= key){
+                right = middle;
+            }
+            else {
+                left = middle + 1;
+            }// end else
+        }// end while
+        return left;
+    }// end gallopLeft
+
+    /**
+     * The runs found so far by performNaturalMergeSort that are still waiting to be merged, and the
+     * buffer the merges use
+     */
+    private static class NaturalMergeState {
+        private final SortMetrics metrics; // the statistics for the sort
+        private final int[] runBase = new int[NATURAL_MAX_RUNS]; // first index of each pending run
+        private final int[] runLength = new int[NATURAL_MAX_RUNS]; // length of each pending run
+        private int runs; // number of pending runs
+        private int[] buffer = new int[0]; // holds the left run during a merge; grows as needed
+
+        NaturalMergeState(SortMetrics metrics){
+            this.metrics = metrics;
+        }
+
+        /**
+         * Adds a run to the stack and merges until the run lengths are balanced again
+         * @param a the array
+         * @param base the first index of the run
+         * @param length the length of the run
+         */
+        void pushRun(int[] a, int base, int length){
+            runBase[runs] = base;
+            runLength[runs] = length;
+            runs++;
+            metrics.recordDepth(runs);
+            // keep each run longer than the two above it combined (TimSort's invariant), so the
+            // stack stays O(log n) deep and merges are between runs of similar length
+            while(runs > 1){
+                int n = runs - 2; // merge runs n and n + 1
+                if((n > 0 && runLength[n - 1] <= runLength[n] + runLength[n + 1])
+                        || (n > 1 && runLength[n - 2] <= runLength[n - 1] + runLength[n])){
+                    if(runLength[n - 1] < runLength[n + 1]){
+                        n--;
+                    }// end if
+                }
+                else if(runLength[n] > runLength[n + 1]){
+                    break;
+                }// end else if
+                mergeAt(a, n);
+            }// end while
+        }// end pushRun
+
+        /**
+         * Merges every pending run into one, finishing the sort
+         * @param a the array
+         */
+        void mergeAll(int[] a){
+            while(runs > 1){
+                int n = runs - 2;
+                if(n > 0 && runLength[n - 1] < runLength[n + 1]){
+                    n--;
+                }// end if
+                mergeAt(a, n);
+            }// end while
+        }// end mergeAll
+
+        /**
+         * Merges pending runs i and i + 1, which are next to each other in the array
+         * @param a the array
+         * @param i the stack index of the left run
+         */
+        private void mergeAt(int[] a, int i){
+            int base1 = runBase[i];
+            int length1 = runLength[i];
+            int base2 = runBase[i + 1];
+            int length2 = runLength[i + 1];
+
+            // record the combined run and slide any run above the pair down
+            runLength[i] = length1 + length2;
+            if(i == runs - 3){
+                runBase[i + 1] = runBase[i + 2];
+                runLength[i + 1] = runLength[i + 2];
+            }// end if
+            runs--;
+
+            // elements at the start of the left run that are <= the right run's first are already in place
+            int skip = gallopRight(a[base2], a, base1, base1 + length1, metrics) - base1;
+            base1 += skip;
+            length1 -= skip;
+            if(length1 == 0){
+                return;
+            }// end if
+            // elements at the end of the right run that are >= the left run's last are already in place
+            length2 = gallopLeft(a[base1 + length1 - 1], a, base2, base2 + length2, metrics) - base2;
+            if(length2 == 0){
+                return;
+            }// end if
+            merge(a, base1, length1, base2, length2);
+        }// end mergeAt
+
+        /**
+         * Merges the left run [base1, base1 + length1) with the right run that follows it. The left run is
+         * copied into the buffer and the merged result is written from base1 forward. When one run wins
+         * NATURAL_MIN_GALLOP times in a row the merge gallops, copying a whole block of that run at once.
+         * @param a the array
+         * @param base1 the first index of the left run
+         * @param length1 the length of the left run
+         * @param base2 the first index of the right run
+         * @param length2 the length of the right run
+         */
+        private void merge(int[] a, int base1, int length1, int base2, int length2){
+            if(buffer.length < length1){
+                buffer = new int[Math.max(length1, Math.min(a.length / 2, 2 * buffer.length))];
+            }// end if
+            System.arraycopy(a, base1, buffer, 0, length1);
+            metrics.addMoves(length1);
+
+            int i = 0; // next element of the left run, in the buffer
+            int j = base2; // next element of the right run
+            int end2 = base2 + length2; // one past the right run
+            int k = base1; // next position to write
+            int leftWins = 0; // times in a row the left run supplied the element
+            int rightWins = 0; // times in a row the right run supplied the element
+            while(i < length1 && j < end2){
+                metrics.addComparison();
+                if(a[j] < buffer[i]){
+                    a[k++] = a[j++];
+                    rightWins++;
+                    leftWins = 0;
+                }
+                else {
+                    a[k++] = buffer[i++];
+                    leftWins++;
+                    rightWins = 0;
+                }// end else
+                metrics.addMove();
+
+                // one run keeps winning, so find how far it wins by and copy that block at once
+                if(leftWins >= NATURAL_MIN_GALLOP || rightWins >= NATURAL_MIN_GALLOP){
+                    if(j < end2){
+                        int count = gallopRight(a[j], buffer, i, length1, metrics) - i;
+                        System.arraycopy(buffer, i, a, k, count);
+                        i += count;
+                        k += count;
+                        metrics.addMoves(count);
+                    }// end if
+                    if(i < length1){
+                        int count = gallopLeft(buffer[i], a, j, end2, metrics) - j;
+                        System.arraycopy(a, j, a, k, count);
+                        j += count;
+                        k += count;
+                        metrics.addMoves(count);
+                    }// end if
+                    leftWins = 0;
+                    rightWins = 0;
+                }// end if
+            }// end while
+            // the rest of the right run is already in place; copy back whatever is left of the left run
+            System.arraycopy(buffer, i, a, k, length1 - i);
+            metrics.addMoves(length1 - i);
+        }// end merge
+    }// end NaturalMergeState
+
+    /**
+     * Performs a Quick sort on the array passed to it and returns the number of comparisons,
+     * swaps and recursion depth it took to sort the array, along with how long it took. No Quick sort
+     * scheme is stable, since partitioning swaps elements past equal ones.
+     * @param array the array to sort
+     * @return the metrics for this sort
+     */
+    public static SortMetrics performQuickSort(int[] array){
+        // call the quickSort method to sort the array
+        return quickSort(array, 0, array.length - 1);
+    }// end performQuickSort
+
+    /**
+     * Performs a Quick sort on the array passed to it using the chosen partitioning scheme
+     * and returns its metrics
+     * @param array the array to sort
+     * @param scheme how to partition each range
+     * @return the metrics for this sort
+     */
+    public static SortMetrics performQuickSort(int[] array, PartitionScheme scheme){
+        return quickSort(array, 0, array.length - 1, scheme);
+    }// end performQuickSort
+
+    /**
+     * Quick sorts the elements from index l to index r (inclusive) of the array
+     * @param a the array to sort
+     * @param l the left index
+     * @param r the right index
+     * @return the metrics for this sort
+     */
+    public static SortMetrics quickSort(int[] a, int l, int r){
+        return quickSort(a, l, r, PartitionScheme.HOARE);
+    }// end quickSort
+
+    /**
+     * Quick sorts the elements from index l to index r (inclusive) of the array using the chosen
+     * partitioning scheme. THREE_WAY and DUAL_PIVOT do much less work than HOARE when the array
+     * holds many equal keys, since every key equal to a pivot is put in its final place at once.
+     * @param a the array to sort
+     * @param l the left index
+     * @param r the right index
+     * @param scheme how to partition each range
+     * @return the metrics for this sort
+     */
+    public static SortMetrics quickSort(int[] a, int l, int r, PartitionScheme scheme){
+        SortMetrics metrics = new SortMetrics(); // the statistics for this sort
+        long start = System.nanoTime();
+        switch(scheme){
+            case THREE_WAY:
+                threeWayQuickSort(a, l, r, metrics, 1);
+                break;
+            case DUAL_PIVOT:
+                dualPivotQuickSort(a, l, r, metrics, 1);
+                break;
+            case BRANCHLESS_LOMUTO:
+                branchlessQuickSort(a, l, r, metrics, 1);
+                break;
+            default:
+                quickSort(a, l, r, metrics, 1);
+                break;
+        }// end switch
+        metrics.setElapsedNanos(System.nanoTime() - start);
+        return metrics;
+    }// end quickSort
+
+    /**
+     * The main Quick sort algorithm that recursively sorts the array by partitioning it
+     * and sorting the partitions
+     * @param a the array to sort
+     * @param l the left index
+     * @param r the right index
+     * @param metrics the statistics for this sort
+     * @param depth the depth of this call, where the first call is depth 1
+     */
+    static void quickSort(int[] a, int l, int r, SortMetrics metrics, int depth){
+        int s; // define an integer for the partition index
+        metrics.recordDepth(depth);
+
+        // if the left index is less than the right index
+        // partition the array and sort the partitions
+        if(l < r){
+            // partition the array and get the partition index
+            s = partition(a,l,r,metrics);
+            // recursively sort the left partition
+            quickSort(a,l,s-1,metrics,depth+1);
+            // recursively sort the right partition
+            quickSort(a,s+1,r,metrics,depth+1);
+        } // end if
+    }// end quickSort
+
+    /**
+     * Partitions the array into two sub-arrays based on a pivot value
+     * @param a the array to partition
+     * @param l the left index
+     * @param r the right index
+     * @param metrics the statistics for the sort doing the partitioning
+     * @return the partition index
+     */
+    static int partition(int[] a, int l, int r, SortMetrics metrics){
+        // define pivot, index i, index j, and a temporary variable
+        int p, i, j, temp;
+
+        // set the pivot to the leftmost element
+        p = a[l];
+        // set i to the left index and j to the right index + 1
+        i = l;
+        j = r + 1;
+        // loop indefinitely
+        while (true) {
+            do {
+                // increment i and the comparison counter 
+                i = i + 1;
+                metrics.addComparison();
+                // while the element at index i is less than the pivot
+                // and i is less than or equal to the right index
+            } while (i <= r && a[i] < p);
+            do {
+                // decrement j and increment the comparison counter
+                j = j - 1;
+                metrics.addComparison();
+                // while the element at index j is greater than the pivot
+                // and j is greater than or equal to the left index
+            } while (j >= l && a[j] > p);
+            // if i is greater than or equal to j, break the loop
+            if (i >= j) {
+                break;
+            }// end if
+            // swap the elements at index i and j
+            temp = a[i];
+            a[i] = a[j];
+            a[j] = temp;
+            metrics.addSwap();
+        }// end while
+        // swap the pivot element with the element at index j
+        temp = a[l];
+        a[l] = a[j];
+        a[j] = temp;
+        metrics.addSwap();
+        // return the partition index
+        return j;
+    } // end partition
+
+    /**
+     * Quick sort using branchlessPartition. It picks the pivot the same way as introSort, recurses into the
+     * smaller partition and loops on the larger one, and finishes ranges of SortingNetworks.MAX_SIZE or
+     * fewer elements with a sorting network, so the data never decides which way a branch goes.
+     * @param a the array to sort
+     * @param l the left index
+     * @param r the right index
+     * @param metrics the statistics for this sort
+     * @param depth the depth of this call, where the first call is depth 1
+     */
+    static void branchlessQuickSort(int[] a, int l, int r, SortMetrics metrics, int depth){
+        metrics.recordDepth(depth);
+        while(r - l + 1 > SortingNetworks.MAX_SIZE){
+            choosePivot(a, l, r, metrics);
+            int s = branchlessPartition(a, l, r, false, metrics);
+            if(s == l){
+                // the pivot is the smallest value in the range, so gather every copy of it at the left
+                // end where they belong; without this, a range of equal keys would take O(n^2)
+                l = branchlessPartition(a, l, r, true, metrics) + 1;
+                continue;
+            }// end if
+            // recurse into the smaller side, loop on the larger side
+            if(s - l < r - s){
+                branchlessQuickSort(a, l, s - 1, metrics, depth + 1);
+                l = s + 1;
+            }
+            else {
+                branchlessQuickSort(a, s + 1, r, metrics, depth + 1);
+                r = s - 1;
+            }// end else
+        }// end while
+        SortingNetworks.sort(a, l, r, metrics);
+    }// end branchlessQuickSort
+
+    /**
+     * Partitions the range around the pivot in a[l] with a Lomuto partition that does not branch on the
+     * data. Every element is swapped into position i whether or not it is smaller than the pivot, and i
+     * only moves past it when it is; the comparison becomes a 0 or 1 that is added to i. Hoare's partition
+     * branches on every comparison, which goes either way at random on random data.
+     * @param a the array to partition
+     * @param l the left index, which holds the pivot
+     * @param r the right index
+     * @param equalsLeft true to put elements equal to the pivot in the left partition instead of the right
+     * @param metrics the statistics for the sort doing the partitioning
+     * @return the partition index
+     */
+    static int branchlessPartition(int[] a, int l, int r, boolean equalsLeft, SortMetrics metrics){
+        long limit = equalsLeft ? (long) a[l] + 1 : a[l]; // elements below this go left of the pivot
+        int i = l + 1; // a[l + 1 .. i - 1] belong left of the pivot
+        for(int j = l + 1; j <= r; j++){
+            int x = a[j];
+            a[j] = a[i];
+            a[i] = x;
+            // the sign bit of x - limit (done in long so it cannot overflow) is 1 exactly when x < limit
+            i += (int) ((x - limit) >>> 63);
+        }// end for
+        metrics.addComparisons(r - l);
+        metrics.addMoves(2L * (r - l));
+        // put the pivot between the two partitions
+        swap(a, l, i - 1, metrics);
+        return i - 1;
+    }// end branchlessPartition
+
+    /**
+     * Quick sort using a three-way (Dutch national flag) partition. The range is split into keys
+     * less than, equal to and greater than the pivot, and only the outer two parts are sorted further.
+     * The pivot is chosen the same way as in introSort, so sorted input does not cause deep recursion.
+     * @param a the array to sort
+     * @param l the left index
+     * @param r the right index
+     * @param metrics the statistics for this sort
+     * @param depth the depth of this call, where the first call is depth 1
+     */
+    static void threeWayQuickSort(int[] a, int l, int r, SortMetrics metrics, int depth){
+        metrics.recordDepth(depth);
+        if(l >= r){
+            return;
+        }
+        choosePivot(a, l, r, metrics);
+        int p = a[l]; // the pivot value
+        int lt = l; // a[l..lt-1] is less than the pivot
+        int gt = r; // a[gt+1..r] is greater than the pivot
+        int i = l + 1; // a[lt..i-1] is equal to the pivot, a[i..gt] is not looked at yet
+        while(i <= gt){
+            metrics.addComparison();
+            if(a[i] < p){
+                // move it to the less-than part
+                swap(a, lt, i, metrics);
+                lt++;
+                i++;
+            }
+            else {
+                metrics.addComparison();
+                if(a[i] > p){
+                    // move it to the greater-than part, and look at whatever was swapped in next
+                    swap(a, i, gt, metrics);
+                    gt--;
+                }
+                else {
+                    i++; // equal to the pivot, so it stays where it is
+                }// end else
+            }// end else
+        }// end while
+        // sort the less-than and greater-than parts
+        threeWayQuickSort(a, l, lt - 1, metrics, depth + 1);
+        threeWayQuickSort(a, gt + 1, r, metrics, depth + 1);
+    }// end threeWayQuickSort
+
+    /**
+     * Quick sort using Yaroslavskiy's dual-pivot partition. The elements a third of the way in from
+     * each end are moved to the ends and used as the pivots p <= q, and the range is split into keys
+     * less than p, keys from p to q, and keys greater than q.
+     * @param a the array to sort
+     * @param l the left index
+     * @param r the right index
+     * @param metrics the statistics for this sort
+     * @param depth the depth of this call, where the first call is depth 1
+     */
+    static void dualPivotQuickSort(int[] a, int l, int r, SortMetrics metrics, int depth){
+        metrics.recordDepth(depth);
+        if(l >= r){
+            return;
+        }
+        // take the pivots from inside the range so sorted input still splits evenly
+        int third = (r - l + 1) / 3; // a third of the range
+        if(third > 0){
+            swap(a, l, l + third, metrics);
+            swap(a, r, r - third, metrics);
+        }// end if
+        // make sure the left pivot is not larger than the right pivot
+        metrics.addComparison();
+        if(a[l] > a[r]){
+            swap(a, l, r, metrics);
+        }
+        int p = a[l]; // the left pivot
+        int q = a[r]; // the right pivot
+        int lt = l + 1; // a[l+1..lt-1] is less than p
+        int gt = r - 1; // a[gt+1..r-1] is greater than q
+        int k = l + 1; // a[lt..k-1] is between p and q, a[k..gt] is not looked at yet
+        while(k <= gt){
+            metrics.addComparison();
+            if(a[k] < p){
+                // move it to the less-than part
+                swap(a, k, lt, metrics);
+                lt++;
+            }
+            else {
+                metrics.addComparison();
+                if(a[k] > q){
+                    // skip over keys at the right end that are already greater than q
+                    while(k < gt){
+                        metrics.addComparison();
+                        if(a[gt] <= q){
+                            break;
+                        }
+                        gt--;
+                    }// end while
+                    // move it to the greater-than part
+                    swap(a, k, gt, metrics);
+                    gt--;
+                    // the key swapped in may belong in the less-than part
+                    metrics.addComparison();
+                    if(a[k] < p){
+                        swap(a, k, lt, metrics);
+                        lt++;
+                    }// end if
+                }// end if
+            }// end else
+            k++;
+        }// end while
+        lt--;
+        gt++;
+        // put the pivots in their final places
+        swap(a, l, lt, metrics);
+        swap(a, r, gt, metrics);
+
+        // sort the three parts (the middle one is all equal keys when the pivots are equal)
+        dualPivotQuickSort(a, l, lt - 1, metrics, depth + 1);
+        if(p < q){
+            dualPivotQuickSort(a, lt + 1, gt - 1, metrics, depth + 1);
+        }// end if
+        dualPivotQuickSort(a, gt + 1, r, metrics, depth + 1);
+    }// end dualPivotQuickSort
+
+    /**
+     * Swaps two elements of an array and records the swap
+     * @param a the array
+     * @param i the first index
+     * @param j the second index
+     * @param metrics the statistics for the sort doing the swap
+     */
+    private static void swap(int[] a, int i, int j, SortMetrics metrics){
+        int temp = a[i];
+        a[i] = a[j];
+        a[j] = temp;
+        metrics.addSwap();
+    }// end swap
+
+    /**
+     * Performs a hybrid (introsort) Quick sort on the array passed to it and returns its metrics.
+     * It partitions like quickSort, but picks a median-of-three (or ninther, for large ranges)
+     * pivot instead of always using the leftmost element, finishes small partitions with a sorting network, and
+     * switches to a heap sort if the recursion gets deeper than 2*log2(n). That keeps it at
+     * O(n log n) and shallow recursion on sorted, reversed and other patterned input. It is not stable.
+     * @param array the array to sort
+     * @return the metrics for this sort
+     */
+    public static SortMetrics performIntroSort(int[] array){
+        SortMetrics metrics = new SortMetrics(); // the statistics for this sort
+        long start = System.nanoTime();
+        introSort(array, 0, array.length - 1, metrics, 1, 2 * log2(array.length));
+        metrics.setElapsedNanos(System.nanoTime() - start);
+        return metrics;
+    }// end performIntroSort
+
+    /**
+     * The recursive part of performIntroSort. It recurses into the smaller partition and loops on the
+     * larger one, so the call stack never grows past log2(n) frames even before the depth limit.
+     * @param a the array to sort
+     * @param l the left index
+     * @param r the right index
+     * @param metrics the statistics for this sort
+     * @param depth the depth of this call, where the first call is depth 1
+     * @param depthLimit the number of partitioning levels left before switching to heap sort
+     */
+    static void introSort(int[] a, int l, int r, SortMetrics metrics, int depth, int depthLimit){
+        metrics.recordDepth(depth);
+        // keep partitioning while the range is too big for a sorting network
+        while(r - l + 1 > INTRO_NETWORK_CUTOFF){
+            // too many levels of partitioning means the pivots are bad, so heap sort the rest
+            if(depthLimit == 0){
+                heapSort(a, l, r, metrics);
+                return;
+            }// end if
+            depthLimit--;
+
+            // move a good pivot to the left end, then partition like quickSort does
+            choosePivot(a, l, r, metrics);
+            int s = partition(a, l, r, metrics);
+
+            // recurse into the smaller side, loop on the larger side
+            if(s - l < r - s){
+                introSort(a, l, s - 1, metrics, depth + 1, depthLimit);
+                l = s + 1;
+            }
+            else {
+                introSort(a, s + 1, r, metrics, depth + 1, depthLimit);
+                r = s - 1;
+            }// end else
+        }// end while
+        SortingNetworks.sort(a, l, r, metrics);
+    }// end introSort
+
+    /**
+     * Picks the pivot for a range and swaps it into a[l], where partition expects it. Small ranges
+     * use the median of the first, middle and last elements. Large ranges use Tukey's ninther, the
+     * median of three medians-of-three spread across the range.
+     * @param a the array
+     * @param l the left index
+     * @param r the right index
+     * @param metrics the statistics for the sort
+     */
+    static void choosePivot(int[] a, int l, int r, SortMetrics metrics){
+        int size = r - l + 1; // number of elements in the range
+        int middle = l + (r - l) / 2; // middle index of the range
+        int pivot; // index of the chosen pivot
+        if(size > NINTHER_THRESHOLD){
+            int step = size / 8; // distance between the samples
+            int first = medianOfThree(a, l, l + step, l + 2 * step, metrics);
+            int second = medianOfThree(a, middle - step, middle, middle + step, metrics);
+            int third = medianOfThree(a, r - 2 * step, r - step, r, metrics);
+            pivot = medianOfThree(a, first, second, third, metrics);
+        }
+        else {
+            pivot = medianOfThree(a, l, middle, r, metrics);
+        }// end else
+        // swap the pivot into the leftmost position
+        int temp = a[l];
+        a[l] = a[pivot];
+        a[pivot] = temp;
+        metrics.addSwap();
+    }// end choosePivot
+
+    /**
+     * Finds which of three positions holds the median of their values
+     * @param a the array
+     * @param i the first position
+     * @param j the second position
+     * @param k the third position
+     * @param metrics the statistics for the sort
+     * @return the position of the median value
+     */
+    private static int medianOfThree(int[] a, int i, int j, int k, SortMetrics metrics){
+        metrics.addComparison();
+        if(a[i] < a[j]){
+            metrics.addComparison();
+            if(a[j] < a[k]){
+                return j; // i < j < k
+            }
+            metrics.addComparison();
+            return a[i] < a[k] ? k : i; // j is the largest
+        }
+        metrics.addComparison();
+        if(a[i] < a[k]){
+            return i; // j <= i < k
+        }
+        metrics.addComparison();
+        return a[j] < a[k] ? k : j; // i is the largest
+    }// end medianOfThree
+
+    /**
+     * Heap sorts the elements from index l to index r (inclusive). This is the fallback introSort
+     * uses when partitioning is not making progress.
+     * @param a the array to sort
+     * @param l the left index
+     * @param r the right index
+     * @param metrics the statistics for the sort
+     */
+    static void heapSort(int[] a, int l, int r, SortMetrics metrics){
+        int n = r - l + 1; // number of elements in the heap
+        // build a max-heap out of the range
+        for(int i = n / 2 - 1; i >= 0; i--){
+            siftDown(a, l, i, n, metrics);
+        }// end for
+        // repeatedly move the largest element to the end and shrink the heap
+        for(int end = n - 1; end > 0; end--){
+            int temp = a[l];
+            a[l] = a[l + end];
+            a[l + end] = temp;
+            metrics.addSwap();
+            siftDown(a, l, 0, end, metrics);
+        }// end for
+    }// end heapSort
+
+    /**
+     * Moves the element at heap position i down until it is larger than both of its children
+     * @param a the array holding the heap
+     * @param offset the array index of heap position 0
+     * @param i the heap position to sift down
+     * @param n the number of elements in the heap
+     * @param metrics the statistics for the sort
+     */
+    private static void siftDown(int[] a, int offset, int i, int n, SortMetrics metrics){
+        int value = a[offset + i]; // the element being moved down
+        while(2 * i + 1 < n){
+            int child = 2 * i + 1; // the left child
+            // use the right child if it is larger
+            if(child + 1 < n){
+                metrics.addComparison();
+                if(a[offset + child + 1] > a[offset + child]){
+                    child++;
+                }
+            }// end if
+            metrics.addComparison();
+            // stop once the element is at least as large as its larger child
+            if(value >= a[offset + child]){
+                break;
+            }
+            a[offset + i] = a[offset + child];
+            metrics.addMove();
+            i = child;
+        }// end while
+        a[offset + i] = value;
+        metrics.addMove();
+    }// end siftDown
+
+    /**
+     * Computes floor(log2(n)), treating anything less than 2 as 1
+     * @param n the number
+     * @return the base-2 logarithm of n, rounded down
+     */
+    static int log2(int n){
+        return n < 2 ? 1 : 31 - Integer.numberOfLeadingZeros(n);
+    }// end log2
+
+    /**
+     * Performs an insertion sort on the array passed to it and returns
+     * the number of comparisons and moves it took to sort the array,
+     * along with how long it took. It is stable, since an element only moves past larger ones.
+     * @param array the array to sort
+     * @return the metrics for this sort
+     */
+    public static SortMetrics performInsertionSort(int[] array){
+        SortMetrics metrics = new SortMetrics(); // the statistics for this sort
+        metrics.recordDepth(1);
+        long start = System.nanoTime();
+        insertionSort(array, 0, array.length - 1, metrics);
+        metrics.setElapsedNanos(System.nanoTime() - start);
+        return metrics;
+    }// end performInsertionSort
+
+    /**
+     * Insertion sorts only the elements from index l to index r (inclusive), leaving the rest
+     * of the array alone. This is what the faster sorts use for small ranges.
+     * @param array the array to sort
+     * @param l the left index
+     * @param r the right index
+     * @param metrics the statistics for the sort doing the insertion sort
+     */
+    public static void insertionSort(int[] array, int l, int r, SortMetrics metrics){
+        // for each element in the range starting from the second one
+        for (int i = l + 1; i <= r; i++) {
+            
+            int key = array[i]; // store the current element as key
+            int j = i - 1; // set j to the index before i
+
+            // for each element before the key
+            // compare it to the key and shift elements as needed
+            while (j >= l) {
+                metrics.addComparison(); // increment comparison counter
+                // if the element at index j is greater than the key
+                if (array[j] > key) {
+                    array[j + 1] = array[j]; // shift element at j to the right
+                    metrics.addMove();
+                    j--; // decrement j to compare with the next element
+                } //end if            counter++; // increment comparison count for the first comparison
+                else {
+                    break; // exit loop if the correct position for key is found
+                }// end else
+            }// end while
+            array[j + 1] = key; // place key in its correct position
+            metrics.addMove();
+        }// end for
+    }// end insertionSort
+
+    /**
+     * Loads the integer array arrayToLoad (of any size) with pseudo-random integers up to Integer.MAX_VALUE
+     * @param arrayToLoad the specified array to be loaded
+     */
+    public static void loadArrayWithRandoms(int[] arrayToLoad){
+        // fill the array from the shared generator so each call gets new values
+        generator.fillUniform(arrayToLoad, Integer.MAX_VALUE);
+    }// end loadArrayWithRandoms
+
+    /**
+     * Prints out data about a sort, including the number of values in the array,
+     * the number of comparisons required to sort, and the rest of the sort's metrics
+     * @param array the array that was sorted
+     * @param metrics the metrics returned by the sort
+     */
+    public static void printData(int[] array, SortMetrics metrics){
+        System.out.println("Size of array: "+array.length);
+        System.out.println("Number of comparisons made: " + metrics.getComparisons());
+        System.out.println("Number of swaps made: " + metrics.getSwaps());
+        System.out.println("Number of moves made: " + metrics.getMoves());
+        System.out.println("Maximum recursion depth: " + metrics.getMaxDepth());
+        System.out.println("Time taken (ns): " + metrics.getElapsedNanos() + "\n");
+    }// end printData
+
+    /**
+     * Adds the contents of an array to the output in the form [ 1, 2, 3,  ]
+     * @param output the output to add to
+     * @param array the array to add
+     */
+    public static void appendArray(StringBuilder output, int[] array){
+        output.append("[ ");
+        for(int i=0;i<array.length;i++){
+            output.append(array[i]).append(", ");
+        }// end for
+        output.append(" ]");
+    }// end appendArray
 }// end class SortingAlgorithms2
\ No newline at end of file
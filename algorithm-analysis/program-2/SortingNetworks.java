@@ -0,0 +1,113 @@
+/**
+ *
+ * @author Blake Mills
+ * COSC 3325 - Sorting networks
+ *
+ * The purpose of this class is to sort ranges of up to 16 ints without branching on the data. A
+ * sorting network is a fixed list of compare-exchange steps: each one takes two positions and puts the
+ * smaller value in the first and the larger in the second. The list is the same for every input of a
+ * given size, so the only branches are the loop over the steps, which the CPU always predicts, and each
+ * compare-exchange is written with Math.min and Math.max, which the JIT turns into conditional moves.
+ * Insertion sort's "is this element bigger than the key" branch goes either way at random on random data,
+ * so it mispredicts about once per element it inserts.
+ *
+ * The networks are Batcher's odd-even merge sort, built once for 16 elements. A smaller range uses the
+ * same network with every step that touches a position past its end removed, which is the same as
+ * padding the range with values larger than everything in it.
+ */
+import java.util.Arrays;
+
+public class SortingNetworks {
+    public static final int MAX_SIZE = 16; // largest range the networks can sort
+    private static final int[][] NETWORKS = createNetworks(); // NETWORKS[n] holds the pairs of positions for n elements
+
+    /**
+     * Sorts the elements from index l to index r (inclusive) with a sorting network. The range must have
+     * at most MAX_SIZE elements. Every compare-exchange counts as a comparison and two moves.
+     * @param a the array to sort
+     * @param l the left index
+     * @param r the right index
+     * @param metrics the statistics for the sort
+     */
+    public static void sort(int[] a, int l, int r, SortMetrics metrics){
+        int n = r - l + 1; // number of elements in the range
+        if(n < 2){
+            return;
+        }// end if
+        if(n > MAX_SIZE){
+            throw new IllegalArgumentException("Sorting networks only sort up to " + MAX_SIZE + " elements: " + n);
+        }// end if
+        int[] network = NETWORKS[n];
+        for(int k = 0; k < network.length; k += 2){
+            int i = l + network[k];
+            int j = l + network[k + 1];
+            int x = a[i];
+            int y = a[j];
+            a[i] = Math.min(x, y);
+            a[j] = Math.max(x, y);
+        }// end for
+        metrics.addComparisons(network.length / 2);
+        metrics.addMoves(network.length);
+    }// end sort
+
+    /**
+     * Sorts the whole array with a sorting network and returns its metrics
+     * @param array the array to sort, with at most MAX_SIZE elements
+     * @return the metrics for this sort
+     */
+    public static SortMetrics performNetworkSort(int[] array){
+        SortMetrics metrics = new SortMetrics(); // the statistics for this sort
+        metrics.recordDepth(1);
+        long start = System.nanoTime();
+        sort(array, 0, array.length - 1, metrics);
+        metrics.setElapsedNanos(System.nanoTime() - start);
+        return metrics;
+    }// end performNetworkSort
+
+    /**
+     * @param n the number of elements
+     * @return the number of compare-exchange steps in the network for n elements
+     */
+    public static int size(int n){
+        return n < 2 ? 0 : NETWORKS[n].length / 2;
+    }// end size
+
+    /**
+     * Builds Batcher's odd-even merge sort network for MAX_SIZE elements, then a pruned copy for each
+     * smaller size
+     * @return the networks, indexed by the number of elements
+     */
+    private static int[][] createNetworks(){
+        // Batcher's construction: for each merge size p and each distance k within it, compare
+        // position i + j with i + j + k when both fall in the same block of 2p
+        int[] full = new int[2 * 64]; // 63 steps for 16 elements
+        int steps = 0;
+        for(int p = 1; p < MAX_SIZE; p *= 2){
+            for(int k = p; k >= 1; k /= 2){
+                for(int j = k % p; j + k < MAX_SIZE; j += 2 * k){
+                    for(int i = 0; i < k && i + j + k < MAX_SIZE; i++){
+                        if((i + j) / (2 * p) == (i + j + k) / (2 * p)){
+                            full[steps++] = i + j;
+                            full[steps++] = i + j + k;
+                        }// end if
+                    }// end for
+                }// end for
+            }// end for
+        }// end for
+
+        int[][] networks = new int[MAX_SIZE + 1][];
+        for(int n = 2; n <= MAX_SIZE; n++){
+            // keep only the steps where both positions are inside the range
+            int kept = 0;
+            int[] network = new int[steps];
+            for(int s = 0; s < steps; s += 2){
+                if(full[s + 1] < n){
+                    network[kept++] = full[s];
+                    network[kept++] = full[s + 1];
+                }// end if
+            }// end for
+            networks[n] = Arrays.copyOf(network, kept);
+        }// end for
+        return networks;
+    }// end createNetworks
+}// end class SortingNetworks
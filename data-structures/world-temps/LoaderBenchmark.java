@@ -0,0 +1,132 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+//Times the ways of loading city_temperature.csv: the original WorldTemps.importFile into a LinkedList,
+//TempTable.importFile (readLine and split into the columns), TempTableLoader with each thread count, and
+//writing and reading a TempSnapshot. Reports the best time of each as rows/s and MB/s of the file it reads
+//(the snapshot for TempSnapshot), and checks that the other loaders give the same table as TempTable.importFile.
+//Every loader includes building the indexes, which is shown on its own.
+//If the data file does not exist, a made-up one is written first with SampleData.
+//
+//Compile and run from the world-temps folder:
+//  javac -d bin *.java
+//  java -Xmx4g -cp bin LoaderBenchmark city_temperature.csv 3 1,2,4,8
+//
+//Arguments (all optional): the data file (default city_temperature.csv), how many times to load with
+//each loader (default 3) and the thread counts for TempTableLoader (default 1 and the number of processors).
+public class LoaderBenchmark {
+
+	public static void main(String[] args) throws IOException {
+		String dataFile = args.length > 0 ? args[0] : "city_temperature.csv";
+		int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+		String threadList = args.length > 2 ? args[2] : "1," + Runtime.getRuntime().availableProcessors();
+		if(!new File(dataFile).exists()) {
+			System.out.printf("%s not found, writing a sample file\n", dataFile);
+			SampleData.write(dataFile, 2906327, 42);
+		}
+		double megabytes = new File(dataFile).length() / 1048576.0;
+
+		PrintStream console = System.out;
+		PrintStream quiet = new PrintStream(OutputStream.nullOutputStream());
+
+		//the original loader, with its printing silenced
+		double best = Double.MAX_VALUE;
+		for(int i = 0; i < iterations; i++) {
+			LinkedList tempList = new LinkedList();
+			long start = System.nanoTime();
+			System.setOut(quiet);
+			WorldTemps.importFile(tempList, dataFile);
+			System.setOut(console);
+			best = Math.min(best, (System.nanoTime() - start) / 1e9);
+		}
+		TempTable expected = TempTable.importFile(dataFile);
+		int rows = expected.size();
+		System.out.printf("%s: %d rows, %.1f MB\n\n", dataFile, rows, megabytes);
+		System.out.printf("%-28s %10s %12s %10s %12s\n", "Loader", "Time (s)", "Rows/s", "MB/s", "Indexes (s)");
+		printRow("WorldTemps (LinkedList)", best, rows, megabytes, Double.NaN);
+
+		best = Double.MAX_VALUE;
+		double indexes = 0;
+		for(int i = 0; i < iterations; i++) {
+			long start = System.nanoTime();
+			TempTable table = TempTable.importFile(dataFile);
+			double seconds = (System.nanoTime() - start) / 1e9;
+			if(seconds < best) {
+				best = seconds;
+				indexes = table.getIndexBuildNanos() / 1e9;
+			}
+		}
+		printRow("TempTable.importFile", best, rows, megabytes, indexes);
+
+		for(String threadCount : threadList.split(",")) {
+			int threads = Integer.parseInt(threadCount.trim());
+			best = Double.MAX_VALUE;
+			for(int i = 0; i < iterations; i++) {
+				long start = System.nanoTime();
+				TempTable table = TempTableLoader.importFile(dataFile, threads);
+				double seconds = (System.nanoTime() - start) / 1e9;
+				if(seconds < best) {
+					best = seconds;
+					indexes = table.getIndexBuildNanos() / 1e9;
+				}
+				if(i == 0 && !sameTable(expected, table)) {
+					System.out.printf("TempTableLoader with %d threads gives a different table\n", threads);
+				}
+			}
+			printRow("TempTableLoader, " + threads + (threads == 1 ? " thread" : " threads"), best, rows,
+					megabytes, indexes);
+		}
+
+		//the snapshot, written from the table already loaded and then read back
+		Path csv = Path.of(dataFile);
+		Path snapshot = TempSnapshot.snapshotPath(csv);
+		best = Double.MAX_VALUE;
+		for(int i = 0; i < iterations; i++) {
+			long start = System.nanoTime();
+			TempSnapshot.write(expected, snapshot, csv);
+			best = Math.min(best, (System.nanoTime() - start) / 1e9);
+		}
+		double snapshotMegabytes = Files.size(snapshot) / 1048576.0;
+		printRow("TempSnapshot.write", best, rows, snapshotMegabytes, Double.NaN);
+		best = Double.MAX_VALUE;
+		for(int i = 0; i < iterations; i++) {
+			long start = System.nanoTime();
+			TempTable table = TempSnapshot.read(snapshot, csv);
+			double seconds = (System.nanoTime() - start) / 1e9;
+			if(seconds < best) {
+				best = seconds;
+				indexes = table == null ? Double.NaN : table.getIndexBuildNanos() / 1e9;
+			}
+			if(i == 0 && (table == null || !sameTable(expected, table))) {
+				System.out.println("TempSnapshot.read gives a different table");
+			}
+		}
+		printRow("TempSnapshot.read", best, rows, snapshotMegabytes, indexes);
+		System.out.printf("\nSnapshot: %.1f MB, CSV: %.1f MB\n", snapshotMegabytes, megabytes);
+	}
+
+	private static void printRow(String loader, double seconds, int rows, double megabytes, double indexSeconds) {
+		System.out.printf("%-28s %10.2f %12.0f %10.1f %12s\n", loader, seconds, rows / seconds, megabytes / seconds,
+				Double.isNaN(indexSeconds) ? "-" : String.format("%.2f", indexSeconds));
+	}
+
+	//true if both tables have the same rows in the same order
+	private static boolean sameTable(TempTable a, TempTable b) {
+		if(a.size() != b.size()) {
+			return false;
+		}
+		for(int row = 0; row < a.size(); row++) {
+			if(!a.getRegion(row).equals(b.getRegion(row)) || !a.getCountry(row).equals(b.getCountry(row))
+					|| !a.getState(row).equals(b.getState(row)) || !a.getCity(row).equals(b.getCity(row))
+					|| a.getMonth(row) != b.getMonth(row) || a.getDay(row) != b.getDay(row)
+					|| a.getYear(row) != b.getYear(row) || a.getAvgTemp(row) != b.getAvgTemp(row)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
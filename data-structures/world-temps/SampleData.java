@@ -0,0 +1,89 @@
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Random;
+
+//Writes a made-up city_temperature.csv with the same columns and roughly the same shape as the real
+//one (7 regions, about 125 countries, US states, one reading per city per day from 1995 to 2020,
+//about 3% of readings missing as -99), so the benchmarks can run without the real file.
+//Knoxville, Texas, Tennessee, Russia and the other places WorldTemps asks about are always included.
+public class SampleData {
+
+	private static final String[] REGIONS = {"Africa","Asia","Australia/South Pacific","Europe","Middle East",
+			"North America","South/Central America & Carribean"};
+	private static final String[] STATES = {"Alabama","Alaska","Arizona","Arkansas","California","Colorado",
+			"Connecticut","Delaware","Florida","Georgia","Hawaii","Idaho","Illinois","Indiana","Iowa","Kansas",
+			"Kentucky","Louisiana","Maine","Maryland","Massachusetts","Michigan","Minnesota","Mississippi",
+			"Missouri","Montana","Nebraska","Nevada","New Hampshire","New Jersey","New Mexico","New York",
+			"North Carolina","North Dakota","Ohio","Oklahoma","Oregon","Pennsylvania","Rhode Island",
+			"South Carolina","South Dakota","Tennessee","Texas","Utah","Vermont","Virginia","Washington",
+			"West Virginia","Wisconsin","Wyoming"};
+	private static final int FIRST_YEAR = 1995;
+	private static final int LAST_YEAR = 2020;
+	private static final int COUNTRIES = 125;
+	private static final int[] DAYS_IN_MONTH = {31,28,31,30,31,30,31,31,30,31,30,31};
+
+	public static void main(String[] args) throws IOException {
+		String file = args.length > 0 ? args[0] : "city_temperature.csv";
+		int rows = args.length > 1 ? Integer.parseInt(args[1]) : 2906327;
+		write(file, rows, 42);
+		System.out.printf("Wrote %d rows to %s\n", rows, file);
+	}
+
+	public static void write(String file, int rows, long seed) throws IOException {
+		Random random = new Random(seed);
+		try(BufferedWriter out = new BufferedWriter(new FileWriter(file), 1 << 16)) {
+			out.write("Region,Country,State,City,Month,Day,Year,AvgTemperature\n");
+			int written = 0;
+			for(int c = 0; written < rows; c++) {
+				//pick the city's place; the first few are the ones WorldTemps looks for
+				String region, country, state = "", city;
+				if(c == 0) {
+					region = "North America"; country = "US"; state = "Tennessee"; city = "Knoxville";
+				}
+				else if(c == 1) {
+					region = "North America"; country = "US"; state = "Texas"; city = "Houston";
+				}
+				else if(c == 2) {
+					region = "Europe"; country = "Russia"; city = "Moscow";
+				}
+				else if(c == 3) {
+					region = "South/Central America & Carribean"; country = "Brazil"; city = "Brasilia";
+				}
+				else if(c % 3 == 0) {
+					region = "North America"; country = "US"; state = STATES[random.nextInt(STATES.length)];
+					city = "City" + c;
+				}
+				else {
+					int countryNumber = random.nextInt(COUNTRIES);
+					region = REGIONS[countryNumber % REGIONS.length];
+					country = "Country" + countryNumber;
+					city = "City" + c;
+				}
+				//a yearly cycle around a mean that depends on the city, in Fahrenheit
+				double mean = 30 + random.nextDouble() * 50;
+				double swing = 5 + random.nextDouble() * 30;
+				for(int year = FIRST_YEAR; year <= LAST_YEAR && written < rows; year++) {
+					int dayOfYear = 0;
+					for(int month = 1; month <= 12 && written < rows; month++) {
+						for(int day = 1; day <= DAYS_IN_MONTH[month-1] && written < rows; day++) {
+							double temp;
+							if(random.nextInt(100) < 3) {
+								temp = -99;
+							}
+							else {
+								temp = mean - swing * Math.cos(2 * Math.PI * (dayOfYear - 15) / 365.0)
+										+ random.nextGaussian() * 5;
+								temp = Math.round(temp * 10) / 10.0;
+							}
+							out.write(region + "," + country + "," + state + "," + city + "," + month + ","
+									+ day + "," + year + "," + temp + "\n");
+							dayOfYear++;
+							written++;
+						}
+					}
+				}
+			}
+		}
+	}
+}
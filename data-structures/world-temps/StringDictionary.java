@@ -0,0 +1,49 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+
+//Gives every distinct String an int code, 0, 1, 2... in the order they are first seen,
+//so a column of repeated names can be stored as an int[] of codes
+public class StringDictionary {
+
+	private final HashMap<String, Integer> codes = new HashMap<>();
+	private final ArrayList<String> values = new ArrayList<>();
+
+	//returns the code for value, adding it if it is new
+	public int encode(String value) {
+		Integer code = codes.get(value);
+		if(code == null) {
+			code = values.size();
+			codes.put(value, code);
+			values.add(value);
+		}
+		return code;
+	}
+
+	public String decode(int code) {
+		return values.get(code);
+	}
+
+	public int size() {
+		return values.size();
+	}
+
+	//returns a mask with true at every code whose value equals value, ignoring case,
+	//so a scan can test a row with mask[code] instead of comparing Strings
+	public boolean[] matching(String value) {
+		boolean[] mask = new boolean[values.size()];
+		for(int i = 0; i < values.size(); i++) {
+			mask[i] = values.get(i).equalsIgnoreCase(value);
+		}
+		return mask;
+	}
+
+	//rough bytes used by the Strings and the map entries
+	public long memoryBytes() {
+		long bytes = 0;
+		for(String value : values) {
+			//String object + byte[] header + characters, plus a map entry and an Integer
+			bytes += 24 + 16 + value.length() + 32 + 16 + 4;
+		}
+		return bytes;
+	}
+}
@@ -0,0 +1,286 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+
+//Answers a batch of requests about a TempTable in one pass over its rows, instead of one findMax and
+//one findMin pass per request. A request is a filter, either every row or category = categoryValue the
+//same as TempTable.findMax takes, and gets back the count, minimum, maximum, average and standard
+//deviation of avgTemp over its rows, plus percentiles if asked for. Missing readings are skipped with
+//TempTable.isMissing, the same as findMin and findMax, and counted on their own.
+//
+//When the table has its indexes, a filtered request reads only its own rows from them, the same rows
+//findMax and findMin would read, and the pass over the whole table is left to the requests for every row.
+//Without indexes everything is answered in the one pass: before it every filtered column gets a table
+//from each of its values to the requests that want it, so a row costs one lookup per filtered column
+//however many requests there are.
+//Percentiles come from counting the readings in every 0.1 degree step from -100 to 200 (anything
+//outside counts as the end step), which is exact for data with one decimal place like city_temperature.csv.
+public class TempQuery {
+
+	private static final int STEPS_PER_DEGREE = 10;
+	private static final int LOWEST_STEP = -100 * STEPS_PER_DEGREE;
+	private static final int HIGHEST_STEP = 200 * STEPS_PER_DEGREE;
+	private static final String[] TEXT_CATEGORIES = {"Region","Country","State","City"};
+	private static final int[] NO_REQUESTS = {};
+
+	private final TempTable table;
+	private final ArrayList<String> names = new ArrayList<>();
+	private final ArrayList<String> categories = new ArrayList<>();
+	private final ArrayList<String> values = new ArrayList<>();
+	private final ArrayList<Boolean> percentiles = new ArrayList<>();
+
+	public TempQuery(TempTable table) {
+		this.table = table;
+	}
+
+	//Adds a request over every row
+	public void add(String name, boolean withPercentiles) {
+		add(name, null, null, withPercentiles);
+	}
+
+	//Adds a request over the rows where category = categoryValue. category is Region, Country, State,
+	//City, Month or Year, or null for every row. Results are keyed by name, so each name can only be used once.
+	public void add(String name, String category, String categoryValue, boolean withPercentiles) {
+		if(names.contains(name)) {
+			throw new IllegalArgumentException("Request already added: " + name);
+		}
+		if(category != null && textCategory(category) < 0) {
+			//Month and Year are the only others, and their value has to be a number
+			if(!category.equalsIgnoreCase("Month") && !category.equalsIgnoreCase("Year")) {
+				throw new IllegalArgumentException("Unknown category: " + category);
+			}
+			Integer.parseInt(categoryValue);
+		}
+		names.add(name);
+		categories.add(category);
+		values.add(categoryValue);
+		percentiles.add(withPercentiles);
+	}
+
+	//Runs every request, with at most one pass over the whole table. The results are in the order the requests
+	//were added.
+	public LinkedHashMap<String, Result> run() {
+		int requests = names.size();
+		Result[] results = new Result[requests];
+		boolean indexed = table.hasIndexes();
+		float[] temps = table.tempColumn();
+		boolean pass = false; //whether any request still needs the pass over every row
+		int[] everyRow = NO_REQUESTS;
+		int[][][] byCode = new int[TEXT_CATEGORIES.length][][];
+		int[][] byMonth = null;
+		int[][] byYear = null;
+		//for every filtered column, which requests want each value; month and year values are looked up
+		//by their bits, which works for negative values too
+		for(int r = 0; r < requests; r++) {
+			results[r] = new Result(percentiles.get(r));
+			String category = categories.get(r);
+			String value = values.get(r);
+			if(category == null) {
+				everyRow = append(everyRow, r);
+				pass = true;
+				continue;
+			}
+			if(indexed) {
+				for(int row : table.matchingRows(category, value)) {
+					results[r].add(temps[row], row);
+				}
+				continue;
+			}
+			pass = true;
+			if(textCategory(category) >= 0) {
+				int c = textCategory(category);
+				boolean[] mask = table.matchingCodes(category, value);
+				if(byCode[c] == null) {
+					byCode[c] = new int[mask.length][];
+				}
+				for(int code = 0; code < mask.length; code++) {
+					if(mask[code]) {
+						byCode[c][code] = append(byCode[c][code], r);
+					}
+				}
+			}
+			else if(category.equalsIgnoreCase("Month")) {
+				int month = Integer.parseInt(value);
+				if(byMonth == null) {
+					byMonth = new int[1 << Byte.SIZE][];
+				}
+				//a value the column cannot hold matches no rows
+				if(month == (byte) month) {
+					byMonth[month & 0xFF] = append(byMonth[month & 0xFF], r);
+				}
+			}
+			else {
+				int year = Integer.parseInt(value);
+				if(byYear == null) {
+					byYear = new int[1 << Short.SIZE][];
+				}
+				if(year == (short) year) {
+					byYear[year & 0xFFFF] = append(byYear[year & 0xFFFF], r);
+				}
+			}
+		}
+
+		int[][] codes = new int[TEXT_CATEGORIES.length][];
+		for(int c = 0; c < codes.length; c++) {
+			codes[c] = table.codeColumn(TEXT_CATEGORIES[c]);
+		}
+		byte[] month = table.monthColumn();
+		short[] year = table.yearColumn();
+		for(int i = 0; pass && i < table.size(); i++) {
+			float t = temps[i];
+			for(int r : everyRow) {
+				results[r].add(t, i);
+			}
+			for(int c = 0; c < codes.length; c++) {
+				if(byCode[c] != null) {
+					addAll(byCode[c][codes[c][i]], results, t, i);
+				}
+			}
+			if(byMonth != null) {
+				addAll(byMonth[month[i] & 0xFF], results, t, i);
+			}
+			if(byYear != null) {
+				addAll(byYear[year[i] & 0xFFFF], results, t, i);
+			}
+		}
+
+		LinkedHashMap<String, Result> keyed = new LinkedHashMap<>();
+		for(int r = 0; r < requests; r++) {
+			keyed.put(names.get(r), results[r]);
+		}
+		return keyed;
+	}
+
+	private static void addAll(int[] requests, Result[] results, float t, int row) {
+		if(requests != null) {
+			for(int r : requests) {
+				results[r].add(t, row);
+			}
+		}
+	}
+
+	private static int[] append(int[] list, int value) {
+		if(list == null) {
+			return new int[] {value};
+		}
+		int[] longer = Arrays.copyOf(list, list.length + 1);
+		longer[list.length] = value;
+		return longer;
+	}
+
+	private static int textCategory(String category) {
+		for(int c = 0; c < TEXT_CATEGORIES.length; c++) {
+			if(TEXT_CATEGORIES[c].equalsIgnoreCase(category)) {
+				return c;
+			}
+		}
+		return -1;
+	}
+
+	//The aggregates of one request. Rows are TempTable rows, and -1 when no reading matched; like
+	//findMin and findMax the first row wins a tie.
+	public static class Result {
+		private long count = 0;
+		private long missing = 0;
+		private double sum = 0;
+		private double sumOfSquares = 0;
+		private float min = Float.POSITIVE_INFINITY;
+		private float max = Float.NEGATIVE_INFINITY;
+		private int minRow = -1;
+		private int maxRow = -1;
+		private final long[] histogram;
+
+		private Result(boolean withPercentiles) {
+			histogram = withPercentiles ? new long[HIGHEST_STEP - LOWEST_STEP + 1] : null;
+		}
+
+		private void add(float t, int row) {
+			if(TempTable.isMissing(t)) {
+				missing++;
+				return;
+			}
+			count++;
+			sum += t;
+			sumOfSquares += (double) t * t;
+			if(t < min) {
+				min = t;
+				minRow = row;
+			}
+			if(t > max) {
+				max = t;
+				maxRow = row;
+			}
+			if(histogram != null) {
+				//rounds to the nearest step; the cast rounds toward zero, which is down once t is above the lowest step
+				int step = (int) ((t - LOWEST_STEP / (float) STEPS_PER_DEGREE) * STEPS_PER_DEGREE + 0.5f);
+				histogram[Math.max(0, Math.min(HIGHEST_STEP - LOWEST_STEP, step))]++;
+			}
+		}
+
+		//readings that matched, not counting missing ones
+		public long getCount() {
+			return count;
+		}
+
+		//matching rows whose reading was missing
+		public long getMissing() {
+			return missing;
+		}
+
+		public int getMinRow() {
+			return minRow;
+		}
+
+		public int getMaxRow() {
+			return maxRow;
+		}
+
+		//NaN when nothing matched, for this and the ones below
+		public double getMin() {
+			return count == 0 ? Double.NaN : min;
+		}
+
+		public double getMax() {
+			return count == 0 ? Double.NaN : max;
+		}
+
+		public double getAverage() {
+			return count == 0 ? Double.NaN : sum / count;
+		}
+
+		//standard deviation of all the matching readings (the population, not a sample of it)
+		public double getStandardDeviation() {
+			if(count == 0) {
+				return Double.NaN;
+			}
+			double average = sum / count;
+			return Math.sqrt(Math.max(0, sumOfSquares / count - average * average));
+		}
+
+		//The smallest reading that at least percent% of the readings are less than or equal to
+		//(the nearest rank), to 0.1 degree. Only for requests added with percentiles.
+		public double getPercentile(double percent) {
+			if(histogram == null) {
+				throw new IllegalStateException("This request was added without percentiles");
+			}
+			if(percent < 0 || percent > 100) {
+				throw new IllegalArgumentException("Percent must be from 0 to 100: " + percent);
+			}
+			if(count == 0) {
+				return Double.NaN;
+			}
+			long rank = Math.max(1, (long) Math.ceil(percent * count / 100));
+			long seen = 0;
+			int step = 0;
+			while(seen + histogram[step] < rank) {
+				seen += histogram[step];
+				step++;
+			}
+			return (double) (step + LOWEST_STEP) / STEPS_PER_DEGREE;
+		}
+
+		public double getMedian() {
+			return getPercentile(50);
+		}
+	}
+}
@@ -0,0 +1,370 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+//Saves a TempTable as a binary snapshot next to the CSV it was loaded from (city_temperature.csv.snapshot),
+//so later runs read its columns straight into a table instead of parsing the CSV again. importFile uses
+//the snapshot when it is good, and otherwise loads the CSV with TempTableLoader and writes a new snapshot
+//for next time.
+//
+//The file is little-endian:
+//  header, 40 bytes: "WTSN", the format VERSION, the number of rows, 0, the CSV's length and last modified
+//      time (in ms) when the snapshot was written, then a CRC32C checksum of every other byte of the file
+//  dictionaries: for region, country, state and city in turn, how many values there are, then each value
+//      as its UTF-8 length and bytes, in code order
+//  columns: the region, country, state and city codes as ints, avgTemp as floats, year as shorts, then
+//      month and day as bytes. Each block is one value per row and starts on a multiple of 8 bytes.
+//
+//A snapshot is stale, and rebuilt, when it has another version, the CSV's length or modified time is not the
+//one it was written from, or the checksum does not match because the file is damaged or half written.
+//A snapshot has to be under 2 GB, about 85 million rows; a table too big for one is just not saved.
+//The indexes are not saved, since they can be rebuilt from the columns. read builds them once the columns
+//are in, so a table from a snapshot answers category findMax/findMin calls as fast as one from the CSV.
+//
+//The snapshot is read with positional reads through one reused buffer rather than memory-mapped. A mapping
+//stays open until it is garbage collected, and on Windows a mapped file cannot be replaced, so write could
+//not move a new snapshot over a damaged one.
+public class TempSnapshot {
+
+	public static final int VERSION = 1; //change whenever the layout changes, so old snapshots are rebuilt
+	private static final int MAGIC = 'W' | 'T' << 8 | 'S' << 16 | 'N' << 24; //"WTSN" as the file's first 4 bytes
+	private static final int HEADER_BYTES = 40;
+	private static final int CHECKSUM_OFFSET = 32;
+	private static final int BLOCK_ALIGNMENT = 8;
+	private static final int BUFFER_BYTES = 1 << 20;
+	private static final String[] TEXT_CATEGORIES = {"Region","Country","State","City"};
+
+	//Loads the CSV through its snapshot, writing a new snapshot if there was no good one
+	public static TempTable importFile(String fileToImport) throws IOException {
+		Path csv = Path.of(fileToImport);
+		Path snapshot = snapshotPath(csv);
+		TempTable table = read(snapshot, csv);
+		if(table == null) {
+			table = TempTableLoader.importFile(fileToImport);
+			//the snapshot only saves time, so the table is still good if it cannot be written
+			try {
+				write(table, snapshot, csv);
+			} catch(IOException e) {
+				System.err.println("Could not write snapshot " + snapshot + ": " + e);
+			}
+		}
+		return table;
+	}
+
+	public static Path snapshotPath(Path csv) {
+		return csv.resolveSibling(csv.getFileName() + ".snapshot");
+	}
+
+	//The table saved in snapshot, with its indexes built, or null if there is no snapshot or it is stale for csv
+	public static TempTable read(Path snapshot, Path csv) throws IOException {
+		if(!Files.isRegularFile(snapshot)) {
+			return null;
+		}
+		try(FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+			long length = channel.size();
+			if(length < HEADER_BYTES || length > Integer.MAX_VALUE) {
+				return null;
+			}
+			//check the header and then the checksum before loading anything, so a stale or damaged snapshot
+			//never gets into a table
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			int read = 0;
+			while(header.hasRemaining() && read >= 0) {
+				read = channel.read(header, header.position());
+			}
+			if(header.getInt(0) != MAGIC || header.getInt(4) != VERSION || header.getLong(16) != Files.size(csv)
+					|| header.getLong(24) != Files.getLastModifiedTime(csv).toMillis()) {
+				return null;
+			}
+			ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			CRC32C checksum = new CRC32C();
+			checksum.update(header.slice(0, CHECKSUM_OFFSET));
+			for(long pos = HEADER_BYTES; pos < length; ) {
+				buffer.clear();
+				read = channel.read(buffer, pos);
+				if(read < 0) {
+					return null;
+				}
+				buffer.flip();
+				checksum.update(buffer);
+				pos += read;
+			}
+			if(header.getLong(CHECKSUM_OFFSET) != checksum.getValue()) {
+				return null;
+			}
+
+			int rows = header.getInt(8);
+			TempTable table = new TempTable();
+			BlockReader in = new BlockReader(channel, buffer, HEADER_BYTES);
+			for(String category : TEXT_CATEGORIES) {
+				int count = in.getInt();
+				for(int code = 0; code < count; code++) {
+					byte[] value = new byte[in.getInt()];
+					in.getBytes(value, value.length);
+					table.encode(category, new String(value, StandardCharsets.UTF_8));
+				}
+			}
+			in.align();
+			table.ensureCapacity(rows);
+			for(String category : TEXT_CATEGORIES) {
+				in.getInts(table.codeColumn(category), rows);
+				in.align();
+			}
+			in.getFloats(table.tempColumn(), rows);
+			in.align();
+			in.getShorts(table.yearColumn(), rows);
+			in.align();
+			in.getBytes(table.monthColumn(), rows);
+			in.align();
+			in.getBytes(table.dayColumn(), rows);
+			table.setSize(rows);
+			table.trimToSize();
+			table.buildIndexes();
+			return table;
+		}
+	}
+
+	//Writes table as the snapshot of csv. It is written to a .tmp file first and then moved over the old
+	//snapshot, so a reader never sees half of one.
+	public static void write(TempTable table, Path snapshot, Path csv) throws IOException {
+		int rows = table.size();
+		byte[][][] values = new byte[TEXT_CATEGORIES.length][][];
+		long length = HEADER_BYTES;
+		for(int c = 0; c < TEXT_CATEGORIES.length; c++) {
+			StringDictionary dictionary = table.dictionary(TEXT_CATEGORIES[c]);
+			values[c] = new byte[dictionary.size()][];
+			length += Integer.BYTES;
+			for(int code = 0; code < values[c].length; code++) {
+				values[c][code] = dictionary.decode(code).getBytes(StandardCharsets.UTF_8);
+				length += Integer.BYTES + values[c][code].length;
+			}
+		}
+		length = align(length) + 4 * align((long) rows * Integer.BYTES) + align((long) rows * Float.BYTES)
+				+ align((long) rows * Short.BYTES) + 2 * align(rows);
+		if(length > Integer.MAX_VALUE) {
+			throw new IOException("A snapshot has to be under 2 GB, but this one would be " + length + " bytes");
+		}
+
+		ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		header.putInt(0, MAGIC);
+		header.putInt(4, VERSION);
+		header.putInt(8, rows);
+		header.putLong(16, Files.size(csv));
+		header.putLong(24, Files.getLastModifiedTime(csv).toMillis());
+		CRC32C checksum = new CRC32C();
+		checksum.update(header.slice(0, CHECKSUM_OFFSET));
+
+		Path temp = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+		try(FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			BlockWriter out = new BlockWriter(channel, checksum, HEADER_BYTES);
+			for(byte[][] dictionary : values) {
+				out.putInt(dictionary.length);
+				for(byte[] value : dictionary) {
+					out.putInt(value.length);
+					out.putBytes(value, value.length);
+				}
+			}
+			out.align();
+			for(String category : TEXT_CATEGORIES) {
+				out.putInts(table.codeColumn(category), rows);
+				out.align();
+			}
+			out.putFloats(table.tempColumn(), rows);
+			out.align();
+			out.putShorts(table.yearColumn(), rows);
+			out.align();
+			out.putBytes(table.monthColumn(), rows);
+			out.align();
+			out.putBytes(table.dayColumn(), rows);
+			out.align();
+			out.flush();
+			header.putLong(CHECKSUM_OFFSET, checksum.getValue());
+			//the header goes at the start of the file, where the header buffer's position matches the file's
+			while(header.hasRemaining()) {
+				channel.write(header, header.position());
+			}
+			channel.force(true);
+		}
+		Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private static long align(long pos) {
+		return (pos + BLOCK_ALIGNMENT - 1) & -BLOCK_ALIGNMENT;
+	}
+
+	//Writes the snapshot after its header through one reused buffer, adding every byte to the checksum
+	private static class BlockWriter {
+		private final FileChannel channel;
+		private final CRC32C checksum;
+		private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		private long position;
+
+		BlockWriter(FileChannel channel, CRC32C checksum, long position) {
+			this.channel = channel;
+			this.checksum = checksum;
+			this.position = position;
+		}
+
+		void putInt(int value) throws IOException {
+			room(Integer.BYTES);
+			buffer.putInt(value);
+		}
+
+		void putBytes(byte[] values, int count) throws IOException {
+			for(int done = 0; done < count; ) {
+				room(1);
+				int n = Math.min(buffer.remaining(), count - done);
+				buffer.put(values, done, n);
+				done += n;
+			}
+		}
+
+		void putInts(int[] values, int count) throws IOException {
+			for(int done = 0; done < count; ) {
+				room(Integer.BYTES);
+				int n = Math.min(buffer.remaining() / Integer.BYTES, count - done);
+				buffer.asIntBuffer().put(values, done, n);
+				buffer.position(buffer.position() + n * Integer.BYTES);
+				done += n;
+			}
+		}
+
+		void putFloats(float[] values, int count) throws IOException {
+			for(int done = 0; done < count; ) {
+				room(Float.BYTES);
+				int n = Math.min(buffer.remaining() / Float.BYTES, count - done);
+				buffer.asFloatBuffer().put(values, done, n);
+				buffer.position(buffer.position() + n * Float.BYTES);
+				done += n;
+			}
+		}
+
+		void putShorts(short[] values, int count) throws IOException {
+			for(int done = 0; done < count; ) {
+				room(Short.BYTES);
+				int n = Math.min(buffer.remaining() / Short.BYTES, count - done);
+				buffer.asShortBuffer().put(values, done, n);
+				buffer.position(buffer.position() + n * Short.BYTES);
+				done += n;
+			}
+		}
+
+		//zero bytes up to the next multiple of BLOCK_ALIGNMENT in the file
+		void align() throws IOException {
+			long padding = TempSnapshot.align(position + buffer.position()) - (position + buffer.position());
+			for(long i = 0; i < padding; i++) {
+				room(1);
+				buffer.put((byte) 0);
+			}
+		}
+
+		//writes the buffer out if it has less than bytes free
+		private void room(int bytes) throws IOException {
+			if(buffer.remaining() < bytes) {
+				flush();
+			}
+		}
+
+		void flush() throws IOException {
+			buffer.flip();
+			checksum.update(buffer.duplicate());
+			while(buffer.hasRemaining()) {
+				position += channel.write(buffer, position);
+			}
+			buffer.clear();
+		}
+	}
+
+	//Reads the snapshot after its header through the buffer the checksum was worked out with. The buffer
+	//holds the bytes from the file up to position that have not been taken yet.
+	private static class BlockReader {
+		private final FileChannel channel;
+		private final ByteBuffer buffer;
+		private long position;
+
+		BlockReader(FileChannel channel, ByteBuffer buffer, long position) {
+			this.channel = channel;
+			this.buffer = buffer;
+			this.position = position;
+			buffer.clear().limit(0);
+		}
+
+		int getInt() throws IOException {
+			fill(Integer.BYTES);
+			return buffer.getInt();
+		}
+
+		void getBytes(byte[] values, int count) throws IOException {
+			for(int done = 0; done < count; ) {
+				fill(1);
+				int n = Math.min(buffer.remaining(), count - done);
+				buffer.get(values, done, n);
+				done += n;
+			}
+		}
+
+		void getInts(int[] values, int count) throws IOException {
+			for(int done = 0; done < count; ) {
+				fill(Integer.BYTES);
+				int n = Math.min(buffer.remaining() / Integer.BYTES, count - done);
+				buffer.asIntBuffer().get(values, done, n);
+				buffer.position(buffer.position() + n * Integer.BYTES);
+				done += n;
+			}
+		}
+
+		void getFloats(float[] values, int count) throws IOException {
+			for(int done = 0; done < count; ) {
+				fill(Float.BYTES);
+				int n = Math.min(buffer.remaining() / Float.BYTES, count - done);
+				buffer.asFloatBuffer().get(values, done, n);
+				buffer.position(buffer.position() + n * Float.BYTES);
+				done += n;
+			}
+		}
+
+		void getShorts(short[] values, int count) throws IOException {
+			for(int done = 0; done < count; ) {
+				fill(Short.BYTES);
+				int n = Math.min(buffer.remaining() / Short.BYTES, count - done);
+				buffer.asShortBuffer().get(values, done, n);
+				buffer.position(buffer.position() + n * Short.BYTES);
+				done += n;
+			}
+		}
+
+		//skips the padding up to the next multiple of BLOCK_ALIGNMENT in the file
+		void align() throws IOException {
+			long at = position - buffer.remaining();
+			for(long i = TempSnapshot.align(at) - at; i > 0; i--) {
+				fill(1);
+				buffer.get();
+			}
+		}
+
+		//reads more of the file if the buffer has less than bytes left
+		private void fill(int bytes) throws IOException {
+			if(buffer.remaining() >= bytes) {
+				return;
+			}
+			buffer.compact();
+			while(buffer.position() < bytes) {
+				int read = channel.read(buffer, position);
+				if(read < 0) {
+					throw new EOFException("The snapshot ends in the middle of a block");
+				}
+				position += read;
+			}
+			buffer.flip();
+		}
+	}
+}
@@ -0,0 +1,568 @@
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Arrays;
+
+//Stores the readings column by column in primitive arrays instead of one reading object per row.
+//Region, country, state and city are stored as int codes from a StringDictionary, month and day as
+//bytes, year as a short and the average temperature as a float, 24 bytes a row.
+//A row is just its index into the arrays, and findMax/findMin are plain loops over the arrays.
+//
+//importFile also builds an index over each category column: for every value, the list of rows that
+//have it. A category query then only reads the rows of the matching values instead of the whole table.
+//Adding a row drops the indexes until buildIndexes is called again.
+public class TempTable {
+
+	public static final float MISSING = -99; //avgTemp value the data uses for a missing reading
+	private static final int INITIAL_CAPACITY = 1 << 16;
+
+	private final StringDictionary regions = new StringDictionary();
+	private final StringDictionary countries = new StringDictionary();
+	private final StringDictionary states = new StringDictionary();
+	private final StringDictionary cities = new StringDictionary();
+
+	private int[] region = new int[INITIAL_CAPACITY];
+	private int[] country = new int[INITIAL_CAPACITY];
+	private int[] state = new int[INITIAL_CAPACITY];
+	private int[] city = new int[INITIAL_CAPACITY];
+	private byte[] month = new byte[INITIAL_CAPACITY];
+	private byte[] day = new byte[INITIAL_CAPACITY];
+	private short[] year = new short[INITIAL_CAPACITY];
+	private float[] avgTemp = new float[INITIAL_CAPACITY];
+	private int size = 0;
+
+	private ColumnIndex regionIndex, countryIndex, stateIndex, cityIndex, monthIndex, yearIndex;
+	private long indexBuildNanos = 0;
+
+	//Reads a city_temperature.csv file into a new table, the same way WorldTemps.importFile does
+	public static TempTable importFile(String fileToImport) throws IOException {
+		TempTable table = new TempTable();
+		try(BufferedReader br = new BufferedReader(new FileReader(fileToImport))) {
+			//throw out first line of titles
+			String lineOfData = br.readLine();
+			lineOfData = br.readLine();
+			while(lineOfData != null) {
+				String [] data = lineOfData.split(",");
+				table.add(data[0],data[1],data[2],data[3],
+						Integer.parseInt(data[4]),Integer.parseInt(data[5]),
+						Integer.parseInt(data[6]),Double.parseDouble(data[7]));
+				lineOfData = br.readLine();
+			}
+		}
+		table.trimToSize();
+		table.buildIndexes();
+		return table;
+	}
+
+	public void add(String region, String country, String state, String city, int month, int day, int year,
+			double avgTemp) {
+		addEncoded(regions.encode(region),countries.encode(country),states.encode(state),cities.encode(city),
+				month,day,year,(float) avgTemp);
+	}
+
+	//Adds a row whose text columns are already codes from encode, for TempTableLoader
+	void addEncoded(int region, int country, int state, int city, int month, int day, int year, float avgTemp) {
+		if(size == this.avgTemp.length) {
+			grow();
+		}
+		dropIndexes();
+		this.region[size] = region;
+		this.country[size] = country;
+		this.state[size] = state;
+		this.city[size] = city;
+		this.month[size] = (byte) month;
+		this.day[size] = (byte) day;
+		this.year[size] = (short) year;
+		this.avgTemp[size] = avgTemp;
+		size++;
+	}
+
+	//The code of value in a text category's dictionary, adding it if it is new
+	int encode(String category, String value) {
+		if(category.equalsIgnoreCase("Region")) {
+			return regions.encode(value);
+		}
+		else if(category.equalsIgnoreCase("Country")) {
+			return countries.encode(value);
+		}
+		else if(category.equalsIgnoreCase("State")) {
+			return states.encode(value);
+		}
+		else if(category.equalsIgnoreCase("City")) {
+			return cities.encode(value);
+		}
+		throw new IllegalArgumentException("Not a text category: " + category);
+	}
+
+	//Adds every row of other after this table's rows, in the same order. other's dictionary codes are
+	//turned into this table's once per distinct value, and the other columns are copied as blocks.
+	public void addAll(TempTable other) {
+		ensureCapacity(size + other.size);
+		dropIndexes();
+		int[][] recoded = {recode(other.regions,regions), recode(other.countries,countries),
+				recode(other.states,states), recode(other.cities,cities)};
+		for(int i = 0; i < other.size; i++) {
+			region[size+i] = recoded[0][other.region[i]];
+			country[size+i] = recoded[1][other.country[i]];
+			state[size+i] = recoded[2][other.state[i]];
+			city[size+i] = recoded[3][other.city[i]];
+		}
+		System.arraycopy(other.month, 0, month, size, other.size);
+		System.arraycopy(other.day, 0, day, size, other.size);
+		System.arraycopy(other.year, 0, year, size, other.size);
+		System.arraycopy(other.avgTemp, 0, avgTemp, size, other.size);
+		size += other.size;
+	}
+
+	//what each of from's codes is in to
+	private static int[] recode(StringDictionary from, StringDictionary to) {
+		int[] codes = new int[from.size()];
+		for(int code = 0; code < codes.length; code++) {
+			codes[code] = to.encode(from.decode(code));
+		}
+		return codes;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	//The data uses -99 for a day with no reading. findMax, findMin and TempQuery all skip those rows
+	//through this one check.
+	public static boolean isMissing(double avgTemp) {
+		return avgTemp == MISSING;
+	}
+
+	public String getRegion(int row) {
+		return regions.decode(region[row]);
+	}
+
+	public String getCountry(int row) {
+		return countries.decode(country[row]);
+	}
+
+	public String getState(int row) {
+		return states.decode(state[row]);
+	}
+
+	public String getCity(int row) {
+		return cities.decode(city[row]);
+	}
+
+	public int getMonth(int row) {
+		return month[row];
+	}
+
+	public int getDay(int row) {
+		return day[row];
+	}
+
+	public int getYear(int row) {
+		return year[row];
+	}
+
+	public double getAvgTemp(int row) {
+		return avgTemp[row];
+	}
+
+	//Builds a reading object for one row, for code that still works with readings
+	public reading getReading(int row) {
+		return new reading(getRegion(row),getCountry(row),getState(row),getCity(row),
+				getMonth(row),getDay(row),getYear(row),getAvgTemp(row));
+	}
+
+	//Row with the highest avgTemp, or -1 if there are no readings
+	public int findMax() {
+		return scanAll(1);
+	}
+
+	//Row with the lowest avgTemp, or -1 if there are no readings
+	public int findMin() {
+		return scanAll(-1);
+	}
+
+	//Row with the highest avgTemp where category = categoryValue, or -1 if no row matches.
+	//category is Region, Country, State, City, Month or Year, as in WorldTemps.findMax
+	public int findMax(String category, String categoryValue) {
+		return scan(category, categoryValue, 1);
+	}
+
+	//Row with the lowest avgTemp where category = categoryValue, or -1 if no row matches
+	public int findMin(String category, String categoryValue) {
+		return scan(category, categoryValue, -1);
+	}
+
+	//Number of rows where category = categoryValue, which is how many rows an indexed query reads
+	public int countMatching(String category, String categoryValue) {
+		if(!hasIndexes()) {
+			buildIndexes();
+		}
+		ColumnIndex index = indexFor(category);
+		boolean[] keys = keysFor(index, category, categoryValue);
+		int count = 0;
+		for(int k = 0; k < keys.length; k++) {
+			if(keys[k]) {
+				count += index.start[k+1] - index.start[k];
+			}
+		}
+		return count;
+	}
+
+	//For TempQuery: the rows where category = categoryValue in increasing order, copied from the index
+	int[] matchingRows(String category, String categoryValue) {
+		if(!hasIndexes()) {
+			buildIndexes();
+		}
+		ColumnIndex index = indexFor(category);
+		boolean[] keys = keysFor(index, category, categoryValue);
+		int[] rows = new int[countMatching(category, categoryValue)];
+		int count = 0;
+		int lists = 0;
+		for(int k = 0; k < keys.length; k++) {
+			if(keys[k]) {
+				int length = index.start[k+1] - index.start[k];
+				System.arraycopy(index.rows, index.start[k], rows, count, length);
+				count += length;
+				lists++;
+			}
+		}
+		//each key's rows are in order, but a value can match several keys when their case differs
+		if(lists > 1) {
+			Arrays.sort(rows);
+		}
+		return rows;
+	}
+
+	//Builds the index over every category column, replacing any old ones
+	public void buildIndexes() {
+		long start = System.nanoTime();
+		regionIndex = new ColumnIndex(region, size);
+		countryIndex = new ColumnIndex(country, size);
+		stateIndex = new ColumnIndex(state, size);
+		cityIndex = new ColumnIndex(city, size);
+		int[] keys = new int[size];
+		for(int i = 0; i < size; i++) {
+			keys[i] = month[i];
+		}
+		monthIndex = new ColumnIndex(keys, size);
+		for(int i = 0; i < size; i++) {
+			keys[i] = year[i];
+		}
+		yearIndex = new ColumnIndex(keys, size);
+		indexBuildNanos = System.nanoTime() - start;
+	}
+
+	//Throws the indexes away, so category queries scan the whole table again
+	public void dropIndexes() {
+		regionIndex = countryIndex = stateIndex = cityIndex = monthIndex = yearIndex = null;
+	}
+
+	public boolean hasIndexes() {
+		return yearIndex != null;
+	}
+
+	//How long the last buildIndexes took, in nanoseconds
+	public long getIndexBuildNanos() {
+		return indexBuildNanos;
+	}
+
+	//rough bytes used by the columns (only the filled part), the dictionaries and the indexes
+	public long memoryBytes() {
+		long bytes = (long) size * (4 * Integer.BYTES + 2 * Byte.BYTES + Short.BYTES + Float.BYTES);
+		if(hasIndexes()) {
+			bytes += regionIndex.memoryBytes() + countryIndex.memoryBytes() + stateIndex.memoryBytes()
+					+ cityIndex.memoryBytes() + monthIndex.memoryBytes() + yearIndex.memoryBytes();
+		}
+		return bytes + regions.memoryBytes() + countries.memoryBytes() + states.memoryBytes() + cities.memoryBytes();
+	}
+
+	private int scan(String category, String categoryValue, float sign) {
+		if(hasIndexes()) {
+			ColumnIndex index = indexFor(category);
+			return scanIndexed(index, keysFor(index, category, categoryValue), sign);
+		}
+		if(category.equalsIgnoreCase("Region")) {
+			return scanCodes(region, regions.matching(categoryValue), sign);
+		}
+		else if(category.equalsIgnoreCase("Country")) {
+			return scanCodes(country, countries.matching(categoryValue), sign);
+		}
+		else if(category.equalsIgnoreCase("State")) {
+			return scanCodes(state, states.matching(categoryValue), sign);
+		}
+		else if(category.equalsIgnoreCase("City")) {
+			return scanCodes(city, cities.matching(categoryValue), sign);
+		}
+		else if(category.equalsIgnoreCase("Month")) {
+			return scanMonth(Integer.parseInt(categoryValue), sign);
+		}
+		else if(category.equalsIgnoreCase("Year")) {
+			return scanYear(Integer.parseInt(categoryValue), sign);
+		}
+		throw new IllegalArgumentException("Unknown category: " + category);
+	}
+
+	private ColumnIndex indexFor(String category) {
+		if(category.equalsIgnoreCase("Region")) {
+			return regionIndex;
+		}
+		else if(category.equalsIgnoreCase("Country")) {
+			return countryIndex;
+		}
+		else if(category.equalsIgnoreCase("State")) {
+			return stateIndex;
+		}
+		else if(category.equalsIgnoreCase("City")) {
+			return cityIndex;
+		}
+		else if(category.equalsIgnoreCase("Month")) {
+			return monthIndex;
+		}
+		else if(category.equalsIgnoreCase("Year")) {
+			return yearIndex;
+		}
+		throw new IllegalArgumentException("Unknown category: " + category);
+	}
+
+	//Which of the index's keys match categoryValue: for the String columns every dictionary code whose
+	//value matches ignoring case, for Month and Year just the one number
+	private boolean[] keysFor(ColumnIndex index, String category, String categoryValue) {
+		if(category.equalsIgnoreCase("Month") || category.equalsIgnoreCase("Year")) {
+			boolean[] keys = new boolean[index.keys()];
+			int key = Integer.parseInt(categoryValue) - index.min;
+			if(key >= 0 && key < keys.length) {
+				keys[key] = true;
+			}
+			return keys;
+		}
+		boolean[] keys = matchingCodes(category, categoryValue);
+		//dictionary codes start at 0, but the index starts at the smallest code it saw
+		boolean[] shifted = new boolean[index.keys()];
+		for(int k = 0; k < shifted.length; k++) {
+			shifted[k] = k + index.min < keys.length && keys[k + index.min];
+		}
+		return shifted;
+	}
+
+	//The scans below find the row with the largest avgTemp * sign, so sign = 1 finds the maximum and
+	//sign = -1 the minimum. Missing readings are skipped and the first row wins a tie.
+	private int scanAll(float sign) {
+		int best = -1;
+		float bestTemp = Float.NEGATIVE_INFINITY;
+		for(int i = 0; i < size; i++) {
+			float t = avgTemp[i];
+			if(!isMissing(t) && t * sign > bestTemp) {
+				bestTemp = t * sign;
+				best = i;
+			}
+		}
+		return best;
+	}
+
+	//Reads only the rows listed under the matching keys. The lists can come in any order, so a tie
+	//goes to the lower row number, the same row a full scan would pick
+	private int scanIndexed(ColumnIndex index, boolean[] keys, float sign) {
+		int best = -1;
+		float bestTemp = Float.NEGATIVE_INFINITY;
+		for(int k = 0; k < keys.length; k++) {
+			if(!keys[k]) {
+				continue;
+			}
+			for(int p = index.start[k]; p < index.start[k+1]; p++) {
+				int row = index.rows[p];
+				float t = avgTemp[row];
+				if(!isMissing(t) && (t * sign > bestTemp || (t * sign == bestTemp && row < best))) {
+					bestTemp = t * sign;
+					best = row;
+				}
+			}
+		}
+		return best;
+	}
+
+	private int scanCodes(int[] codes, boolean[] mask, float sign) {
+		int best = -1;
+		float bestTemp = Float.NEGATIVE_INFINITY;
+		for(int i = 0; i < size; i++) {
+			float t = avgTemp[i];
+			if(mask[codes[i]] && !isMissing(t) && t * sign > bestTemp) {
+				bestTemp = t * sign;
+				best = i;
+			}
+		}
+		return best;
+	}
+
+	private int scanMonth(int value, float sign) {
+		int best = -1;
+		float bestTemp = Float.NEGATIVE_INFINITY;
+		for(int i = 0; i < size; i++) {
+			float t = avgTemp[i];
+			if(month[i] == value && !isMissing(t) && t * sign > bestTemp) {
+				bestTemp = t * sign;
+				best = i;
+			}
+		}
+		return best;
+	}
+
+	private int scanYear(int value, float sign) {
+		int best = -1;
+		float bestTemp = Float.NEGATIVE_INFINITY;
+		for(int i = 0; i < size; i++) {
+			float t = avgTemp[i];
+			if(year[i] == value && !isMissing(t) && t * sign > bestTemp) {
+				bestTemp = t * sign;
+				best = i;
+			}
+		}
+		return best;
+	}
+
+	//The columns and dictionaries themselves, for TempQuery and TempSnapshot. Only TempSnapshot writes to them,
+	//while restoring a table before setSize.
+	int[] codeColumn(String category) {
+		if(category.equalsIgnoreCase("Region")) {
+			return region;
+		}
+		else if(category.equalsIgnoreCase("Country")) {
+			return country;
+		}
+		else if(category.equalsIgnoreCase("State")) {
+			return state;
+		}
+		else if(category.equalsIgnoreCase("City")) {
+			return city;
+		}
+		throw new IllegalArgumentException("Not a text category: " + category);
+	}
+
+	byte[] monthColumn() {
+		return month;
+	}
+
+	byte[] dayColumn() {
+		return day;
+	}
+
+	short[] yearColumn() {
+		return year;
+	}
+
+	float[] tempColumn() {
+		return avgTemp;
+	}
+
+	StringDictionary dictionary(String category) {
+		if(category.equalsIgnoreCase("Region")) {
+			return regions;
+		}
+		else if(category.equalsIgnoreCase("Country")) {
+			return countries;
+		}
+		else if(category.equalsIgnoreCase("State")) {
+			return states;
+		}
+		else if(category.equalsIgnoreCase("City")) {
+			return cities;
+		}
+		throw new IllegalArgumentException("Not a text category: " + category);
+	}
+
+	//For TempSnapshot, which fills the columns from ensureCapacity directly and then sets how many rows it wrote
+	void setSize(int rows) {
+		if(rows > avgTemp.length) {
+			throw new IllegalArgumentException(rows + " rows do not fit in " + avgTemp.length);
+		}
+		dropIndexes();
+		size = rows;
+	}
+
+	//Which dictionary codes of a text category match categoryValue, ignoring case
+	boolean[] matchingCodes(String category, String categoryValue) {
+		if(category.equalsIgnoreCase("Region")) {
+			return regions.matching(categoryValue);
+		}
+		else if(category.equalsIgnoreCase("Country")) {
+			return countries.matching(categoryValue);
+		}
+		else if(category.equalsIgnoreCase("State")) {
+			return states.matching(categoryValue);
+		}
+		else if(category.equalsIgnoreCase("City")) {
+			return cities.matching(categoryValue);
+		}
+		throw new IllegalArgumentException("Not a text category: " + category);
+	}
+
+	//shrinks the columns to exactly size rows, once no more rows will be added
+	public void trimToSize() {
+		if(avgTemp.length != size) {
+			resize(size);
+		}
+	}
+
+	//makes room for at least rows rows, so adding up to that many never copies the columns
+	public void ensureCapacity(int rows) {
+		if(rows > avgTemp.length) {
+			resize(Math.max(rows, avgTemp.length * 2));
+		}
+	}
+
+	private void grow() {
+		resize(Math.max(INITIAL_CAPACITY, avgTemp.length * 2));
+	}
+
+	private void resize(int capacity) {
+		region = Arrays.copyOf(region, capacity);
+		country = Arrays.copyOf(country, capacity);
+		state = Arrays.copyOf(state, capacity);
+		city = Arrays.copyOf(city, capacity);
+		month = Arrays.copyOf(month, capacity);
+		day = Arrays.copyOf(day, capacity);
+		year = Arrays.copyOf(year, capacity);
+		avgTemp = Arrays.copyOf(avgTemp, capacity);
+	}
+
+	//The rows of every key in one array, grouped by key: the rows with key k are
+	//rows[start[k]] to rows[start[k+1]-1], in increasing order. Keys are the column's values minus min.
+	//It is built with a counting sort, so building takes two passes over the column.
+	private static class ColumnIndex {
+		final int min;
+		final int[] start;
+		final int[] rows;
+
+		ColumnIndex(int[] values, int size) {
+			int low = Integer.MAX_VALUE, high = Integer.MIN_VALUE;
+			for(int i = 0; i < size; i++) {
+				low = Math.min(low, values[i]);
+				high = Math.max(high, values[i]);
+			}
+			if(size == 0) {
+				low = high = 0;
+			}
+			min = low;
+			//count the rows of each key, then turn the counts into where each key's rows start
+			start = new int[high - low + 2];
+			for(int i = 0; i < size; i++) {
+				start[values[i] - low + 1]++;
+			}
+			for(int k = 1; k < start.length; k++) {
+				start[k] += start[k-1];
+			}
+			rows = new int[size];
+			int[] next = Arrays.copyOf(start, start.length - 1);
+			for(int i = 0; i < size; i++) {
+				rows[next[values[i] - low]++] = i;
+			}
+		}
+
+		int keys() {
+			return start.length - 1;
+		}
+
+		long memoryBytes() {
+			return (long) (start.length + rows.length) * Integer.BYTES;
+		}
+	}
+}
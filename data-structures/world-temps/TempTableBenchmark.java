@@ -0,0 +1,245 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Map;
+
+//Compares the original LinkedList of readings with TempTable: how much heap each takes to hold the
+//file, and how long each takes to answer the same max/min queries WorldTemps.main asks. Then it
+//reports how long the table's indexes took to build and times each category query with the indexes
+//and with a full scan of the table. Last it answers the whole query set with one TempQuery, with and
+//without the indexes, and compares that with calling findMax and findMin for every query.
+//If the data file does not exist, a made-up one is written first with SampleData.
+//
+//Compile and run from the world-temps folder:
+//  javac -d bin *.java
+//  java -Xmx4g -cp bin TempTableBenchmark city_temperature.csv 5
+//
+//Arguments (both optional): the data file (default city_temperature.csv) and how many times to run
+//the queries (default 5).
+public class TempTableBenchmark {
+
+	//the queries from WorldTemps.main; a null category means the whole table
+	static final String[][] QUERIES = {{null,null},{"State","Texas"},{"State","Tennessee"},
+			{"City","Knoxville"},{"Year","1995"},{"Year","2020"},{"Month","12"},{"Month","8"},
+			{"Region","South/Central America & Carribean"},{"Country","Russia"}};
+
+	public static void main(String[] args) throws IOException {
+		String dataFile = args.length > 0 ? args[0] : "city_temperature.csv";
+		int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+		if(!new File(dataFile).exists()) {
+			System.out.printf("%s not found, writing a sample file\n", dataFile);
+			SampleData.write(dataFile, 2906327, 42);
+		}
+
+		PrintStream console = System.out;
+		PrintStream quiet = new PrintStream(OutputStream.nullOutputStream());
+
+		//load each structure and measure the heap it holds on to
+		long before = usedHeap();
+		long start = System.nanoTime();
+		LinkedList tempList = new LinkedList();
+		System.setOut(quiet);
+		WorldTemps.importFile(tempList, dataFile);
+		System.setOut(console);
+		double listLoad = (System.nanoTime() - start) / 1e9;
+		long listBytes = usedHeap() - before;
+
+		before = usedHeap();
+		start = System.nanoTime();
+		TempTable tempTable = TempTable.importFile(dataFile);
+		double tableLoad = (System.nanoTime() - start) / 1e9;
+		long tableBytes = usedHeap() - before;
+
+		int rows = tempTable.size();
+		System.out.printf("%d rows\n\n", rows);
+		System.out.printf("%-12s %12s %10s %10s %16s\n", "Structure", "Heap (MB)", "B/row", "Load (s)", "Queries (ms)");
+
+		//check the two give the same answers, then time the query set on each
+		for(String[] query : QUERIES) {
+			double[] fromList = listQuery(tempList, query[0], query[1], quiet, console);
+			double[] fromTable = tableQuery(tempTable, query[0], query[1]);
+			//the table keeps temperatures as floats, so compare at float precision
+			if((float) fromList[0] != (float) fromTable[0] || (float) fromList[1] != (float) fromTable[1]) {
+				System.out.printf("Results differ for %s = %s: list %.1f/%.1f, table %.1f/%.1f\n", query[0], query[1],
+						fromList[0], fromList[1], fromTable[0], fromTable[1]);
+			}
+		}
+		double listMillis = Double.MAX_VALUE;
+		double tableMillis = Double.MAX_VALUE;
+		for(int i = 0; i < iterations; i++) {
+			start = System.nanoTime();
+			for(String[] query : QUERIES) {
+				listQuery(tempList, query[0], query[1], quiet, console);
+			}
+			listMillis = Math.min(listMillis, (System.nanoTime() - start) / 1e6);
+			start = System.nanoTime();
+			for(String[] query : QUERIES) {
+				tableQuery(tempTable, query[0], query[1]);
+			}
+			tableMillis = Math.min(tableMillis, (System.nanoTime() - start) / 1e6);
+		}
+		System.out.printf("%-12s %12.1f %10.1f %10.2f %16.1f\n", "LinkedList", listBytes / 1048576.0,
+				(double) listBytes / rows, listLoad, listMillis);
+		System.out.printf("%-12s %12.1f %10.1f %10.2f %16.1f\n", "TempTable", tableBytes / 1048576.0,
+				(double) tableBytes / rows, tableLoad, tableMillis);
+		System.out.printf("\nTempTable.memoryBytes estimate: %.1f MB; queries %.1fx faster\n",
+				tempTable.memoryBytes() / 1048576.0, listMillis / tableMillis);
+
+		//each category query with the indexes and with a full scan of the table
+		System.out.printf("\nIndexes built in %.1f ms\n", tempTable.getIndexBuildNanos() / 1e6);
+		System.out.printf("%-45s %10s %12s %12s %9s\n", "Query", "Rows", "Scan (us)", "Index (us)", "Speedup");
+		for(String[] query : QUERIES) {
+			if(query[0] == null) {
+				continue;
+			}
+			double indexMicros = queryMicros(tempTable, query, iterations);
+			int[] indexed = {tempTable.findMax(query[0], query[1]), tempTable.findMin(query[0], query[1])};
+			tempTable.dropIndexes();
+			double scanMicros = queryMicros(tempTable, query, iterations);
+			int[] scanned = {tempTable.findMax(query[0], query[1]), tempTable.findMin(query[0], query[1])};
+			tempTable.buildIndexes();
+			if(indexed[0] != scanned[0] || indexed[1] != scanned[1]) {
+				System.out.printf("Index and scan pick different rows for %s = %s\n", query[0], query[1]);
+			}
+			System.out.printf("%-45s %10d %12.1f %12.1f %9.1f\n", query[0] + " = " + query[1],
+					tempTable.countMatching(query[0], query[1]), scanMicros, indexMicros, scanMicros / indexMicros);
+		}
+
+		//the whole query set in one pass, checked against findMax/findMin and a sorted copy for the median
+		TempQuery batch = new TempQuery(tempTable);
+		for(String[] query : QUERIES) {
+			batch.add(query[0] + " = " + query[1], query[0], query[1], true);
+		}
+		TempQuery.Result[] results = batch.run().values().toArray(new TempQuery.Result[0]);
+		for(int q = 0; q < QUERIES.length; q++) {
+			String[] query = QUERIES[q];
+			int[] picked = tableRows(tempTable, query[0], query[1]);
+			float[] sorted = matchingTemps(tempTable, query[0], query[1]);
+			Arrays.sort(sorted);
+			float median = sorted.length == 0 ? Float.NaN : sorted[(sorted.length + 1) / 2 - 1];
+			if(results[q].getMaxRow() != picked[0] || results[q].getMinRow() != picked[1]
+					|| results[q].getCount() != sorted.length
+					|| (sorted.length > 0 && (float) results[q].getMedian() != median)) {
+				System.out.printf("TempQuery differs for %s = %s\n", query[0], query[1]);
+			}
+		}
+		//the same batch without percentiles does the work findMax/findMin do, plus the other aggregates
+		TempQuery plain = new TempQuery(tempTable);
+		for(String[] query : QUERIES) {
+			plain.add(query[0] + " = " + query[1], query[0], query[1], false);
+		}
+		double batchMillis = Double.MAX_VALUE;
+		double plainMillis = Double.MAX_VALUE;
+		double indexedMillis = Double.MAX_VALUE;
+		double scanMillis = Double.MAX_VALUE;
+		for(int i = 0; i < iterations; i++) {
+			start = System.nanoTime();
+			batch.run();
+			batchMillis = Math.min(batchMillis, (System.nanoTime() - start) / 1e6);
+			start = System.nanoTime();
+			plain.run();
+			plainMillis = Math.min(plainMillis, (System.nanoTime() - start) / 1e6);
+			start = System.nanoTime();
+			for(String[] query : QUERIES) {
+				tableRows(tempTable, query[0], query[1]);
+			}
+			indexedMillis = Math.min(indexedMillis, (System.nanoTime() - start) / 1e6);
+		}
+		//without indexes TempQuery answers everything in one pass over the table
+		tempTable.dropIndexes();
+		double batchScanMillis = Double.MAX_VALUE;
+		for(int i = 0; i < iterations; i++) {
+			start = System.nanoTime();
+			plain.run();
+			batchScanMillis = Math.min(batchScanMillis, (System.nanoTime() - start) / 1e6);
+			start = System.nanoTime();
+			for(String[] query : QUERIES) {
+				tableRows(tempTable, query[0], query[1]);
+			}
+			scanMillis = Math.min(scanMillis, (System.nanoTime() - start) / 1e6);
+		}
+		tempTable.buildIndexes();
+		System.out.printf("\n%d queries as one TempQuery (max, min, count, average, deviation): %.1f ms with the indexes "
+				+ "(%.1f ms adding percentiles), %.1f ms in one pass without them\n",
+				QUERIES.length, plainMillis, batchMillis, batchScanMillis);
+		System.out.printf("The same queries as %d findMax/findMin calls: %.1f ms scanning, %.1f ms with the indexes\n",
+				2 * QUERIES.length, scanMillis, indexedMillis);
+	}
+
+	//rows findMax and findMin pick for a query
+	private static int[] tableRows(TempTable tempTable, String category, String value) {
+		if(category == null) {
+			return new int[] {tempTable.findMax(), tempTable.findMin()};
+		}
+		return new int[] {tempTable.findMax(category, value), tempTable.findMin(category, value)};
+	}
+
+	//every reading that is not missing where category = value, found the slow way from the row getters
+	private static float[] matchingTemps(TempTable tempTable, String category, String value) {
+		float[] temps = new float[tempTable.size()];
+		int count = 0;
+		for(int row = 0; row < tempTable.size(); row++) {
+			if(!TempTable.isMissing(tempTable.getAvgTemp(row)) && (category == null || matches(tempTable, row, category, value))) {
+				temps[count++] = (float) tempTable.getAvgTemp(row);
+			}
+		}
+		return Arrays.copyOf(temps, count);
+	}
+
+	private static boolean matches(TempTable tempTable, int row, String category, String value) {
+		switch(category.toLowerCase()) {
+		case "region":
+			return tempTable.getRegion(row).equalsIgnoreCase(value);
+		case "country":
+			return tempTable.getCountry(row).equalsIgnoreCase(value);
+		case "state":
+			return tempTable.getState(row).equalsIgnoreCase(value);
+		case "city":
+			return tempTable.getCity(row).equalsIgnoreCase(value);
+		case "month":
+			return tempTable.getMonth(row) == Integer.parseInt(value);
+		default:
+			return tempTable.getYear(row) == Integer.parseInt(value);
+		}
+	}
+
+	//best time of a findMax and findMin pair on the table, in microseconds
+	private static double queryMicros(TempTable tempTable, String[] query, int iterations) {
+		double best = Double.MAX_VALUE;
+		for(int i = 0; i < iterations; i++) {
+			long start = System.nanoTime();
+			tempTable.findMax(query[0], query[1]);
+			tempTable.findMin(query[0], query[1]);
+			best = Math.min(best, (System.nanoTime() - start) / 1e3);
+		}
+		return best;
+	}
+
+	//max and min temperature from the original list functions, with their printing silenced
+	private static double[] listQuery(LinkedList tempList, String category, String value, PrintStream quiet,
+			PrintStream console) {
+		System.setOut(quiet);
+		reading max = category == null ? WorldTemps.findMax(tempList) : WorldTemps.findMax(tempList, category, value);
+		reading min = category == null ? WorldTemps.findMin(tempList) : WorldTemps.findMin(tempList, category, value);
+		System.setOut(console);
+		return new double[] {max.getAvgTemp(), min.getAvgTemp()};
+	}
+
+	//max and min temperature from the table, using the list functions' values when nothing matches
+	private static double[] tableQuery(TempTable tempTable, String category, String value) {
+		int max = category == null ? tempTable.findMax() : tempTable.findMax(category, value);
+		int min = category == null ? tempTable.findMin() : tempTable.findMin(category, value);
+		return new double[] {max < 0 ? -200 : tempTable.getAvgTemp(max), min < 0 ? 200 : tempTable.getAvgTemp(min)};
+	}
+
+	//heap in use after a few garbage collections
+	static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for(int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
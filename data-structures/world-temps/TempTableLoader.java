@@ -0,0 +1,338 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+//Loads a city_temperature.csv file into a TempTable on several threads. It gives the same table as
+//TempTable.importFile, row for row, without readLine, split or parseDouble:
+//  1. The file is cut into chunks of about the same size, each moved forward to start just after a
+//     newline, so every line is in exactly one chunk. There are a few chunks per thread so a thread that
+//     finishes early can take another one.
+//  2. Each chunk is memory-mapped and parsed by its own task straight from the bytes into its own TempTable.
+//     Numbers are parsed digit by digit, and a region, country, state or city only becomes a String the
+//     first time the chunk sees it; after that its bytes are looked up in a small hash table of the chunk.
+//  3. The chunk tables are added to one table in file order with addAll, and its indexes are built.
+//
+//The file is read with the platform's default charset, like FileReader, which has to keep ',' and
+//newlines as single bytes (UTF-8 and the ISO charsets do).
+public class TempTableLoader {
+
+	private static final int CHUNKS_PER_THREAD = 4;
+	private static final long MIN_CHUNK_BYTES = 1 << 20;
+	private static final long MAX_CHUNK_BYTES = 1 << 30; //a mapping has to be under 2 GB
+	private static final String[] TEXT_CATEGORIES = {"Region","Country","State","City"};
+	private static final double[] POWERS_OF_TEN = {1, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+			1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18};
+
+	//Loads the file using one thread per processor
+	public static TempTable importFile(String fileToImport) throws IOException {
+		return importFile(fileToImport, Runtime.getRuntime().availableProcessors());
+	}
+
+	public static TempTable importFile(String fileToImport, int threads) throws IOException {
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try(FileChannel channel = FileChannel.open(Path.of(fileToImport), StandardOpenOption.READ)) {
+			long[] bounds = chunkBounds(channel, threads);
+			ArrayList<Future<TempTable>> chunks = new ArrayList<>();
+			for(int c = 0; c + 1 < bounds.length; c++) {
+				long start = bounds[c];
+				long end = bounds[c+1];
+				chunks.add(pool.submit(() -> parseChunk(channel, start, end)));
+			}
+			//wait for every chunk, then add them in file order so the rows are numbered like importFile's
+			ArrayList<TempTable> tables = new ArrayList<>();
+			int rows = 0;
+			for(Future<TempTable> chunk : chunks) {
+				tables.add(chunk.get());
+				rows += tables.get(tables.size() - 1).size();
+			}
+			TempTable table = new TempTable();
+			table.ensureCapacity(rows);
+			for(TempTable chunk : tables) {
+				table.addAll(chunk);
+			}
+			table.trimToSize();
+			table.buildIndexes();
+			return table;
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while loading " + fileToImport, e);
+		} catch(ExecutionException e) {
+			if(e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			if(e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IOException(e.getCause());
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	//Where each chunk starts, with the end of the file last. The first chunk starts after the title line,
+	//and every other one just after a newline. Chunks can come out empty when lines are long.
+	private static long[] chunkBounds(FileChannel channel, int threads) throws IOException {
+		long fileSize = channel.size();
+		long first = nextLineStart(channel, 0);
+		long bytes = fileSize - first;
+		long chunks = Math.max(1, Math.min((long) threads * CHUNKS_PER_THREAD, bytes / MIN_CHUNK_BYTES));
+		chunks = Math.max(chunks, (bytes + MAX_CHUNK_BYTES - 1) / MAX_CHUNK_BYTES);
+		long[] bounds = new long[(int) chunks + 1];
+		bounds[0] = first;
+		for(int c = 1; c < chunks; c++) {
+			bounds[c] = Math.max(bounds[c-1], nextLineStart(channel, first + bytes * c / chunks - 1));
+		}
+		bounds[(int) chunks] = fileSize;
+		return bounds;
+	}
+
+	//the position just after the first newline at or after position, or the end of the file
+	private static long nextLineStart(FileChannel channel, long position) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(4096);
+		while(position < channel.size()) {
+			buffer.clear();
+			int read = channel.read(buffer, position);
+			for(int i = 0; i < read; i++) {
+				if(buffer.get(i) == '\n') {
+					return position + i + 1;
+				}
+			}
+			position += Math.max(read, 0);
+		}
+		return channel.size();
+	}
+
+	private static TempTable parseChunk(FileChannel channel, long start, long end) throws IOException {
+		TempTable table = new TempTable();
+		if(end <= start) {
+			return table;
+		}
+		ChunkParser parser = new ChunkParser(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start),
+				start, table);
+		parser.parse();
+		return table;
+	}
+
+	//Parses the lines of one mapped chunk into a table, keeping its place in pos
+	private static class ChunkParser {
+		private final MappedByteBuffer buffer;
+		private final long offset;
+		private final int limit;
+		private final TempTable table;
+		private final FieldDictionary[] dictionaries = new FieldDictionary[TEXT_CATEGORIES.length];
+		private int pos = 0;
+
+		ChunkParser(MappedByteBuffer buffer, long offset, TempTable table) {
+			this.buffer = buffer;
+			this.offset = offset;
+			this.limit = buffer.limit();
+			this.table = table;
+			for(int f = 0; f < dictionaries.length; f++) {
+				dictionaries[f] = new FieldDictionary(table, TEXT_CATEGORIES[f]);
+			}
+		}
+
+		void parse() throws IOException {
+			while(pos < limit) {
+				byte b = buffer.get(pos);
+				//skip blank lines
+				if(b == '\n' || b == '\r') {
+					pos++;
+					continue;
+				}
+				int region = textField(dictionaries[0]);
+				int country = textField(dictionaries[1]);
+				int state = textField(dictionaries[2]);
+				int city = textField(dictionaries[3]);
+				int month = intField();
+				int day = intField();
+				int year = intField();
+				float avgTemp = tempField();
+				table.addEncoded(region, country, state, city, month, day, year, avgTemp);
+			}
+		}
+
+		//a field up to the next comma, as its dictionary code
+		private int textField(FieldDictionary dictionary) throws IOException {
+			int from = pos;
+			int hash = 0;
+			while(pos < limit) {
+				byte b = buffer.get(pos);
+				if(b == ',' || b == '\n') {
+					break;
+				}
+				hash = 31 * hash + b;
+				pos++;
+			}
+			int code = dictionary.code(buffer, from, pos, hash);
+			skipComma();
+			return code;
+		}
+
+		//a whole number up to the next comma
+		private int intField() throws IOException {
+			int from = pos;
+			boolean negative = pos < limit && buffer.get(pos) == '-';
+			if(negative || (pos < limit && buffer.get(pos) == '+')) {
+				pos++;
+			}
+			int digitsFrom = pos;
+			int value = 0;
+			while(pos < limit && buffer.get(pos) >= '0' && buffer.get(pos) <= '9') {
+				value = value * 10 + (buffer.get(pos) - '0');
+				pos++;
+			}
+			if(pos == digitsFrom) {
+				throw badLine(from, "a number");
+			}
+			//too many digits to be sure it fits, so let parseInt decide
+			if(pos - digitsFrom > 9) {
+				byte[] text = new byte[pos - from];
+				buffer.get(from, text);
+				value = Integer.parseInt(new String(text, Charset.defaultCharset()));
+				negative = false;
+			}
+			skipComma();
+			return negative ? -value : value;
+		}
+
+		//The last field, up to the end of the line. Plain decimals like -7.5 are worked out as
+		//digits / 10^decimals, which rounds the same as Double.parseDouble; anything else goes to it.
+		private float tempField() {
+			int from = pos;
+			boolean negative = pos < limit && buffer.get(pos) == '-';
+			if(negative) {
+				pos++;
+			}
+			long digits = 0;
+			int count = 0;
+			int decimals = -1;
+			boolean plain = true;
+			while(pos < limit && buffer.get(pos) != '\n' && buffer.get(pos) != '\r') {
+				byte b = buffer.get(pos);
+				if(b >= '0' && b <= '9') {
+					digits = digits * 10 + (b - '0');
+					count++;
+					if(decimals >= 0) {
+						decimals++;
+					}
+				}
+				else if(b == '.' && decimals < 0) {
+					decimals = 0;
+				}
+				else {
+					plain = false;
+				}
+				pos++;
+			}
+			int to = pos;
+			endLine();
+			if(!plain || count == 0 || count > 15 || decimals >= POWERS_OF_TEN.length) {
+				byte[] text = new byte[to - from];
+				buffer.get(from, text);
+				return (float) Double.parseDouble(new String(text, Charset.defaultCharset()));
+			}
+			double value = decimals > 0 ? digits / POWERS_OF_TEN[decimals] : digits;
+			return (float) (negative ? -value : value);
+		}
+
+		private void skipComma() throws IOException {
+			if(pos >= limit || buffer.get(pos) != ',') {
+				throw badLine(pos, "a comma");
+			}
+			pos++;
+		}
+
+		private void endLine() {
+			while(pos < limit && (buffer.get(pos) == '\r' || buffer.get(pos) == '\n')) {
+				if(buffer.get(pos++) == '\n') {
+					return;
+				}
+			}
+		}
+
+		private IOException badLine(int at, String expected) {
+			return new IOException("Expected " + expected + " at byte " + (offset + at) + " of the file");
+		}
+	}
+
+	//The codes of one text column for one chunk, keyed by the field's bytes. Only a value the chunk has
+	//not seen before is turned into a String and added to the table's dictionary.
+	private static class FieldDictionary {
+		private final TempTable table;
+		private final String category;
+		private byte[][] keys = new byte[64][];
+		private int[] hashes = new int[64];
+		private int[] codes = new int[64];
+		private int count = 0;
+
+		FieldDictionary(TempTable table, String category) {
+			this.table = table;
+			this.category = category;
+		}
+
+		int code(ByteBuffer buffer, int from, int to, int hash) {
+			int mask = keys.length - 1;
+			int slot = (hash ^ (hash >>> 16)) & mask;
+			while(keys[slot] != null) {
+				if(hashes[slot] == hash && sameBytes(keys[slot], buffer, from, to)) {
+					return codes[slot];
+				}
+				slot = (slot + 1) & mask;
+			}
+			byte[] key = new byte[to - from];
+			buffer.get(from, key);
+			int code = table.encode(category, new String(key, Charset.defaultCharset()));
+			keys[slot] = key;
+			hashes[slot] = hash;
+			codes[slot] = code;
+			if(++count * 2 > keys.length) {
+				grow();
+			}
+			return code;
+		}
+
+		private static boolean sameBytes(byte[] key, ByteBuffer buffer, int from, int to) {
+			if(key.length != to - from) {
+				return false;
+			}
+			for(int i = 0; i < key.length; i++) {
+				if(key[i] != buffer.get(from + i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		//doubles the table, putting every key back in its new slot
+		private void grow() {
+			byte[][] oldKeys = keys;
+			int[] oldHashes = hashes;
+			int[] oldCodes = codes;
+			keys = new byte[oldKeys.length * 2][];
+			hashes = new int[keys.length];
+			codes = new int[keys.length];
+			int mask = keys.length - 1;
+			for(int i = 0; i < oldKeys.length; i++) {
+				if(oldKeys[i] != null) {
+					int slot = (oldHashes[i] ^ (oldHashes[i] >>> 16)) & mask;
+					while(keys[slot] != null) {
+						slot = (slot + 1) & mask;
+					}
+					keys[slot] = oldKeys[i];
+					hashes[slot] = oldHashes[i];
+					codes[slot] = oldCodes[i];
+				}
+			}
+		}
+	}
+}